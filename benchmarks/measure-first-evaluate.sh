@@ -0,0 +1,47 @@
+#!/bin/sh
+# 比较 UDF jar 的大小以及 extract_address 首次 evaluate 的耗时:
+#   before: [user-045] 之前的构建, jar-with-dependencies 包含 hive-exec, 每个实例各自读取 area_map.csv
+#   after:  当前的构建, hiveudf-udf.jar 只包含本项目的类, area_map.csv 每个 class loader 只加载一次
+# 每次测量都是新的 JVM, 首次 evaluate 的耗时包括加载 UDF 的类, initialize 以及第一行.
+#
+#   sh benchmarks/measure-first-evaluate.sh [runs]
+#
+# 需要 git, mvn 和 java; 在仓库根目录运行, 结果打印到标准输出.
+set -e
+
+RUNS=${1:-5}
+ROOT=$(pwd)
+WORK=$(mktemp -d)
+trap 'git -C "$ROOT" worktree remove --force "$WORK/before" >/dev/null 2>&1; rm -rf "$WORK"' EXIT
+
+# user-045 的第一个提交的父提交
+BEFORE=$(git log --reverse --format=%H --grep='^\[user-045\]' | head -n 1)~1
+git worktree add --detach "$WORK/before" "$BEFORE" >/dev/null
+
+mvn -q -B -f "$WORK/before/pom.xml" -DskipTests package
+mvn -q -B -f "$ROOT/pom.xml" -DskipTests install
+mvn -q -B -f "$ROOT/benchmarks/pom.xml" -DskipTests package dependency:build-classpath \
+    -Dmdep.outputFile="$WORK/classpath.txt"
+
+BEFORE_JAR="$WORK/before/hive/target/hiveudf-jar-with-dependencies.jar"
+AFTER_JAR="$ROOT/hive/target/hiveudf-udf.jar"
+echo "jar size (bytes):"
+echo "  before $(wc -c < "$BEFORE_JAR")  $BEFORE_JAR"
+echo "  after  $(wc -c < "$AFTER_JAR")  $AFTER_JAR"
+
+printf '北京市朝阳区建国路88号\n广东省深圳市南山区科技园\n' > "$WORK/addresses.txt"
+
+# 被测的 jar 放在最前面; area_map.csv 来自 benchmarks 的资源目录
+for build in before after; do
+    if [ "$build" = before ]; then jar=$BEFORE_JAR; else jar=$AFTER_JAR; fi
+    cp="$jar:$ROOT/benchmarks/target/classes:$(cat "$WORK/classpath.txt")"
+    i=1
+    while [ "$i" -le "$RUNS" ]; do
+        ms=$(java -cp "$cp" com.gou.hiveudf.benchmarks.UDFRunner \
+                --udf com.gou.hiveudf.GenericUDFExtractAddress --types string \
+                --input "$WORK/addresses.txt" --threads 1 --warmup 0 --passes 1 \
+            | sed -n 's/^time to first evaluate: \(.*\) ms$/\1/p')
+        echo "time to first evaluate (ms): $build run $i $ms"
+        i=$((i + 1))
+    done
+done
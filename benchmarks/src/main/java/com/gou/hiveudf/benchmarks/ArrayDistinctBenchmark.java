@@ -0,0 +1,52 @@
+package com.gou.hiveudf.benchmarks;
+
+/**
+ * @version 1.0
+ * @auther GouMi
+ */
+
+import com.gou.hiveudf.GenericUDFArrayDistinct;
+import org.apache.hadoop.hive.ql.metadata.HiveException;
+import org.apache.hadoop.hive.ql.udf.generic.GenericUDF;
+import org.apache.hadoop.hive.serde2.typeinfo.TypeInfoFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+
+/**
+ * array_distinct on int and string arrays of log-uniform size up to maxSize with Zipf distributed
+ * elements, so that large arrays are mostly duplicates.
+ */
+public class ArrayDistinctBenchmark extends UDFBenchmark {
+    @Param({"8", "64", "512"})
+    public int maxSize;
+
+    private BenchmarkColumn ints;
+    private BenchmarkColumn strings;
+    private GenericUDF distinctInts;
+    private GenericUDF distinctStrings;
+    private final DeferredValue[] args = deferred(1);
+
+    @Setup
+    public void setup() {
+        DataGenerator generator = new DataGenerator(SEED);
+        ints = BenchmarkColumn.of(kind, TypeInfoFactory.getListTypeInfo(TypeInfoFactory.intTypeInfo),
+                generator.intArrays(ROWS, maxSize, 1000));
+        strings = BenchmarkColumn.of(kind, TypeInfoFactory.getListTypeInfo(TypeInfoFactory.stringTypeInfo),
+                generator.stringArrays(ROWS, maxSize));
+        distinctInts = initialize(new GenericUDFArrayDistinct(), ints.oi());
+        distinctStrings = initialize(new GenericUDFArrayDistinct(), strings.oi());
+    }
+
+    @Benchmark
+    public Object distinctInts() throws HiveException {
+        args[0].set(ints.get(nextRow()));
+        return distinctInts.evaluate(args);
+    }
+
+    @Benchmark
+    public Object distinctStrings() throws HiveException {
+        args[0].set(strings.get(nextRow()));
+        return distinctStrings.evaluate(args);
+    }
+}
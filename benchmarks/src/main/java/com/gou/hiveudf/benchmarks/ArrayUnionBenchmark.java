@@ -0,0 +1,59 @@
+package com.gou.hiveudf.benchmarks;
+
+/**
+ * @version 1.0
+ * @auther GouMi
+ */
+
+import com.gou.hiveudf.GenericUDFArrayUnion;
+import org.apache.hadoop.hive.ql.metadata.HiveException;
+import org.apache.hadoop.hive.ql.udf.generic.GenericUDF;
+import org.apache.hadoop.hive.serde2.typeinfo.TypeInfo;
+import org.apache.hadoop.hive.serde2.typeinfo.TypeInfoFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+
+/**
+ * array_union of two and of three int arrays of log-uniform size up to maxSize.
+ */
+public class ArrayUnionBenchmark extends UDFBenchmark {
+    @Param({"8", "64", "512"})
+    public int maxSize;
+
+    private BenchmarkColumn a;
+    private BenchmarkColumn b;
+    private BenchmarkColumn c;
+    private GenericUDF union2;
+    private GenericUDF union3;
+    private final DeferredValue[] args2 = deferred(2);
+    private final DeferredValue[] args3 = deferred(3);
+
+    @Setup
+    public void setup() {
+        DataGenerator generator = new DataGenerator(SEED);
+        TypeInfo type = TypeInfoFactory.getListTypeInfo(TypeInfoFactory.intTypeInfo);
+        a = BenchmarkColumn.of(kind, type, generator.intArrays(ROWS, maxSize, 1000));
+        b = BenchmarkColumn.of(kind, type, generator.intArrays(ROWS, maxSize, 1000));
+        c = BenchmarkColumn.of(kind, type, generator.intArrays(ROWS, maxSize, 1000));
+        union2 = initialize(new GenericUDFArrayUnion(), a.oi(), b.oi());
+        union3 = initialize(new GenericUDFArrayUnion(), a.oi(), b.oi(), c.oi());
+    }
+
+    @Benchmark
+    public Object union2() throws HiveException {
+        int row = nextRow();
+        args2[0].set(a.get(row));
+        args2[1].set(b.get(row));
+        return union2.evaluate(args2);
+    }
+
+    @Benchmark
+    public Object union3() throws HiveException {
+        int row = nextRow();
+        args3[0].set(a.get(row));
+        args3[1].set(b.get(row));
+        args3[2].set(c.get(row));
+        return union3.evaluate(args3);
+    }
+}
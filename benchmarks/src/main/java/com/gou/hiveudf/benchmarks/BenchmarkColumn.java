@@ -0,0 +1,125 @@
+package com.gou.hiveudf.benchmarks;
+
+/**
+ * @version 1.0
+ * @auther GouMi
+ */
+
+import org.apache.hadoop.hive.serde2.ByteStream;
+import org.apache.hadoop.hive.serde2.SerDeException;
+import org.apache.hadoop.hive.serde2.lazy.ByteArrayRef;
+import org.apache.hadoop.hive.serde2.lazy.LazyFactory;
+import org.apache.hadoop.hive.serde2.lazy.LazyObject;
+import org.apache.hadoop.hive.serde2.lazy.LazySimpleSerDe;
+import org.apache.hadoop.hive.serde2.objectinspector.ObjectInspector;
+import org.apache.hadoop.hive.serde2.objectinspector.ObjectInspectorUtils;
+import org.apache.hadoop.hive.serde2.typeinfo.TypeInfo;
+import org.apache.hadoop.hive.serde2.typeinfo.TypeInfoUtils;
+import org.apache.hadoop.io.Text;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * One column of generated rows as a UDF sees it: an ObjectInspector and the object of each row.
+ * <p>
+ * The rows are given as standard Java objects (String, Integer, List, Map, List for a struct) and
+ * are presented in one of three ways, the ones a UDF meets in a real query:
+ * <ul>
+ *   <li>JAVA - standard Java objects, e.g. the output of another UDF</li>
+ *   <li>WRITABLE - standard writables such as Text and IntWritable, e.g. ORC and vectorized rows</li>
+ *   <li>LAZY - LazySimpleSerDe objects over the text bytes, i.e. a TEXTFILE table</li>
+ * </ul>
+ * As in LazySimpleSerDe the lazy column reuses one lazy object and re-initializes it over the
+ * bytes of each row, so nothing parsed for one row is cached for the next.
+ */
+public final class BenchmarkColumn {
+    public enum Kind { JAVA, WRITABLE, LAZY }
+
+    // LazySimpleSerDe 的默认分隔符 \001 .. \010, 第 0 级用于分隔列
+    private static final byte[] SEPARATORS = {1, 2, 3, 4, 5, 6, 7, 8};
+    private static final Text NULL_SEQUENCE = new Text("\\N");
+
+    private final ObjectInspector oi;
+    private final Object[] values;
+    // LAZY 时每行的字节, 否则为 null
+    private final byte[][] bytes;
+    private final LazyObject<? extends ObjectInspector> lazy;
+    private final ByteArrayRef ref = new ByteArrayRef();
+
+    private BenchmarkColumn(ObjectInspector oi, Object[] values, byte[][] bytes) {
+        this.oi = oi;
+        this.values = values;
+        this.bytes = bytes;
+        this.lazy = bytes == null ? null : LazyFactory.createLazyObject(oi);
+    }
+
+    /**
+     * @param type the Hive type of the column
+     * @param rows standard Java objects, null for a null row
+     */
+    public static BenchmarkColumn of(Kind kind, TypeInfo type, List<?> rows) {
+        ObjectInspector javaOI = TypeInfoUtils.getStandardJavaObjectInspectorFromTypeInfo(type);
+        Object[] values = rows.toArray();
+        switch (kind) {
+            case JAVA:
+                return new BenchmarkColumn(javaOI, values, null);
+            case WRITABLE:
+                for (int i = 0; i < values.length; i++) {
+                    values[i] = ObjectInspectorUtils.copyToStandardObject(values[i], javaOI,
+                            ObjectInspectorUtils.ObjectInspectorCopyOption.WRITABLE);
+                }
+                return new BenchmarkColumn(TypeInfoUtils.getStandardWritableObjectInspectorFromTypeInfo(type),
+                        values, null);
+            case LAZY:
+                return lazy(type, javaOI, values);
+            default:
+                throw new IllegalArgumentException("Unknown kind " + kind);
+        }
+    }
+
+    private static BenchmarkColumn lazy(TypeInfo type, ObjectInspector javaOI, Object[] values) {
+        try {
+            ObjectInspector lazyOI = LazyFactory.createLazyObjectInspector(type, SEPARATORS, 1,
+                    NULL_SEQUENCE, false, (byte) 0);
+            byte[][] bytes = new byte[values.length][];
+            ByteStream.Output out = new ByteStream.Output();
+            for (int i = 0; i < values.length; i++) {
+                if (values[i] != null) {
+                    out.reset();
+                    LazySimpleSerDe.serialize(out, values[i], javaOI, SEPARATORS, 1, NULL_SEQUENCE,
+                            false, (byte) 0, null);
+                    bytes[i] = Arrays.copyOf(out.getData(), out.getLength());
+                }
+            }
+            return new BenchmarkColumn(lazyOI, values, bytes);
+        } catch (IOException | SerDeException e) {
+            throw new IllegalStateException("Cannot serialize the rows of " + type, e);
+        }
+    }
+
+    public ObjectInspector oi() {
+        return oi;
+    }
+
+    public int size() {
+        return values.length;
+    }
+
+    /**
+     * @return the object of the row, for a LAZY column the shared lazy object initialized over it
+     */
+    public Object get(int row) {
+        if (bytes == null) {
+            return values[row];
+        }
+        byte[] data = bytes[row];
+        if (data == null) {
+            return null;
+        }
+        ref.setData(data);
+        lazy.init(ref, 0, data.length);
+        return lazy;
+    }
+}
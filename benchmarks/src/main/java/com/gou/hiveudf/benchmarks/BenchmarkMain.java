@@ -0,0 +1,35 @@
+package com.gou.hiveudf.benchmarks;
+
+/**
+ * @version 1.0
+ * @auther GouMi
+ */
+
+import org.openjdk.jmh.Main;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+
+import java.util.Arrays;
+
+/**
+ * Entry point of benchmarks.jar: the JMH command line with the gc profiler added unless other
+ * profilers are given, so every run reports the allocation rate (gc.alloc.rate.norm, bytes per
+ * row) next to the throughput.
+ * <pre>
+ *   java -jar target/benchmarks.jar                          all benchmarks
+ *   java -jar target/benchmarks.jar MatchNWords -p kind=LAZY  one class, lazy ObjectInspectors only
+ *   java -jar target/benchmarks.jar -l                        list the benchmarks
+ * </pre>
+ */
+public final class BenchmarkMain {
+    private BenchmarkMain() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (new CommandLineOptions(args).getProfilers().isEmpty()) {
+            args = Arrays.copyOf(args, args.length + 2);
+            args[args.length - 2] = "-prof";
+            args[args.length - 1] = "gc";
+        }
+        Main.main(args);
+    }
+}
@@ -0,0 +1,167 @@
+package com.gou.hiveudf.benchmarks;
+
+/**
+ * @version 1.0
+ * @auther GouMi
+ */
+
+import com.gou.hiveudf.core.AddressMatcher;
+import com.gou.hiveudf.core.DistinctIndex;
+import com.gou.hiveudf.core.JsonWriter;
+import com.gou.hiveudf.core.SpaceSaving;
+import com.gou.hiveudf.core.WordMatcher;
+import com.gou.hiveudf.core.WordTokenizer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The kernels of the core module without any Hive class on the path: the cost a Spark or plain
+ * Java job pays, and the lower bound of the matching UDF benchmarks. The rows are the same as
+ * in those benchmarks.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CoreBenchmark {
+    private static final int ROWS = UDFBenchmark.ROWS;
+
+    private byte[][] titles;
+    private byte[][] relatedTitles;
+    private final WordMatcher wordMatcher = new WordMatcher();
+
+    private String[] addresses;
+    private AddressMatcher addressMatcher;
+
+    private List<List<Object>> records;
+    private final JsonWriter jsonWriter = new JsonWriter();
+
+    private int[][] arrays;
+    private final DistinctIndex distinctIndex = new DistinctIndex();
+    private int[] elements;
+    private final DistinctIndex.Equality equality = (i, j) -> elements[i] == elements[j];
+
+    private final WordTokenizer tokenizer = new WordTokenizer();
+    // top_tokens(title, 10) 的默认容量, 所有行计入同一个 sketch
+    private final SpaceSaving sketch = new SpaceSaving(100);
+
+    private int row;
+
+    @Setup
+    public void setup() throws IOException {
+        DataGenerator generator = new DataGenerator(UDFBenchmark.SEED);
+        List<String> mixed = generator.mixedText(ROWS, 2, 30);
+        List<String> related = generator.related(mixed, 0.6);
+        titles = new byte[ROWS][];
+        relatedTitles = new byte[ROWS][];
+        for (int i = 0; i < ROWS; i++) {
+            titles[i] = mixed.get(i).getBytes(StandardCharsets.UTF_8);
+            relatedTitles[i] = related.get(i).getBytes(StandardCharsets.UTF_8);
+        }
+
+        addresses = generator.addresses(ROWS).toArray(new String[0]);
+        try (InputStream in = CoreBenchmark.class.getClassLoader().getResourceAsStream("area_map.csv")) {
+            addressMatcher = AddressMatcher.load(in);
+        }
+        // 模式在第一次用到时编译, 不计入测量
+        for (String address : addresses) {
+            addressMatcher.match(address);
+        }
+
+        records = generator.records(ROWS);
+
+        List<List<Integer>> intArrays = generator.intArrays(ROWS, 200, 1000);
+        arrays = new int[ROWS][];
+        for (int i = 0; i < ROWS; i++) {
+            arrays[i] = intArrays.get(i).stream().mapToInt(Integer::intValue).toArray();
+        }
+    }
+
+    private int nextRow() {
+        int r = row;
+        row = (r + 1) & (ROWS - 1);
+        return r;
+    }
+
+    @Benchmark
+    public int matchNWords() {
+        int r = nextRow();
+        byte[] a = titles[r];
+        byte[] b = relatedTitles[r];
+        return wordMatcher.match(a, 0, a.length, b, 0, b.length);
+    }
+
+    @Benchmark
+    public String extractAddress() {
+        return addressMatcher.match(addresses[nextRow()]);
+    }
+
+    @Benchmark
+    @SuppressWarnings("unchecked")
+    public int toJson() {
+        List<Object> record = records.get(nextRow());
+        JsonWriter out = jsonWriter;
+        out.reset();
+        out.startObject();
+        out.fieldName("id");
+        out.number((Long) record.get(0));
+        out.fieldName("title");
+        out.string((String) record.get(1));
+        out.fieldName("tags");
+        out.startArray();
+        for (String tag : (List<String>) record.get(2)) {
+            out.string(tag);
+        }
+        out.endArray();
+        out.fieldName("attrs");
+        out.startObject();
+        for (Map.Entry<String, Integer> attr : ((Map<String, Integer>) record.get(3)).entrySet()) {
+            out.fieldName(attr.getKey());
+            out.number(attr.getValue());
+        }
+        out.endObject();
+        out.fieldName("score");
+        Double score = (Double) record.get(4);
+        if (score == null) {
+            out.nullValue();
+        } else {
+            out.number(score);
+        }
+        out.endObject();
+        return out.size();
+    }
+
+    @Benchmark
+    public int arrayDistinct() {
+        elements = arrays[nextRow()];
+        // int 的哈希就是它自己, 与 ObjectInspectorUtils.hashCode 一致
+        return distinctIndex.distinct(elements, elements.length, equality);
+    }
+
+    @Benchmark
+    public long topTokens() {
+        byte[] title = titles[nextRow()];
+        int n = tokenizer.tokenize(title, 0, title.length);
+        for (int i = 0; i < n; i++) {
+            sketch.offer(title, tokenizer.start(i), tokenizer.end(i), tokenizer.hash(i), 1);
+        }
+        return sketch.total();
+    }
+}
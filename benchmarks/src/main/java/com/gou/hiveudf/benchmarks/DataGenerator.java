@@ -0,0 +1,295 @@
+package com.gou.hiveudf.benchmarks;
+
+/**
+ * @version 1.0
+ * @auther GouMi
+ */
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Seeded generators of realistic rows for the benchmarks. The same seed gives the same rows, so
+ * results of different runs and different versions of a UDF are comparable.
+ * <p>
+ * Values are drawn from Zipf distributions, as in real tables a few cities, words and ids are far
+ * more frequent than the rest; array sizes are log-uniform, mostly short with a long tail.
+ */
+public final class DataGenerator {
+    // 常用汉字, 按频率大致排序
+    private static final String CJK_CHARS = "的一是在不了有和人这中大为上个国我以要他时来用们生到作地于出就分对成会可主发年动"
+            + "同工也能下过子说产种面而方后多定行学法所民得经十三之进着等部度家电力里如水化高自二理起小物现实加量都两体制机当"
+            + "使点从业本去把性好应开它合还因由其些然前外天政四日那社义事平形相全表间样与关各重新线内数正心反你明看原又么利比"
+            + "或但质气第向道命此变条只没结解问意建月公无系军很情者最立代想已通并提直题党程展五果料象员革位入常文总次品式活设";
+    private static final String[] SYLLABLES = {"ka", "lo", "mi", "ne", "tor", "pha", "sun", "ex", "ble", "ri", "cam",
+            "dy", "qu", "van", "zo", "us", "bat", "ter", "fin", "go", "ly", "mar", "pro", "con", "ing", "ed"};
+    private static final String[] ROADS = {"人民", "解放", "中山", "建设", "和平", "新华", "长江", "东风", "光明", "胜利"};
+    private static final String[] ROAD_SUFFIXES = {"路", "街", "大道", "巷"};
+    private static final String[] PROVINCE_SUFFIXES = {"", "省", "市"};
+
+    private final Random random;
+    private final String[] words;
+    private final Zipf wordZipf;
+    private final Zipf charZipf;
+
+    public DataGenerator(long seed) {
+        random = new Random(seed);
+        words = new String[2000];
+        for (int i = 0; i < words.length; i++) {
+            StringBuilder sb = new StringBuilder();
+            int syllables = 1 + random.nextInt(3);
+            for (int j = 0; j < syllables; j++) {
+                sb.append(SYLLABLES[random.nextInt(SYLLABLES.length)]);
+            }
+            words[i] = sb.toString();
+        }
+        wordZipf = new Zipf(words.length, 1.0);
+        charZipf = new Zipf(CJK_CHARS.length(), 0.8);
+    }
+
+    /**
+     * Chinese addresses over the areas of area_map.csv. Districts are Zipf distributed, the
+     * province and city names come with or without their suffix, followed by a street and a number.
+     * One in twenty addresses names no known area at all.
+     */
+    public List<String> addresses(int rows) {
+        List<String[]> districts = new ArrayList<>();
+        Map<String, String> townOf = new HashMap<>();
+        for (String[] area : readAreaMap()) {
+            if ("D".equals(area[4])) {
+                districts.add(area);
+            } else if ("T".equals(area[4])) {
+                townOf.put(area[0] + area[1], area[1]);
+            }
+        }
+        Zipf zipf = new Zipf(districts.size(), 1.1);
+        List<String> result = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            StringBuilder sb = new StringBuilder();
+            if (random.nextInt(20) == 0) {
+                sb.append(cjk(2 + random.nextInt(6)));
+            } else {
+                String[] area = districts.get(zipf.next(random));
+                if (random.nextInt(4) == 0) {
+                    sb.append("中国");
+                }
+                sb.append(area[0]).append(PROVINCE_SUFFIXES[random.nextInt(PROVINCE_SUFFIXES.length)]);
+                String town = townOf.get(area[0] + area[1]);
+                if (town != null) {
+                    sb.append(town).append(random.nextBoolean() ? "市" : "");
+                }
+                if (random.nextInt(5) != 0) {
+                    sb.append(area[2]).append("区");
+                }
+            }
+            sb.append(ROADS[random.nextInt(ROADS.length)])
+                    .append(ROAD_SUFFIXES[random.nextInt(ROAD_SUFFIXES.length)])
+                    .append(1 + random.nextInt(999)).append("号");
+            if (random.nextInt(3) == 0) {
+                sb.append(' ').append(1 + random.nextInt(30)).append("栋-").append(101 + random.nextInt(2000)).append("室");
+            }
+            result.add(sb.toString());
+        }
+        return result;
+    }
+
+    /**
+     * Product titles mixing English words and runs of Chinese chars, e.g.
+     * "tor 的是大 kaloble usb 家电", with minTokens to maxTokens tokens separated by spaces.
+     */
+    public List<String> mixedText(int rows, int minTokens, int maxTokens) {
+        List<String> result = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            int tokens = minTokens + random.nextInt(maxTokens - minTokens + 1);
+            StringBuilder sb = new StringBuilder();
+            for (int j = 0; j < tokens; j++) {
+                if (j > 0) {
+                    sb.append(' ');
+                }
+                sb.append(random.nextInt(5) < 3 ? words[wordZipf.next(random)] : cjk(1 + random.nextInt(4)));
+            }
+            result.add(sb.toString());
+        }
+        return result;
+    }
+
+    /**
+     * For each text a related one, keeping each space separated token with probability keep and
+     * replacing the others, then swapping a few neighbours.
+     */
+    public List<String> related(List<String> texts, double keep) {
+        List<String> result = new ArrayList<>(texts.size());
+        for (String text : texts) {
+            String[] tokens = text.split(" ");
+            for (int i = 0; i < tokens.length; i++) {
+                if (random.nextDouble() >= keep) {
+                    tokens[i] = random.nextBoolean() ? words[wordZipf.next(random)] : cjk(1 + random.nextInt(4));
+                }
+            }
+            for (int i = 1; i < tokens.length; i++) {
+                if (random.nextInt(4) == 0) {
+                    String t = tokens[i];
+                    tokens[i] = tokens[i - 1];
+                    tokens[i - 1] = t;
+                }
+            }
+            result.add(String.join(" ", tokens));
+        }
+        return result;
+    }
+
+    /**
+     * Int arrays of log-uniform size in [0, maxSize] with Zipf distributed elements out of
+     * cardinality values, so larger arrays have many duplicates.
+     */
+    public List<List<Integer>> intArrays(int rows, int maxSize, int cardinality) {
+        Zipf zipf = new Zipf(cardinality, 1.0);
+        List<List<Integer>> result = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            int size = size(maxSize);
+            List<Integer> array = new ArrayList<>(size);
+            for (int j = 0; j < size; j++) {
+                array.add(zipf.next(random));
+            }
+            result.add(array);
+        }
+        return result;
+    }
+
+    /**
+     * String arrays of log-uniform size in [0, maxSize] with Zipf distributed words.
+     */
+    public List<List<String>> stringArrays(int rows, int maxSize) {
+        List<List<String>> result = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            int size = size(maxSize);
+            List<String> array = new ArrayList<>(size);
+            for (int j = 0; j < size; j++) {
+                array.add(words[wordZipf.next(random)]);
+            }
+            result.add(array);
+        }
+        return result;
+    }
+
+    /**
+     * Array strings such as "[12, 7,null, 300]" of log-uniform size in [0, maxSize], with varying
+     * spaces and one null in fifty elements. Doubles have up to four decimals.
+     *
+     * @param clean no spaces, no nulls and no empty array, the only form the legacy StringToArray accepts
+     */
+    public List<String> arrayStrings(int rows, int maxSize, boolean doubles, boolean clean) {
+        List<String> result = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            int size = clean ? Math.max(1, size(maxSize)) : size(maxSize);
+            StringBuilder sb = new StringBuilder("[");
+            for (int j = 0; j < size; j++) {
+                if (j > 0) {
+                    sb.append(clean || random.nextBoolean() ? "," : ", ");
+                }
+                if (!clean && random.nextInt(50) == 0) {
+                    sb.append("null");
+                } else if (doubles) {
+                    sb.append(Math.round(random.nextGaussian() * 1e6) / 1e4);
+                } else {
+                    sb.append(random.nextInt(100000) - 1000);
+                }
+            }
+            result.add(sb.append(']').toString());
+        }
+        return result;
+    }
+
+    /**
+     * Ints, null with probability nullFraction.
+     */
+    public List<Integer> nullableInts(int rows, double nullFraction) {
+        List<Integer> result = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            result.add(random.nextDouble() < nullFraction ? null : random.nextInt(1000000));
+        }
+        return result;
+    }
+
+    /**
+     * Records of struct&lt;id:bigint,title:string,tags:array&lt;string&gt;,attrs:map&lt;string,int&gt;,score:double&gt;
+     * as standard Java structs, i.e. lists of the field values.
+     */
+    public List<List<Object>> records(int rows) {
+        List<String> titles = mixedText(rows, 2, 12);
+        List<List<String>> tags = stringArrays(rows, 8);
+        List<List<Object>> result = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            Map<String, Integer> attrs = new HashMap<>();
+            int n = random.nextInt(6);
+            for (int j = 0; j < n; j++) {
+                attrs.put(words[wordZipf.next(random)], random.nextInt(1000));
+            }
+            Double score = random.nextInt(10) == 0 ? null : random.nextDouble() * 5;
+            result.add(Arrays.asList(random.nextLong() & Long.MAX_VALUE, titles.get(i), tags.get(i), attrs, score));
+        }
+        return result;
+    }
+
+    private String cjk(int length) {
+        StringBuilder sb = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            sb.append(CJK_CHARS.charAt(charZipf.next(random)));
+        }
+        return sb.toString();
+    }
+
+    private int size(int maxSize) {
+        return (int) Math.exp(random.nextDouble() * Math.log(maxSize + 1.0)) - 1;
+    }
+
+    private static List<String[]> readAreaMap() {
+        List<String[]> areas = new ArrayList<>();
+        try (InputStream in = DataGenerator.class.getClassLoader().getResourceAsStream("area_map.csv");
+             BufferedReader br = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = br.readLine()) != null) {
+                if (!line.isEmpty()) {
+                    areas.add(line.split(","));
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return areas;
+    }
+
+    /**
+     * Zipf distribution over [0, n): P(k) is proportional to 1 / (k + 1)^s.
+     */
+    private static final class Zipf {
+        private final double[] cdf;
+
+        Zipf(int n, double s) {
+            cdf = new double[n];
+            double sum = 0;
+            for (int k = 0; k < n; k++) {
+                sum += 1 / Math.pow(k + 1, s);
+                cdf[k] = sum;
+            }
+            for (int k = 0; k < n; k++) {
+                cdf[k] /= sum;
+            }
+        }
+
+        int next(Random random) {
+            int i = Arrays.binarySearch(cdf, random.nextDouble());
+            return Math.min(i < 0 ? -i - 1 : i, cdf.length - 1);
+        }
+    }
+}
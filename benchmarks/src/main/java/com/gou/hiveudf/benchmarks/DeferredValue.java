@@ -0,0 +1,30 @@
+package com.gou.hiveudf.benchmarks;
+
+/**
+ * @version 1.0
+ * @auther GouMi
+ */
+
+import org.apache.hadoop.hive.ql.udf.generic.GenericUDF;
+
+/**
+ * A DeferredObject set to the argument of each row, as Hive's own deferred expression objects are.
+ * GenericUDF.DeferredJavaObject is immutable and would cost an allocation per argument and row.
+ */
+public final class DeferredValue implements GenericUDF.DeferredObject {
+    private Object value;
+
+    public DeferredValue set(Object value) {
+        this.value = value;
+        return this;
+    }
+
+    @Override
+    public void prepare(int version) {
+    }
+
+    @Override
+    public Object get() {
+        return value;
+    }
+}
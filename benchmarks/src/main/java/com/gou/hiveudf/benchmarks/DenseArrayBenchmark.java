@@ -0,0 +1,69 @@
+package com.gou.hiveudf.benchmarks;
+
+/**
+ * @version 1.0
+ * @auther GouMi
+ */
+
+import com.gou.hiveudf.GenericUDFDenseArray;
+import org.apache.hadoop.hive.ql.metadata.HiveException;
+import org.apache.hadoop.hive.ql.udf.generic.GenericUDF;
+import org.apache.hadoop.hive.serde2.objectinspector.ObjectInspector;
+import org.apache.hadoop.hive.serde2.objectinspector.primitive.PrimitiveObjectInspectorFactory;
+import org.apache.hadoop.hive.serde2.typeinfo.TypeInfoFactory;
+import org.apache.hadoop.io.IntWritable;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+
+/**
+ * dense_array over eight nullable int columns, and over three columns plus a constant.
+ */
+public class DenseArrayBenchmark extends UDFBenchmark {
+    private static final int COLUMNS = 8;
+
+    @Param({"0.1", "0.5"})
+    public double nullFraction;
+
+    private final BenchmarkColumn[] columns = new BenchmarkColumn[COLUMNS];
+    private GenericUDF dense8;
+    private GenericUDF dense3Constant;
+    private final DeferredValue[] args8 = deferred(COLUMNS);
+    private final DeferredValue[] args4 = deferred(4);
+
+    @Setup
+    public void setup() {
+        DataGenerator generator = new DataGenerator(SEED);
+        ObjectInspector[] ois = new ObjectInspector[COLUMNS];
+        for (int i = 0; i < COLUMNS; i++) {
+            columns[i] = BenchmarkColumn.of(kind, TypeInfoFactory.intTypeInfo,
+                    generator.nullableInts(ROWS, nullFraction));
+            ois[i] = columns[i].oi();
+        }
+        dense8 = initialize(new GenericUDFDenseArray(), ois);
+
+        IntWritable constant = new IntWritable(7);
+        args4[3].set(constant);
+        dense3Constant = initialize(new GenericUDFDenseArray(), ois[0], ois[1], ois[2],
+                PrimitiveObjectInspectorFactory.getPrimitiveWritableConstantObjectInspector(
+                        TypeInfoFactory.intTypeInfo, constant));
+    }
+
+    @Benchmark
+    public Object dense8() throws HiveException {
+        int row = nextRow();
+        for (int i = 0; i < COLUMNS; i++) {
+            args8[i].set(columns[i].get(row));
+        }
+        return dense8.evaluate(args8);
+    }
+
+    @Benchmark
+    public Object dense3Constant() throws HiveException {
+        int row = nextRow();
+        for (int i = 0; i < 3; i++) {
+            args4[i].set(columns[i].get(row));
+        }
+        return dense3Constant.evaluate(args4);
+    }
+}
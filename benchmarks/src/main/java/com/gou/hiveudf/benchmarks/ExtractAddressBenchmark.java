@@ -0,0 +1,39 @@
+package com.gou.hiveudf.benchmarks;
+
+/**
+ * @version 1.0
+ * @auther GouMi
+ */
+
+import com.gou.hiveudf.GenericUDFExtractAddress;
+import org.apache.hadoop.hive.ql.metadata.HiveException;
+import org.apache.hadoop.hive.ql.udf.generic.GenericUDF;
+import org.apache.hadoop.hive.serde2.typeinfo.TypeInfoFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Setup;
+
+/**
+ * extract_address on Zipf distributed addresses over the areas of the area_map.csv fixture.
+ * The fixture is a small excerpt, with the full map each lookup scans proportionally more areas.
+ */
+public class ExtractAddressBenchmark extends UDFBenchmark {
+    private BenchmarkColumn addresses;
+    private GenericUDF extractAddress;
+    private final DeferredValue[] args = deferred(1);
+
+    @Setup
+    public void setup() throws HiveException {
+        addresses = BenchmarkColumn.of(kind, TypeInfoFactory.stringTypeInfo,
+                new DataGenerator(SEED).addresses(ROWS));
+        extractAddress = initialize(new GenericUDFExtractAddress(), addresses.oi());
+        // area_map.csv 在第一次 evaluate 时加载, 不计入测量
+        args[0].set(addresses.get(0));
+        extractAddress.evaluate(args);
+    }
+
+    @Benchmark
+    public Object extractAddress() throws HiveException {
+        args[0].set(addresses.get(nextRow()));
+        return extractAddress.evaluate(args);
+    }
+}
@@ -0,0 +1,87 @@
+package com.gou.hiveudf.benchmarks;
+
+/**
+ * @version 1.0
+ * @auther GouMi
+ */
+
+import com.gou.hiveudf.UDFMatchNWords;
+import com.gou.hiveudf.UDFMatchNWords2;
+import org.apache.hadoop.hive.ql.metadata.HiveException;
+import org.apache.hadoop.hive.ql.udf.generic.GenericUDF;
+import org.apache.hadoop.hive.ql.udf.generic.GenericUDFBridge;
+import org.apache.hadoop.hive.serde2.objectinspector.primitive.PrimitiveObjectInspectorFactory;
+import org.apache.hadoop.hive.serde2.typeinfo.TypeInfoFactory;
+import org.apache.hadoop.io.IntWritable;
+import org.apache.hadoop.io.Text;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Setup;
+
+import java.util.List;
+
+/**
+ * matchNWords and matchNWords2 on titles mixing English words and Chinese chars, where the
+ * second title keeps about 60% of the tokens of the first one.
+ */
+public class MatchNWordsBenchmark extends UDFBenchmark {
+    private BenchmarkColumn str1;
+    private BenchmarkColumn str2;
+    private GenericUDF matchNWords;
+    private GenericUDF matchNWords2;
+    private GenericUDF matchNWords2Constant;
+    private GenericUDF matchNWords2Bigrams;
+    private final DeferredValue[] args = deferred(2);
+    private final DeferredValue[] args3 = deferred(3);
+    private final DeferredValue[] constantArgs = deferred(2);
+
+    @Setup
+    public void setup() {
+        DataGenerator generator = new DataGenerator(SEED);
+        List<String> titles = generator.mixedText(ROWS, 3, 20);
+        str1 = BenchmarkColumn.of(kind, TypeInfoFactory.stringTypeInfo, titles);
+        str2 = BenchmarkColumn.of(kind, TypeInfoFactory.stringTypeInfo, generator.related(titles, 0.6));
+
+        matchNWords = initialize(new GenericUDFBridge("matchNWords", false, UDFMatchNWords.class.getName()),
+                str1.oi(), str2.oi());
+        matchNWords2 = initialize(new UDFMatchNWords2(), str1.oi(), str2.oi());
+        Text constant = new Text(titles.get(0));
+        constantArgs[0].set(constant);
+        matchNWords2Constant = initialize(new UDFMatchNWords2(),
+                PrimitiveObjectInspectorFactory.getPrimitiveWritableConstantObjectInspector(
+                        TypeInfoFactory.stringTypeInfo, constant),
+                str2.oi());
+        matchNWords2Bigrams = initialize(new UDFMatchNWords2(), str1.oi(), str2.oi(),
+                PrimitiveObjectInspectorFactory.getPrimitiveWritableConstantObjectInspector(
+                        TypeInfoFactory.intTypeInfo, new IntWritable(2)));
+    }
+
+    @Benchmark
+    public Object matchNWords() throws HiveException {
+        int row = nextRow();
+        args[0].set(str1.get(row));
+        args[1].set(str2.get(row));
+        return matchNWords.evaluate(args);
+    }
+
+    @Benchmark
+    public Object matchNWords2() throws HiveException {
+        int row = nextRow();
+        args[0].set(str1.get(row));
+        args[1].set(str2.get(row));
+        return matchNWords2.evaluate(args);
+    }
+
+    @Benchmark
+    public Object matchNWords2Constant() throws HiveException {
+        constantArgs[1].set(str2.get(nextRow()));
+        return matchNWords2Constant.evaluate(constantArgs);
+    }
+
+    @Benchmark
+    public Object matchNWords2Bigrams() throws HiveException {
+        int row = nextRow();
+        args3[0].set(str1.get(row));
+        args3[1].set(str2.get(row));
+        return matchNWords2Bigrams.evaluate(args3);
+    }
+}
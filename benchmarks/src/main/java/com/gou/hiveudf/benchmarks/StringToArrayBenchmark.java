@@ -0,0 +1,71 @@
+package com.gou.hiveudf.benchmarks;
+
+/**
+ * @version 1.0
+ * @auther GouMi
+ */
+
+import com.gou.hiveudf.GenericUDFStringToArray;
+import com.gou.hiveudf.StringToArray;
+import org.apache.hadoop.hive.ql.metadata.HiveException;
+import org.apache.hadoop.hive.ql.udf.generic.GenericUDF;
+import org.apache.hadoop.hive.ql.udf.generic.GenericUDFBridge;
+import org.apache.hadoop.hive.serde2.objectinspector.primitive.PrimitiveObjectInspectorFactory;
+import org.apache.hadoop.hive.serde2.typeinfo.TypeInfoFactory;
+import org.apache.hadoop.io.Text;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+
+/**
+ * The legacy StringToArray against string_to_array on array strings of log-uniform size up to
+ * maxSize. The legacy UDF only accepts ints without spaces or nulls, so both run on such rows;
+ * string_to_array additionally runs on double arrays with spaces and nulls.
+ */
+public class StringToArrayBenchmark extends UDFBenchmark {
+    @Param({"8", "64", "512"})
+    public int maxSize;
+
+    private BenchmarkColumn ints;
+    private BenchmarkColumn doubles;
+    private GenericUDF legacy;
+    private GenericUDF stringToArrayInt;
+    private GenericUDF stringToArrayDouble;
+    private final DeferredValue[] args = deferred(1);
+    private final DeferredValue[] args2 = deferred(2);
+
+    @Setup
+    public void setup() {
+        DataGenerator generator = new DataGenerator(SEED);
+        ints = BenchmarkColumn.of(kind, TypeInfoFactory.stringTypeInfo,
+                generator.arrayStrings(ROWS, maxSize, false, true));
+        doubles = BenchmarkColumn.of(kind, TypeInfoFactory.stringTypeInfo,
+                generator.arrayStrings(ROWS, maxSize, true, false));
+
+        legacy = initialize(new GenericUDFBridge("string_to_array", false, StringToArray.class.getName()), ints.oi());
+        stringToArrayInt = initialize(new GenericUDFStringToArray(), ints.oi());
+        Text type = new Text("double");
+        args2[1].set(type);
+        stringToArrayDouble = initialize(new GenericUDFStringToArray(), doubles.oi(),
+                PrimitiveObjectInspectorFactory.getPrimitiveWritableConstantObjectInspector(
+                        TypeInfoFactory.stringTypeInfo, type));
+    }
+
+    @Benchmark
+    public Object legacyStringToArray() throws HiveException {
+        args[0].set(ints.get(nextRow()));
+        return legacy.evaluate(args);
+    }
+
+    @Benchmark
+    public Object stringToArrayInt() throws HiveException {
+        args[0].set(ints.get(nextRow()));
+        return stringToArrayInt.evaluate(args);
+    }
+
+    @Benchmark
+    public Object stringToArrayDouble() throws HiveException {
+        args2[0].set(doubles.get(nextRow()));
+        return stringToArrayDouble.evaluate(args2);
+    }
+}
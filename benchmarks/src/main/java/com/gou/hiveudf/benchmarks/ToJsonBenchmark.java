@@ -0,0 +1,39 @@
+package com.gou.hiveudf.benchmarks;
+
+/**
+ * @version 1.0
+ * @auther GouMi
+ */
+
+import com.gou.hiveudf.GenericUDFToJson;
+import org.apache.hadoop.hive.ql.metadata.HiveException;
+import org.apache.hadoop.hive.ql.udf.generic.GenericUDF;
+import org.apache.hadoop.hive.serde2.typeinfo.TypeInfoUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Setup;
+
+/**
+ * to_json on records with a mixed text title, a string array and a small map.
+ */
+public class ToJsonBenchmark extends UDFBenchmark {
+    private static final String RECORD_TYPE =
+            "struct<id:bigint,title:string,tags:array<string>,attrs:map<string,int>,score:double>";
+
+    private BenchmarkColumn records;
+    private GenericUDF toJson;
+    private final DeferredValue[] args = deferred(1);
+
+    @Setup
+    public void setup() {
+        DataGenerator generator = new DataGenerator(SEED);
+        records = BenchmarkColumn.of(kind, TypeInfoUtils.getTypeInfoFromTypeString(RECORD_TYPE),
+                generator.records(ROWS));
+        toJson = initialize(new GenericUDFToJson(), records.oi());
+    }
+
+    @Benchmark
+    public Object toJson() throws HiveException {
+        args[0].set(records.get(nextRow()));
+        return toJson.evaluate(args);
+    }
+}
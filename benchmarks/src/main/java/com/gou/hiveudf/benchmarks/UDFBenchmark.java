@@ -0,0 +1,72 @@
+package com.gou.hiveudf.benchmarks;
+
+/**
+ * @version 1.0
+ * @auther GouMi
+ */
+
+import org.apache.hadoop.hive.ql.exec.UDFArgumentException;
+import org.apache.hadoop.hive.ql.udf.generic.GenericUDF;
+import org.apache.hadoop.hive.serde2.objectinspector.ObjectInspector;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Common settings of the UDF benchmarks: rows per second, one fork, and every benchmark run with
+ * the arguments presented by Java, writable and lazy ObjectInspectors.
+ * <p>
+ * A benchmark generates {@link #ROWS} rows with a fixed seed in its setup and each invocation
+ * evaluates the UDF on the next row, cycling through them, the way an operator calls a UDF. The
+ * result is returned so JMH consumes it.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+// Hive 在 JDK 9+ 上需要反射访问 java.base, JDK 8 会忽略这些参数
+@Fork(value = 1, jvmArgsAppend = {"-XX:+IgnoreUnrecognizedVMOptions",
+        "--add-opens=java.base/java.lang=ALL-UNNAMED",
+        "--add-opens=java.base/java.net=ALL-UNNAMED",
+        "--add-opens=java.base/java.util=ALL-UNNAMED"})
+public abstract class UDFBenchmark {
+    protected static final int ROWS = 1 << 12;
+    protected static final long SEED = 20201019L;
+
+    @Param({"JAVA", "WRITABLE", "LAZY"})
+    public BenchmarkColumn.Kind kind;
+
+    private int row;
+
+    protected final int nextRow() {
+        int r = row;
+        row = (r + 1) & (ROWS - 1);
+        return r;
+    }
+
+    protected static <T extends GenericUDF> T initialize(T udf, ObjectInspector... arguments) {
+        try {
+            udf.initialize(arguments);
+            return udf;
+        } catch (UDFArgumentException e) {
+            throw new IllegalStateException("Cannot initialize " + udf.getClass().getSimpleName(), e);
+        }
+    }
+
+    protected static DeferredValue[] deferred(int n) {
+        DeferredValue[] values = new DeferredValue[n];
+        for (int i = 0; i < n; i++) {
+            values[i] = new DeferredValue();
+        }
+        return values;
+    }
+}
@@ -0,0 +1,474 @@
+package com.gou.hiveudf.benchmarks;
+
+/**
+ * @version 1.0
+ * @auther GouMi
+ */
+
+import org.apache.hadoop.hive.ql.exec.MapredContext;
+import org.apache.hadoop.hive.ql.exec.UDF;
+import org.apache.hadoop.hive.ql.metadata.HiveException;
+import org.apache.hadoop.hive.ql.udf.generic.GenericUDF;
+import org.apache.hadoop.hive.ql.udf.generic.GenericUDFBridge;
+import org.apache.hadoop.hive.serde2.SerDeException;
+import org.apache.hadoop.hive.serde2.lazy.ByteArrayRef;
+import org.apache.hadoop.hive.serde2.lazy.LazyFactory;
+import org.apache.hadoop.hive.serde2.lazy.LazyObject;
+import org.apache.hadoop.hive.serde2.objectinspector.ObjectInspector;
+import org.apache.hadoop.hive.serde2.objectinspector.ObjectInspectorConverters;
+import org.apache.hadoop.hive.serde2.objectinspector.ObjectInspectorUtils;
+import org.apache.hadoop.hive.serde2.objectinspector.primitive.PrimitiveObjectInspectorFactory;
+import org.apache.hadoop.hive.serde2.typeinfo.PrimitiveTypeInfo;
+import org.apache.hadoop.hive.serde2.typeinfo.StructTypeInfo;
+import org.apache.hadoop.hive.serde2.typeinfo.TypeInfo;
+import org.apache.hadoop.hive.serde2.typeinfo.TypeInfoFactory;
+import org.apache.hadoop.hive.serde2.typeinfo.TypeInfoUtils;
+import org.apache.hadoop.io.Text;
+import org.apache.hadoop.mapred.JobConf;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.ThreadMXBean;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Runs a UDF of this jar over the rows of a local file on N threads, without any Hive service,
+ * to measure throughput, per-row latency and memory on a dev box.
+ * <pre>
+ *   java -cp target/benchmarks.jar com.gou.hiveudf.benchmarks.UDFRunner \
+ *       --udf com.gou.hiveudf.UDFMatchNWords2 --types string,string,int --constant 2=2 \
+ *       --input titles.tsv --threads 1,2,4,8 [--passes 5] [--warmup 2] [--limit 100000]
+ * </pre>
+ * <ul>
+ *   <li>--udf: a GenericUDF, or a legacy UDF which is wrapped in GenericUDFBridge as Hive does</li>
+ *   <li>--types: the Hive types of the arguments, e.g. "string,array&lt;int&gt;"</li>
+ *   <li>--constant i=value: argument i is a constant of its primitive type, repeatable</li>
+ *   <li>--conf key=value: run the UDFs in a map task context with this job setting, repeatable,
+ *   e.g. --conf hiveudf.metrics.enabled=true to include the UDF metrics in the measurement</li>
+ *   <li>--input: one row per line, the non-constant arguments separated by --separator (default
+ *   tab), array elements by ',' and map keys by ':', \N for null</li>
+ *   <li>--check n: before the runs, evaluate all rows on n threads at once, each keeping a copy of
+ *   every result the way Hive's buffering operators do, and fail unless the copies equal those of
+ *   a single instance; this checks the result reuse and thread safety rules of the UDF</li>
+ * </ul>
+ * The file is loaded into memory first, so reading and parsing it is not measured. Arguments are
+ * standard Java objects passed as DeferredJavaObjects. The UDF is initialized once, then every
+ * thread gets its own copy through copyToNewInstance and initializes it, as Hive clones a UDF
+ * per operator. Each thread runs the warmup passes and then the measured passes over all rows,
+ * timing every evaluate with System.nanoTime, which adds some 20ns per row to the latencies.
+ * <p>
+ * Before the runs it prints the time to the first evaluate: loading the UDF class, initialize and
+ * the first row, including whatever the UDF loads lazily on it.
+ * <p>
+ * Per thread count the runner prints rows/sec over the wall time, the speedup over one thread
+ * (taken from the first thread count, so list 1 first), p50/p99/p99.9 latency, the bytes
+ * allocated per row and the peak heap.
+ */
+public final class UDFRunner {
+    private static final Text NULL_SEQUENCE = new Text("\\N");
+
+    private final GenericUDF prototype;
+    private final ObjectInspector[] arguments;
+    private final List<GenericUDF.DeferredObject[]> rows;
+    // 没有 --conf 时为 null, UDF 不会被 configure
+    private final MapredContext context;
+
+    private UDFRunner(GenericUDF prototype, ObjectInspector[] arguments, List<GenericUDF.DeferredObject[]> rows,
+                      MapredContext context) {
+        this.prototype = prototype;
+        this.arguments = arguments;
+        this.rows = rows;
+        this.context = context;
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, List<String>> options = parseOptions(args);
+        String udfClass = required(options, "udf");
+        List<TypeInfo> types = TypeInfoUtils.getTypeInfosFromTypeString(required(options, "types"));
+        Map<Integer, String> constants = new HashMap<>();
+        for (String constant : options.getOrDefault("constant", new ArrayList<>())) {
+            int eq = constant.indexOf('=');
+            constants.put(Integer.parseInt(constant.substring(0, eq)), constant.substring(eq + 1));
+        }
+        String separator = first(options, "separator", "\t").replace("\\t", "\t");
+        int limit = Integer.parseInt(first(options, "limit", String.valueOf(Integer.MAX_VALUE)));
+        int warmup = Integer.parseInt(first(options, "warmup", "1"));
+        int passes = Integer.parseInt(first(options, "passes", "3"));
+
+        ObjectInspector[] ois = new ObjectInspector[types.size()];
+        Object[] constantValues = new Object[types.size()];
+        for (int i = 0; i < ois.length; i++) {
+            TypeInfo type = types.get(i);
+            if (constants.containsKey(i)) {
+                Object value = ObjectInspectorConverters.getConverter(
+                        PrimitiveObjectInspectorFactory.javaStringObjectInspector,
+                        PrimitiveObjectInspectorFactory.getPrimitiveWritableObjectInspector((PrimitiveTypeInfo) type))
+                        .convert(constants.get(i));
+                ois[i] = PrimitiveObjectInspectorFactory.getPrimitiveWritableConstantObjectInspector(
+                        (PrimitiveTypeInfo) type, value);
+                constantValues[i] = value;
+            } else {
+                ois[i] = TypeInfoUtils.getStandardJavaObjectInspectorFromTypeInfo(type);
+            }
+        }
+
+        List<GenericUDF.DeferredObject[]> rows = loadRows(required(options, "input"), separator, limit, types,
+                constantValues, constants.keySet());
+        MapredContext context = null;
+        if (options.containsKey("conf")) {
+            JobConf jobConf = new JobConf();
+            for (String setting : options.get("conf")) {
+                int eq = setting.indexOf('=');
+                jobConf.set(setting.substring(0, eq), setting.substring(eq + 1));
+            }
+            context = MapredContext.init(true, jobConf);
+        }
+        // 首次 evaluate 的耗时包括加载 UDF 的类, initialize 以及 evaluate 中的延迟加载(例如 area_map.csv)
+        long loadStart = System.nanoTime();
+        UDFRunner runner = new UDFRunner(newUDF(udfClass), ois, rows, context);
+        ObjectInspector returnOI = runner.prototype.initialize(ois);
+        if (!rows.isEmpty()) {
+            runner.prototype.evaluate(rows.get(0));
+        }
+        long firstEvaluate = System.nanoTime() - loadStart;
+        System.out.printf("%s(%s) on %d rows, %d warmup + %d measured passes%n",
+                udfClass, required(options, "types"), rows.size(), warmup, passes);
+        System.out.printf("time to first evaluate: %.1f ms%n", firstEvaluate / 1e6);
+        if (options.containsKey("check")) {
+            int threads = Integer.parseInt(required(options, "check"));
+            runner.check(threads);
+            System.out.printf("check: copies of %d %s results match on %d threads%n",
+                    rows.size(), returnOI.getTypeName(), threads);
+        }
+        System.out.printf("%8s %14s %8s %10s %10s %10s %12s %12s%n",
+                "threads", "rows/s", "speedup", "p50(ns)", "p99(ns)", "p99.9(ns)", "alloc(B/row)", "heap(MB)");
+        double base = 0;
+        for (String threads : first(options, "threads", "1").split(",")) {
+            Result result = runner.run(Integer.parseInt(threads.trim()), warmup, passes);
+            if (base == 0) {
+                base = result.rowsPerSecond / result.threads;
+            }
+            System.out.printf("%8d %14.0f %8.2f %10d %10d %10d %12.1f %12.1f%n",
+                    result.threads, result.rowsPerSecond, result.rowsPerSecond / base,
+                    result.latencies.percentile(50), result.latencies.percentile(99),
+                    result.latencies.percentile(99.9), result.bytesPerRow, result.peakHeap / 1048576.0);
+        }
+    }
+
+    private static final class Result {
+        int threads;
+        double rowsPerSecond;
+        double bytesPerRow;
+        long peakHeap;
+        final LatencyHistogram latencies = new LatencyHistogram();
+    }
+
+    private Result run(int threads, int warmup, int passes) throws Exception {
+        GenericUDF[] copies = new GenericUDF[threads];
+        for (int t = 0; t < threads; t++) {
+            copies[t] = copyOf(prototype);
+            if (context != null) {
+                context.setup(copies[t]);
+            }
+            copies[t].initialize(arguments);
+        }
+        LatencyHistogram[] histograms = new LatencyHistogram[threads];
+        long[] allocated = new long[threads];
+        Throwable[] failures = new Throwable[threads];
+        // 所有线程预热完成后同时开始计时
+        CountDownLatch ready = new CountDownLatch(threads);
+        CountDownLatch go = new CountDownLatch(1);
+        AtomicBoolean aborted = new AtomicBoolean();
+        Thread[] workers = new Thread[threads];
+        for (int t = 0; t < threads; t++) {
+            final int id = t;
+            histograms[t] = new LatencyHistogram();
+            workers[t] = new Thread(() -> {
+                try {
+                    for (int p = 0; p < warmup; p++) {
+                        pass(copies[id], null);
+                    }
+                } catch (Throwable e) {
+                    failures[id] = e;
+                }
+                ready.countDown();
+                try {
+                    go.await();
+                    if (aborted.get()) {
+                        return;
+                    }
+                    long before = allocatedBytes();
+                    for (int p = 0; p < passes; p++) {
+                        pass(copies[id], histograms[id]);
+                    }
+                    allocated[id] = before < 0 ? -1 : allocatedBytes() - before;
+                } catch (Throwable e) {
+                    failures[id] = e;
+                }
+            }, "udf-runner-" + t);
+            workers[t].start();
+        }
+
+        ready.await();
+        aborted.set(firstFailure(failures) != null);
+        resetPeakHeap();
+        long start = System.nanoTime();
+        go.countDown();
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        long elapsed = System.nanoTime() - start;
+        Throwable failure = firstFailure(failures);
+        if (failure != null) {
+            throw new IllegalStateException("evaluate failed", failure);
+        }
+
+        Result result = new Result();
+        result.threads = threads;
+        long totalRows = (long) rows.size() * passes * threads;
+        result.rowsPerSecond = totalRows * 1e9 / elapsed;
+        long totalAllocated = 0;
+        boolean allocationKnown = true;
+        for (int t = 0; t < threads; t++) {
+            result.latencies.add(histograms[t]);
+            totalAllocated += allocated[t];
+            allocationKnown &= allocated[t] >= 0;
+        }
+        result.bytesPerRow = allocationKnown ? (double) totalAllocated / totalRows : Double.NaN;
+        result.peakHeap = peakHeap();
+        for (GenericUDF copy : copies) {
+            copy.close();
+        }
+        return result;
+    }
+
+    /**
+     * Evaluate all rows on a fresh instance per thread, keep a copy of each result as soon as it
+     * is returned, like a PTF partition or collect_list, and compare the copies with those of one
+     * instance evaluated alone. A UDF that reuses a result it still refers to, or shares mutable
+     * state between instances, gives different copies.
+     */
+    private void check(int threads) throws Exception {
+        List<Object> expected = evaluateAndCopy(newInstance());
+        Throwable[] failures = new Throwable[threads];
+        Thread[] workers = new Thread[threads];
+        for (int t = 0; t < threads; t++) {
+            final int id = t;
+            GenericUDF udf = newInstance();
+            workers[t] = new Thread(() -> {
+                try {
+                    List<Object> actual = evaluateAndCopy(udf);
+                    for (int i = 0; i < expected.size(); i++) {
+                        if (!Objects.equals(expected.get(i), actual.get(i))) {
+                            throw new IllegalStateException("row " + i + " gave " + actual.get(i)
+                                    + " instead of " + expected.get(i));
+                        }
+                    }
+                } catch (Throwable e) {
+                    failures[id] = e;
+                }
+            }, "udf-check-" + t);
+        }
+        for (Thread worker : workers) {
+            worker.start();
+        }
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        Throwable failure = firstFailure(failures);
+        if (failure != null) {
+            throw new IllegalStateException("check failed", failure);
+        }
+    }
+
+    private GenericUDF newInstance() throws Exception {
+        GenericUDF udf = copyOf(prototype);
+        if (context != null) {
+            context.setup(udf);
+        }
+        return udf;
+    }
+
+    private List<Object> evaluateAndCopy(GenericUDF udf) throws Exception {
+        ObjectInspector returnOI = udf.initialize(arguments);
+        List<Object> copies = new ArrayList<>(rows.size());
+        for (GenericUDF.DeferredObject[] row : rows) {
+            copies.add(ObjectInspectorUtils.copyToStandardObject(udf.evaluate(row), returnOI,
+                    ObjectInspectorUtils.ObjectInspectorCopyOption.WRITABLE));
+        }
+        udf.close();
+        return copies;
+    }
+
+    private void pass(GenericUDF udf, LatencyHistogram histogram) throws HiveException {
+        Object sink = null;
+        for (GenericUDF.DeferredObject[] row : rows) {
+            if (histogram == null) {
+                sink = udf.evaluate(row);
+            } else {
+                long start = System.nanoTime();
+                sink = udf.evaluate(row);
+                histogram.record(System.nanoTime() - start);
+            }
+        }
+        if (sink == this) {
+            // 不会发生, 只为让 JIT 保留 evaluate 的结果
+            throw new IllegalStateException();
+        }
+    }
+
+    /**
+     * A new instance with the state of udf, the way FunctionRegistry.cloneGenericUDF does it.
+     */
+    private static GenericUDF copyOf(GenericUDF udf) throws ReflectiveOperationException, HiveException {
+        GenericUDF copy;
+        if (udf instanceof GenericUDFBridge) {
+            GenericUDFBridge bridge = (GenericUDFBridge) udf;
+            copy = new GenericUDFBridge(bridge.getUdfName(), bridge.isOperator(), bridge.getUdfClassName());
+        } else {
+            copy = udf.getClass().getDeclaredConstructor().newInstance();
+        }
+        udf.copyToNewInstance(copy);
+        return copy;
+    }
+
+    private static GenericUDF newUDF(String className) throws ReflectiveOperationException {
+        Class<?> udfClass = Class.forName(className);
+        if (GenericUDF.class.isAssignableFrom(udfClass)) {
+            return (GenericUDF) udfClass.getDeclaredConstructor().newInstance();
+        }
+        if (UDF.class.isAssignableFrom(udfClass)) {
+            return new GenericUDFBridge(udfClass.getSimpleName(), false, className);
+        }
+        throw new IllegalArgumentException(className + " is neither a GenericUDF nor a UDF");
+    }
+
+    /**
+     * Parse each line as a LazySimpleSerDe row of the non-constant arguments and copy it into
+     * standard Java objects.
+     */
+    private static List<GenericUDF.DeferredObject[]> loadRows(String file, String separator, int limit,
+                                                              List<TypeInfo> types, Object[] constantValues,
+                                                              Set<Integer> constantIndexes)
+            throws IOException, SerDeException {
+        List<String> names = new ArrayList<>();
+        List<TypeInfo> columnTypes = new ArrayList<>();
+        for (int i = 0; i < types.size(); i++) {
+            if (!constantIndexes.contains(i)) {
+                names.add("_c" + i);
+                columnTypes.add(types.get(i));
+            }
+        }
+        StructTypeInfo rowType = (StructTypeInfo) TypeInfoFactory.getStructTypeInfo(names, columnTypes);
+        byte[] separators = {(byte) separator.charAt(0), ',', ':', 4, 5, 6, 7, 8};
+        ObjectInspector lazyOI = LazyFactory.createLazyObjectInspector(rowType, separators, 0,
+                NULL_SEQUENCE, false, (byte) 0);
+        LazyObject<? extends ObjectInspector> lazyRow = LazyFactory.createLazyObject(lazyOI);
+        ByteArrayRef ref = new ByteArrayRef();
+
+        List<GenericUDF.DeferredObject[]> rows = new ArrayList<>();
+        try (BufferedReader reader = Files.newBufferedReader(Paths.get(file), StandardCharsets.UTF_8)) {
+            String line;
+            while (rows.size() < limit && (line = reader.readLine()) != null) {
+                byte[] bytes = line.getBytes(StandardCharsets.UTF_8);
+                ref.setData(bytes);
+                lazyRow.init(ref, 0, bytes.length);
+                List<?> fields = (List<?>) ObjectInspectorUtils.copyToStandardJavaObject(lazyRow, lazyOI);
+                GenericUDF.DeferredObject[] row = new GenericUDF.DeferredObject[types.size()];
+                int field = 0;
+                for (int i = 0; i < row.length; i++) {
+                    Object value = constantIndexes.contains(i) ? constantValues[i] : fields.get(field++);
+                    row[i] = new GenericUDF.DeferredJavaObject(value);
+                }
+                rows.add(row);
+            }
+        }
+        if (rows.isEmpty()) {
+            throw new IllegalArgumentException(file + " has no rows");
+        }
+        return rows;
+    }
+
+    /**
+     * @return the bytes allocated by the current thread so far, -1 if the JVM cannot tell
+     */
+    private static long allocatedBytes() {
+        ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (bean instanceof com.sun.management.ThreadMXBean) {
+            com.sun.management.ThreadMXBean sun = (com.sun.management.ThreadMXBean) bean;
+            if (sun.isThreadAllocatedMemorySupported() && sun.isThreadAllocatedMemoryEnabled()) {
+                return sun.getThreadAllocatedBytes(Thread.currentThread().getId());
+            }
+        }
+        return -1;
+    }
+
+    private static Throwable firstFailure(Throwable[] failures) {
+        for (Throwable failure : failures) {
+            if (failure != null) {
+                return failure;
+            }
+        }
+        return null;
+    }
+
+    private static void resetPeakHeap() {
+        System.gc();
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP) {
+                pool.resetPeakUsage();
+            }
+        }
+    }
+
+    /**
+     * Sum of the peak usage of the heap pools since {@link #resetPeakHeap}. The pools peak at
+     * different times, so this is an upper bound of the peak heap.
+     */
+    private static long peakHeap() {
+        long peak = 0;
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP) {
+                peak += pool.getPeakUsage().getUsed();
+            }
+        }
+        return peak;
+    }
+
+    private static Map<String, List<String>> parseOptions(String[] args) {
+        Map<String, List<String>> options = new HashMap<>();
+        for (int i = 0; i < args.length; i++) {
+            if (!args[i].startsWith("--") || i + 1 == args.length) {
+                throw new IllegalArgumentException("Expected --option value, but got " + args[i]);
+            }
+            options.computeIfAbsent(args[i].substring(2), k -> new ArrayList<>()).add(args[++i]);
+        }
+        return options;
+    }
+
+    private static String required(Map<String, List<String>> options, String name) {
+        List<String> values = options.get(name);
+        if (values == null) {
+            throw new IllegalArgumentException("Missing --" + name);
+        }
+        return values.get(0);
+    }
+
+    private static String first(Map<String, List<String>> options, String name, String defaultValue) {
+        List<String> values = options.get(name);
+        return values == null ? defaultValue : values.get(0);
+    }
+}
@@ -0,0 +1,381 @@
+package com.gou.hiveudf.core;
+
+/**
+ * @version 1.0
+ * @auther GouMi
+ */
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.StringTokenizer;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Find the area code of a Chinese address in the areas of an area map (province, town, district,
+ * code, type per line, type P, T or D).
+ * <p>
+ * The address is matched level by level: the province, then a town of that province, then a
+ * district of that town, each level narrowing the names tried by the next one. The patterns of a
+ * level only depend on the levels above, so each one is compiled the first time it is needed and
+ * kept, as are the codes looked up for a (province, town, district). An instance is immutable apart
+ * from these caches, which are concurrent, so it can be shared between threads.
+ * <p>
+ * Every name is also matched by its aliases: the name without its administrative suffix (省, 市,
+ * 区, 县, 自治区 with the peoples before it, ...) when at least two characters remain, so
+ * 广西壮族自治区 is also 广西 and 南宁市 is also 南宁, plus the aliases of an optional alias file.
+ * The aliases are part of the alternation of the level and map back to their name, so they cost no
+ * extra pass over the address. The names come first, in the order of the area map as without
+ * aliases, so an alias never takes a match from a name; see {@link #alternation}.
+ */
+public final class AddressMatcher {
+    private static final String COUNTRY_PREFIX = "(^|中国)";
+    private static final String PROVINCE_SUFFIX = "(省|市|自治区|壮族自治区|回族自治区|维吾尔自治区|特别行政区|行政区)";
+    // 去掉行政区划后缀得到别名, 剩下的部分至少两个字
+    private static final Pattern ALIAS_SUFFIX = Pattern.compile(
+            "^(.{2,}?)(?:省|市|区|县|旗|盟|地区|新区|(?:[^族]{1,4}族)*自治[区州县旗]|维吾尔自治区|特别行政区|行政区)$");
+    // 缓存中表示查找不到的值
+    private static final String NO_CODE = "";
+
+    private static final class Area {
+        private final String province;
+        private final String town;
+        private final String district;
+        private final String areaCode;
+        private final String areaType;
+
+        Area(String province, String town, String district, String areaCode, String areaType) {
+            this.province = province;
+            this.town = town;
+            this.district = district;
+            this.areaCode = areaCode;
+            this.areaType = areaType;
+        }
+
+        /**
+         * Empty keys match every area.
+         */
+        boolean matches(String province, String town, String district, String areaType) {
+            return (district.isEmpty() || district.equals(this.district))
+                    && (town.isEmpty() || town.equals(this.town))
+                    && (province.isEmpty() || province.equals(this.province))
+                    && areaType.equals(this.areaType);
+        }
+    }
+
+    /**
+     * The pattern of a level, and the name each form in its alternation stands for.
+     */
+    private static final class Level {
+        private final Pattern pattern;
+        private final Map<String, String> names;
+
+        Level(Pattern pattern, Map<String, String> names) {
+            this.pattern = pattern;
+            this.names = names;
+        }
+
+        /**
+         * @return the name of the form matched by group, "" if the group is empty
+         */
+        String name(Matcher m, int group) {
+            String form = m.group(group);
+            return form.isEmpty() ? "" : names.get(form);
+        }
+    }
+
+    private final List<Area> areas;
+    // 名称 -> 别名, 加载后不再修改
+    private final Map<String, List<String>> aliases;
+    private final Level provinces;
+    private final Map<String, Level> towns = new ConcurrentHashMap<>();
+    private final Map<String, Level> districts = new ConcurrentHashMap<>();
+    private final Map<String, String> codes = new ConcurrentHashMap<>();
+
+    private AddressMatcher(List<Area> areas, Map<String, List<String>> aliases) {
+        this.areas = areas;
+        this.aliases = aliases;
+        Map<String, String> names = names("", "", "P", 0);
+        provinces = new Level(Pattern.compile(COUNTRY_PREFIX + "(" + alternation(names) + ")"), names);
+    }
+
+    /**
+     * Read an area map, one area per line, the fields separated by ','.
+     *
+     * @param in UTF-8 area map, closed by the caller
+     * @return the matcher of the areas
+     * @throws IOException if in cannot be read or a line has less than 5 fields
+     */
+    public static AddressMatcher load(InputStream in) throws IOException {
+        return load(in, null);
+    }
+
+    /**
+     * Read an area map and an alias file. Each line of the alias file is an alias and a name of
+     * the area map at any level, separated by ','; the alias matches wherever the name does.
+     * Only the Chinese characters and full width digits of an alias are kept, as of an address.
+     *
+     * @param in UTF-8 area map, closed by the caller
+     * @param aliasIn UTF-8 alias file, null for none, closed by the caller
+     * @return the matcher of the areas
+     * @throws IOException if a file cannot be read, a line of the area map has less than 5 fields or
+     * a line of the alias file less than 2
+     */
+    public static AddressMatcher load(InputStream in, InputStream aliasIn) throws IOException {
+        List<Area> areas = new ArrayList<>(5000);
+        BufferedReader br = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        String line;
+        int lineNumber = 0;
+        while ((line = br.readLine()) != null) {
+            lineNumber++;
+            StringTokenizer st = new StringTokenizer(line, ",");
+            if (!st.hasMoreTokens()) {
+                continue;
+            }
+            if (st.countTokens() < 5) {
+                throw new IOException("Line " + lineNumber + " of the area map has less than 5 fields: " + line);
+            }
+            areas.add(new Area(st.nextToken(), st.nextToken(), st.nextToken(), st.nextToken(), st.nextToken()));
+        }
+
+        Map<String, List<String>> aliases = new HashMap<>();
+        for (Area area : areas) {
+            addSuffixAlias(aliases, area.province);
+            addSuffixAlias(aliases, area.town);
+            addSuffixAlias(aliases, area.district);
+        }
+        if (aliasIn != null) {
+            br = new BufferedReader(new InputStreamReader(aliasIn, StandardCharsets.UTF_8));
+            lineNumber = 0;
+            while ((line = br.readLine()) != null) {
+                lineNumber++;
+                StringTokenizer st = new StringTokenizer(line, ",");
+                if (!st.hasMoreTokens()) {
+                    continue;
+                }
+                if (st.countTokens() < 2) {
+                    throw new IOException("Line " + lineNumber + " of the alias file has less than 2 fields: " + line);
+                }
+                String alias = cleanUp(st.nextToken());
+                String name = st.nextToken().trim();
+                if (!alias.isEmpty() && !alias.equals(name)) {
+                    addAlias(aliases, name, alias);
+                }
+            }
+        }
+        return new AddressMatcher(areas, aliases);
+    }
+
+    private static void addSuffixAlias(Map<String, List<String>> aliases, String name) {
+        Matcher m = ALIAS_SUFFIX.matcher(name);
+        if (m.matches()) {
+            addAlias(aliases, name, m.group(1));
+        }
+    }
+
+    private static void addAlias(Map<String, List<String>> aliases, String name, String alias) {
+        List<String> list = aliases.computeIfAbsent(name, k -> new ArrayList<>(1));
+        if (!list.contains(alias)) {
+            list.add(alias);
+        }
+    }
+
+    /**
+     * @return a matcher without any area, it finds nothing
+     */
+    public static AddressMatcher empty() {
+        return new AddressMatcher(new ArrayList<>(), new HashMap<>());
+    }
+
+    /**
+     * @return the number of areas
+     */
+    public int size() {
+        return areas.size();
+    }
+
+    /**
+     * Return the code of the most specific area found in address.
+     *
+     * @param address
+     * @return the area code, null if not even a province is found
+     */
+    public String match(String address) {
+        address = cleanUp(address);
+        String code = null;
+
+        String province = "";
+        Matcher m = provinces.pattern.matcher(address);
+        if (m.find()) {
+            province = provinces.name(m, 2);
+        }
+        if (!province.isEmpty()) {
+            code = code(province, "", "", "P");
+        }
+
+        String town = "";
+        Level level = towns(province);
+        m = level.pattern.matcher(address);
+        if (m.find()) {
+            town = level.name(m, 4);
+        }
+        if (!town.isEmpty()) {
+            // means town can be found under that province
+            String townCode = code(province, town, "", "T");
+            if (townCode != null) {
+                code = townCode;
+            }
+        }
+
+        String district = "";
+        level = districts(province, town);
+        m = level.pattern.matcher(address);
+        if (m.find()) {
+            district = level.name(m, 5);
+        }
+        if (!district.isEmpty()) {
+            String districtCode = code(province, town, district, "D");
+            if (districtCode != null) {
+                code = districtCode;
+            }
+        }
+        return code;
+    }
+
+    /**
+     * Remove all chars except Chinese characters and full width digits.
+     */
+    private static String cleanUp(String address) {
+        int len = address.length();
+        int i = 0;
+        while (i < len && isKept(address.charAt(i))) {
+            i++;
+        }
+        if (i == len) {
+            return address;
+        }
+        StringBuilder sb = new StringBuilder(len);
+        sb.append(address, 0, i);
+        for (; i < len; i++) {
+            char c = address.charAt(i);
+            if (isKept(c)) {
+                sb.append(c);
+            }
+        }
+        return sb.toString();
+    }
+
+    private static boolean isKept(char c) {
+        return c >= '\u4e00' && c <= '\u9fa5' || c >= '\uFF10' && c <= '\uFF19';
+    }
+
+    private Level towns(String province) {
+        return towns.computeIfAbsent(province, p -> {
+            Map<String, String> names = names(p, "", "T", 1);
+            return new Level(Pattern.compile(COUNTRY_PREFIX
+                    + provincePattern(p)
+                    + "(" + alternation(names) + ")(?!路)(?!.路)"), names);
+        });
+    }
+
+    private Level districts(String province, String town) {
+        return districts.computeIfAbsent(province + '\u0001' + town, k -> {
+            Map<String, String> names = names(province, town, "D", 2);
+            return new Level(Pattern.compile(COUNTRY_PREFIX
+                    + provincePattern(province)
+                    + (town.isEmpty() ? "()" : "((?:" + alternation(forms(town)) + ").?)")
+                    + "(" + alternation(names) + ")"), names);
+        });
+    }
+
+    /**
+     * Province pattern matching the province or one of its aliases, it contains two groups.
+     */
+    private String provincePattern(String province) {
+        return province.isEmpty() ? "(())" : "((?:" + alternation(forms(province)) + ")" + PROVINCE_SUFFIX + "?)";
+    }
+
+    /**
+     * The distinct names at level (0 province, 1 town, 2 district) of the areas matching the keys,
+     * in the order of the area map, followed by their aliases, each form mapped to its name. A name
+     * wins over an alias of another name.
+     */
+    private Map<String, String> names(String province, String town, String areaType, int level) {
+        Map<String, String> names = new LinkedHashMap<>();
+        for (Area area : areas) {
+            if (area.matches(province, town, "", areaType)) {
+                String name = level == 0 ? area.province : level == 1 ? area.town : area.district;
+                names.putIfAbsent(name, name);
+            }
+        }
+        for (String name : new ArrayList<>(names.keySet())) {
+            for (String alias : aliases.getOrDefault(name, Collections.emptyList())) {
+                names.putIfAbsent(alias, name);
+            }
+        }
+        return names;
+    }
+
+    /**
+     * @return the name and its aliases, mapped to the name
+     */
+    private Map<String, String> forms(String name) {
+        Map<String, String> forms = new LinkedHashMap<>();
+        forms.put(name, name);
+        for (String alias : aliases.getOrDefault(name, Collections.emptyList())) {
+            forms.put(alias, name);
+        }
+        return forms;
+    }
+
+    /**
+     * The forms as a regex alternation: first the names in their order, so where names overlap the
+     * one earlier in the area map wins as it always did, then the aliases of each name, longest
+     * first. A name thus wins over its own aliases, e.g. 南宁市 over 南宁, and over the aliases of
+     * other names; an alias only matches where no name does.
+     *
+     * @param forms the forms mapped to their names, the names mapped to themselves
+     */
+    private static String alternation(Map<String, String> forms) {
+        List<String> list = new ArrayList<>(forms.size());
+        Map<String, List<String>> aliases = new LinkedHashMap<>();
+        for (Map.Entry<String, String> form : forms.entrySet()) {
+            if (form.getKey().equals(form.getValue())) {
+                list.add(form.getKey());
+            } else {
+                aliases.computeIfAbsent(form.getValue(), k -> new ArrayList<>(1)).add(form.getKey());
+            }
+        }
+        for (List<String> own : aliases.values()) {
+            own.sort(Comparator.comparingInt(String::length).reversed());
+            list.addAll(own);
+        }
+        return String.join("|", list);
+    }
+
+    /**
+     * @return the code of the first area matching the keys, null if there is none
+     */
+    private String code(String province, String town, String district, String areaType) {
+        String code = codes.computeIfAbsent(province + '\u0001' + town + '\u0001' + district + '\u0001' + areaType, k -> {
+            for (Area area : areas) {
+                if (area.matches(province, town, district, areaType)) {
+                    return area.areaCode;
+                }
+            }
+            return NO_CODE;
+        });
+        return code == NO_CODE ? null : code;
+    }
+}
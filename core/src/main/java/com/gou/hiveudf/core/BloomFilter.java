@@ -0,0 +1,209 @@
+package com.gou.hiveudf.core;
+
+/**
+ * @version 1.0
+ * @auther GouMi
+ */
+
+import java.util.Arrays;
+
+/**
+ * A bloom filter over 64-bit key hashes, mergeable and serializable so it can be built in
+ * parallel and shipped to the tasks that probe it.
+ * <p>
+ * Keys are hashed with {@link #hash(byte[], int, int)} for UTF-8 strings and {@link #hash(long)}
+ * for integers; the two forms give different hashes, so a filter must be probed with the form it
+ * was built with. The k bit positions are derived from one hash by double hashing and mapped onto
+ * the m bits by a multiply-shift instead of a modulo, so testing a key costs one hash and k
+ * multiplications.
+ * <p>
+ * Serialized form: version byte, k byte, number of words as a big-endian int, then the words as
+ * big-endian longs. Filters built with the same expected size and fpp have the same shape and can
+ * be merged.
+ */
+public final class BloomFilter {
+    private static final byte VERSION = 1;
+    private static final int HEADER = 6;
+    // 2^31 位, 即 256MB
+    private static final int MAX_WORDS = 1 << 25;
+
+    private long[] words;
+    private int numHashes;
+    private long numBits;
+
+    private BloomFilter(int numWords, int numHashes) {
+        this.words = new long[numWords];
+        this.numHashes = numHashes;
+        this.numBits = (long) numWords << 6;
+    }
+
+    /**
+     * @param expectedN expected number of distinct keys
+     * @param fpp wanted false positive probability, in (0, 1)
+     * @return an empty filter sized for expectedN keys at fpp
+     */
+    public static BloomFilter create(long expectedN, double fpp) {
+        if (expectedN <= 0) {
+            throw new IllegalArgumentException("expectedN must be positive, but " + expectedN + " was given");
+        }
+        if (!(fpp > 0 && fpp < 1)) {
+            throw new IllegalArgumentException("fpp must be in (0, 1), but " + fpp + " was given");
+        }
+        double ln2 = Math.log(2);
+        double bits = Math.ceil(-expectedN * Math.log(fpp) / (ln2 * ln2));
+        int numWords = (int) Math.min(MAX_WORDS, Math.max(1, (long) Math.ceil(bits / 64)));
+        int numHashes = (int) Math.max(1, Math.min(30, Math.round((double) ((long) numWords << 6) / expectedN * ln2)));
+        return new BloomFilter(numWords, numHashes);
+    }
+
+    /**
+     * @return the filter serialized in bytes[offset, offset + length)
+     * @throws IllegalArgumentException if the bytes are not a serialized filter
+     */
+    public static BloomFilter deserialize(byte[] bytes, int offset, int length) {
+        BloomFilter filter = new BloomFilter(readShape(bytes, offset, length), bytes[offset + 1]);
+        filter.readWords(bytes, offset);
+        return filter;
+    }
+
+    public static long hash(byte[] bytes, int start, int end) {
+        return Hash64.hash(bytes, start, end);
+    }
+
+    public static long hash(long value) {
+        return Hash64.mix(value);
+    }
+
+    public void add(long hash) {
+        long h2 = Hash64.mix(hash);
+        long h = hash;
+        for (int i = 0; i < numHashes; i++) {
+            int bit = bit(h);
+            words[bit >>> 6] |= 1L << bit;
+            h += h2;
+        }
+    }
+
+    public boolean mightContain(long hash) {
+        long h2 = Hash64.mix(hash);
+        long h = hash;
+        for (int i = 0; i < numHashes; i++) {
+            int bit = bit(h);
+            if ((words[bit >>> 6] & (1L << bit)) == 0) {
+                return false;
+            }
+            h += h2;
+        }
+        return true;
+    }
+
+    /**
+     * Add all keys of the serialized filter in bytes[offset, offset + length), without deserializing it.
+     *
+     * @throws IllegalArgumentException if the bytes are not a serialized filter of the same shape
+     */
+    public void merge(byte[] bytes, int offset, int length) {
+        int numWords = readShape(bytes, offset, length);
+        if (numWords != words.length || bytes[offset + 1] != numHashes) {
+            throw new IllegalArgumentException("Cannot merge a bloom filter of " + numWords + " words and "
+                    + bytes[offset + 1] + " hashes into one of " + words.length + " words and " + numHashes
+                    + " hashes, build them with the same expected size and fpp");
+        }
+        for (int i = 0, p = offset + HEADER; i < numWords; i++, p += 8) {
+            words[i] |= readLong(bytes, p);
+        }
+    }
+
+    /**
+     * Replace this filter with the serialized filter in bytes[offset, offset + length), reusing the
+     * words when the shape is the same.
+     */
+    public void read(byte[] bytes, int offset, int length) {
+        int numWords = readShape(bytes, offset, length);
+        if (numWords != words.length) {
+            words = new long[numWords];
+            numBits = (long) numWords << 6;
+        }
+        numHashes = bytes[offset + 1];
+        readWords(bytes, offset);
+    }
+
+    public void clear() {
+        Arrays.fill(words, 0);
+    }
+
+    public int serializedSize() {
+        return HEADER + (words.length << 3);
+    }
+
+    /**
+     * Write the filter to out[offset, offset + {@link #serializedSize()}).
+     */
+    public void serialize(byte[] out, int offset) {
+        out[offset] = VERSION;
+        out[offset + 1] = (byte) numHashes;
+        writeInt(out, offset + 2, words.length);
+        for (int i = 0, p = offset + HEADER; i < words.length; i++, p += 8) {
+            long w = words[i];
+            for (int b = 7; b >= 0; b--) {
+                out[p + b] = (byte) w;
+                w >>>= 8;
+            }
+        }
+    }
+
+    public int numHashes() {
+        return numHashes;
+    }
+
+    public long numBits() {
+        return numBits;
+    }
+
+    /**
+     * Map the high 32 bits of h onto [0, numBits).
+     */
+    private int bit(long h) {
+        return (int) (((h >>> 32) * numBits) >>> 32);
+    }
+
+    private void readWords(byte[] bytes, int offset) {
+        for (int i = 0, p = offset + HEADER; i < words.length; i++, p += 8) {
+            words[i] = readLong(bytes, p);
+        }
+    }
+
+    /**
+     * Check the header of a serialized filter.
+     *
+     * @return the number of words
+     */
+    private static int readShape(byte[] bytes, int offset, int length) {
+        if (length < HEADER || bytes[offset] != VERSION) {
+            throw new IllegalArgumentException("Not a serialized bloom filter");
+        }
+        int numWords = (bytes[offset + 2] & 0xFF) << 24 | (bytes[offset + 3] & 0xFF) << 16
+                | (bytes[offset + 4] & 0xFF) << 8 | bytes[offset + 5] & 0xFF;
+        int numHashes = bytes[offset + 1];
+        if (numWords <= 0 || numWords > MAX_WORDS || numHashes <= 0
+                || length != HEADER + ((long) numWords << 3)) {
+            throw new IllegalArgumentException("Not a serialized bloom filter");
+        }
+        return numWords;
+    }
+
+    private static long readLong(byte[] bytes, int p) {
+        long w = 0;
+        for (int b = 0; b < 8; b++) {
+            w = w << 8 | (bytes[p + b] & 0xFF);
+        }
+        return w;
+    }
+
+    private static void writeInt(byte[] out, int p, int v) {
+        out[p] = (byte) (v >>> 24);
+        out[p + 1] = (byte) (v >>> 16);
+        out[p + 2] = (byte) (v >>> 8);
+        out[p + 3] = (byte) v;
+    }
+}
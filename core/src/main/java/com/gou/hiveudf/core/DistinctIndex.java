@@ -0,0 +1,107 @@
+package com.gou.hiveudf.core;
+
+/**
+ * @version 1.0
+ * @auther GouMi
+ */
+
+/**
+ * Find the distinct elements of an array given their hashes, keeping the first occurrence of
+ * each in input order.
+ * <p>
+ * The elements themselves stay with the caller: the table stores element indexes and their
+ * hashes, and only elements with equal hashes are compared through {@link Equality}. The
+ * table is cleared through the list of occupied slots and reused by the next call, so one
+ * instance allocates only while it grows to the longest array seen.
+ */
+public final class DistinctIndex {
+    /**
+     * Equality of the elements at two indexes of the caller's array.
+     */
+    public interface Equality {
+        boolean equal(int i, int j);
+    }
+
+    private int mask;
+    // 元素下标 + 1, 0 表示空位
+    private int[] slots;
+    private int[] slotHash;
+    private int[] distinct = new int[16];
+    private int[] occupied = new int[16];
+    // 每个元素对应的第一个相等元素的下标
+    private int[] first = new int[16];
+    private int count;
+
+    public DistinctIndex() {
+        allocate(32);
+    }
+
+    /**
+     * @param hashes hashes[i] is the hash of element i
+     * @param n number of elements
+     * @param equality equality of two elements with the same hash
+     * @return the number of distinct elements, their indexes are given by {@link #index}
+     */
+    public int distinct(int[] hashes, int n, Equality equality) {
+        if (slots.length < n << 1) {
+            allocate(Integer.highestOneBit(Math.max(n << 1, 2) - 1) << 1);
+        } else {
+            for (int i = 0; i < count; i++) {
+                slots[occupied[i]] = 0;
+            }
+        }
+        if (distinct.length < n) {
+            int capacity = Math.max(n, distinct.length << 1);
+            distinct = new int[capacity];
+            occupied = new int[capacity];
+            first = new int[capacity];
+        }
+        count = 0;
+        for (int i = 0; i < n; i++) {
+            int hash = hashes[i];
+            int slot = mix(hash) & mask;
+            boolean seen = false;
+            for (int s; (s = slots[slot]) != 0; slot = (slot + 1) & mask) {
+                if (slotHash[slot] == hash && equality.equal(s - 1, i)) {
+                    first[i] = s - 1;
+                    seen = true;
+                    break;
+                }
+            }
+            if (!seen) {
+                first[i] = i;
+                slots[slot] = i + 1;
+                slotHash[slot] = hash;
+                occupied[count] = slot;
+                distinct[count++] = i;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * @return the index of the i-th distinct element of the last call
+     */
+    public int index(int i) {
+        return distinct[i];
+    }
+
+    /**
+     * @return the index of the first element of the last call equal to element i, i itself if it
+     * is distinct
+     */
+    public int first(int i) {
+        return first[i];
+    }
+
+    private void allocate(int capacity) {
+        mask = capacity - 1;
+        slots = new int[capacity];
+        slotHash = new int[capacity];
+    }
+
+    private static int mix(int h) {
+        h *= 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
@@ -0,0 +1,236 @@
+package com.gou.hiveudf.core;
+
+/**
+ * @version 1.0
+ * @auther GouMi
+ */
+
+import java.util.Arrays;
+
+/**
+ * Levenshtein distance between two UTF-8 strings, counted in code points so that a Chinese char
+ * is one edit, with Myers' bit-parallel algorithm (Hyyro's formulation for the global distance).
+ * <p>
+ * The shorter string is the pattern. Each 64-bit word holds the vertical deltas of 64 pattern
+ * rows, so one column of the DP matrix costs a handful of word operations per 64 rows and a
+ * pattern of up to 64 code points, i.e. every short name, fits in a single word. Longer
+ * patterns are processed as blocks of words with the horizontal delta carried from block to
+ * block.
+ * <p>
+ * The score at the bottom row changes by at most one per column, so once it exceeds max by
+ * more than the number of columns left the distance can no longer end within max and the
+ * computation stops. All buffers are reused between calls, an instance is not thread safe.
+ * <p>
+ * A constant argument is decoded once by {@link #prepare}. {@link #distancePrepared} then only
+ * decodes the other side, and while the prepared side is the shorter one its pattern bit masks
+ * are built once and kept for all rows.
+ */
+public final class EditDistance {
+    private int[] codePoints1 = new int[64];
+    private int[] codePoints2 = new int[64];
+
+    // pattern code point -> row of peq, rows are `words` longs wide
+    private int[] keys = new int[128];
+    private int[] rows = new int[128];
+    private int[] stamps = new int[128];
+    private int stamp;
+    private long[] peq = new long[64];
+    private long[] plus = new long[1];
+    private long[] minus = new long[1];
+    private int[] preparedCodePoints = new int[0];
+    private int preparedCount;
+    // peq 中是否是 prepared 一侧的 pattern
+    private boolean peqPrepared;
+
+    /**
+     * @param max the largest distance of interest, Integer.MAX_VALUE for the exact distance
+     * @return the distance, or max + 1 if it is larger than max
+     */
+    public int distance(byte[] bytes1, int offset1, int length1, byte[] bytes2, int offset2, int length2, int max) {
+        codePoints1 = ensure(codePoints1, length1);
+        codePoints2 = ensure(codePoints2, length2);
+        int n1 = decode(bytes1, offset1, length1, codePoints1);
+        int n2 = decode(bytes2, offset2, length2, codePoints2);
+        return distance(codePoints1, n1, codePoints2, n2, max, false);
+    }
+
+    /**
+     * Decode one side once, e.g. a constant argument.
+     */
+    public void prepare(byte[] bytes, int offset, int length) {
+        preparedCodePoints = ensure(preparedCodePoints, length);
+        preparedCount = decode(bytes, offset, length, preparedCodePoints);
+        peqPrepared = false;
+    }
+
+    /**
+     * @return the distance between the prepared side and the UTF-8 bytes, as {@link #distance}
+     */
+    public int distancePrepared(byte[] bytes, int offset, int length, int max) {
+        codePoints2 = ensure(codePoints2, length);
+        int n2 = decode(bytes, offset, length, codePoints2);
+        return distance(preparedCodePoints, preparedCount, codePoints2, n2, max, true);
+    }
+
+    private int distance(int[] codePoints1, int n1, int[] codePoints2, int n2, int max, boolean prepared1) {
+        int bound = max == Integer.MAX_VALUE ? max : max + 1;
+
+        // 长度之差是距离的下界
+        if (Math.abs(n1 - n2) > max) {
+            return bound;
+        }
+        if (n1 == 0 || n2 == 0) {
+            return Math.max(n1, n2);
+        }
+        if (n1 <= n2) {
+            // prepared 一侧作为 pattern 时, peq 只在第一次构建
+            boolean build = !(prepared1 && peqPrepared);
+            peqPrepared = prepared1;
+            return myers(codePoints1, n1, codePoints2, n2, max, bound, build);
+        }
+        peqPrepared = false;
+        return myers(codePoints2, n2, codePoints1, n1, max, bound, true);
+    }
+
+    private int myers(int[] pattern, int m, int[] text, int n, int max, int bound, boolean build) {
+        int words = (m + 63) >>> 6;
+        if (build) {
+            buildPeq(pattern, m, words);
+        }
+        if (plus.length < words) {
+            plus = new long[words];
+            minus = new long[words];
+        }
+        Arrays.fill(plus, 0, words, -1L);
+        Arrays.fill(minus, 0, words, 0L);
+        long last = 1L << ((m - 1) & 63);
+
+        int score = m;
+        for (int j = 0; j < n; j++) {
+            int row = find(text[j]);
+            // 第 0 行是 D[0][j] = j, 所以进入第一个块的水平差值为 +1
+            int carry = 1;
+            for (int w = 0; w < words; w++) {
+                long eq = row < 0 ? 0L : peq[row + w];
+                long pv = plus[w];
+                long mv = minus[w];
+                long xv = eq | mv;
+                if (carry < 0) {
+                    eq |= 1L;
+                }
+                long xh = (((eq & pv) + pv) ^ pv) | eq;
+                long ph = mv | ~(xh | pv);
+                long mh = pv & xh;
+
+                long high = w == words - 1 ? last : Long.MIN_VALUE;
+                int out = (ph & high) != 0 ? 1 : (mh & high) != 0 ? -1 : 0;
+
+                ph <<= 1;
+                mh <<= 1;
+                if (carry < 0) {
+                    mh |= 1L;
+                } else if (carry > 0) {
+                    ph |= 1L;
+                }
+                plus[w] = mh | ~(xv | ph);
+                minus[w] = ph & xv;
+                carry = out;
+            }
+            score += carry;
+            if (score - (n - j - 1) > max) {
+                return bound;
+            }
+        }
+        return score;
+    }
+
+    /**
+     * peq[row(c) + w] has bit i set when pattern[64 * w + i] == c.
+     */
+    private void buildPeq(int[] pattern, int m, int words) {
+        int capacity = Integer.highestOneBit(Math.max(m, 32)) << 2;
+        if (keys.length < capacity) {
+            keys = new int[capacity];
+            rows = new int[capacity];
+            stamps = new int[capacity];
+            stamp = 0;
+        }
+        if (++stamp == 0) {
+            Arrays.fill(stamps, 0);
+            stamp = 1;
+        }
+        if (peq.length < m * words) {
+            peq = new long[m * words];
+        }
+
+        int mask = keys.length - 1;
+        int next = 0;
+        for (int i = 0; i < m; i++) {
+            int c = pattern[i];
+            int slot = mix(c) & mask;
+            while (stamps[slot] == stamp && keys[slot] != c) {
+                slot = (slot + 1) & mask;
+            }
+            if (stamps[slot] != stamp) {
+                stamps[slot] = stamp;
+                keys[slot] = c;
+                rows[slot] = next;
+                Arrays.fill(peq, next, next + words, 0L);
+                next += words;
+            }
+            peq[rows[slot] + (i >>> 6)] |= 1L << (i & 63);
+        }
+    }
+
+    /**
+     * @return the peq row of code point c, -1 if c is not in the pattern
+     */
+    private int find(int c) {
+        int mask = keys.length - 1;
+        int slot = mix(c) & mask;
+        while (stamps[slot] == stamp) {
+            if (keys[slot] == c) {
+                return rows[slot];
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    /**
+     * Decode UTF-8 into code points. A byte that does not start a valid sequence becomes its own
+     * unit, encoded as a negative number so it never equals a real code point.
+     */
+    private static int decode(byte[] bytes, int offset, int length, int[] out) {
+        int n = 0;
+        int end = offset + length;
+        for (int i = offset; i < end; ) {
+            int b = bytes[i] & 0xFF;
+            int len = b < 0x80 ? 1 : b < 0xC0 ? 0 : b < 0xE0 ? 2 : b < 0xF0 ? 3 : b < 0xF8 ? 4 : 0;
+            int c = len == 1 ? b : len == 2 ? b & 0x1F : len == 3 ? b & 0x0F : b & 0x07;
+            boolean valid = len > 0 && i + len <= end;
+            for (int k = 1; valid && k < len; k++) {
+                int cb = bytes[i + k] & 0xFF;
+                valid = (cb & 0xC0) == 0x80;
+                c = (c << 6) | (cb & 0x3F);
+            }
+            if (valid) {
+                out[n++] = c;
+                i += len;
+            } else {
+                out[n++] = -1 - b;
+                i++;
+            }
+        }
+        return n;
+    }
+
+    private static int[] ensure(int[] buffer, int length) {
+        return buffer.length < length ? new int[Math.max(length, buffer.length << 1)] : buffer;
+    }
+
+    private static int mix(int h) {
+        h *= 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
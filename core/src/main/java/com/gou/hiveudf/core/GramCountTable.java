@@ -0,0 +1,102 @@
+package com.gou.hiveudf.core;
+
+/**
+ * @version 1.0
+ * @auther GouMi
+ */
+
+import java.util.Arrays;
+
+/**
+ * Open-addressing table counting n-gram keys, the 64-bit counterpart of {@link TokenCountTable}.
+ * <p>
+ * An n-gram spans several tokens and the separators between them, so it cannot be compared as
+ * one range of the source. Its key is a rolling hash of the token hashes instead, and two grams
+ * are equal when their keys are. With 64-bit keys a false match needs about 2^32 distinct grams
+ * in one row. {@link #take} and {@link #newRound} behave as in {@link TokenCountTable}.
+ */
+public final class GramCountTable {
+    private int mask;
+    private long[] slotKey;
+    private int[] slotCount;
+    private int[] slotUsed;
+    private int[] slotRound;
+    private int[] occupied;
+    private int size;
+    private int round;
+
+    public GramCountTable() {
+        allocate(64);
+    }
+
+    /**
+     * Drop all keys and count keys[0, n) instead.
+     */
+    public void build(long[] keys, int n) {
+        for (int i = 0; i < size; i++) {
+            slotCount[occupied[i]] = 0;
+        }
+        size = 0;
+        // 保持装载因子不超过 0.5
+        if (n << 1 > slotCount.length) {
+            allocate(Integer.highestOneBit(n) << 2);
+        }
+        newRound();
+        for (int i = 0; i < n; i++) {
+            int slot = find(keys[i]);
+            if (slotCount[slot] == 0) {
+                slotKey[slot] = keys[i];
+                occupied[size++] = slot;
+            }
+            slotCount[slot]++;
+        }
+    }
+
+    /**
+     * Make all occurrences available to {@link #take} again.
+     */
+    public void newRound() {
+        if (++round == 0) {
+            Arrays.fill(slotRound, 0);
+            round = 1;
+        }
+    }
+
+    /**
+     * Consume one occurrence of key.
+     *
+     * @return true if the key was still available, i.e. it counts as one matched gram
+     */
+    public boolean take(long key) {
+        int slot = find(key);
+        if (slotRound[slot] != round) {
+            slotRound[slot] = round;
+            slotUsed[slot] = 0;
+        }
+        if (slotUsed[slot] < slotCount[slot]) {
+            slotUsed[slot]++;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Linear probing. A slot is empty when its count is 0.
+     */
+    private int find(long key) {
+        int slot = (int) (key ^ (key >>> 32)) & mask;
+        while (slotCount[slot] != 0 && slotKey[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private void allocate(int capacity) {
+        mask = capacity - 1;
+        slotKey = new long[capacity];
+        slotCount = new int[capacity];
+        slotUsed = new int[capacity];
+        slotRound = new int[capacity];
+        occupied = new int[capacity];
+    }
+}
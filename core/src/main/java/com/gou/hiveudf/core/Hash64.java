@@ -0,0 +1,36 @@
+package com.gou.hiveudf.core;
+
+/**
+ * @version 1.0
+ * @auther GouMi
+ */
+
+/**
+ * 64-bit hashes that are stable across JVMs, for keys that must agree between tasks or that are
+ * compared by hash alone.
+ */
+public final class Hash64 {
+    private Hash64() {
+    }
+
+    /**
+     * FNV-1a over bytes[start, end) followed by the SplitMix64 finalizer.
+     */
+    public static long hash(byte[] bytes, int start, int end) {
+        long h = 0xCBF29CE484222325L;
+        for (int i = start; i < end; i++) {
+            h ^= bytes[i] & 0xFF;
+            h *= 0x100000001B3L;
+        }
+        return mix(h);
+    }
+
+    /**
+     * SplitMix64 finalizer.
+     */
+    public static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
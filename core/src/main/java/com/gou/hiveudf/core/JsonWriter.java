@@ -0,0 +1,316 @@
+package com.gou.hiveudf.core;
+
+/**
+ * @version 1.0
+ * @auther GouMi
+ */
+
+import java.util.Arrays;
+
+/**
+ * Write JSON as UTF-8 into a growable byte array.
+ * <p>
+ * The output follows Jackson's defaults: strings are escaped with \" \\ \b \t \n \f \r and
+ * unicode escapes for the other control chars, non ASCII chars are written as is, NaN and
+ * infinities are written as quoted strings and binary values as Base64. Strings already
+ * encoded as UTF-8, e.g. the bytes of a Text, are escaped in place without decoding.
+ * <p>
+ * Commas and colons are inserted by the writer, the caller only calls the methods in document
+ * order. {@link #reset} starts the next document in the same buffer, so one writer allocates
+ * only while it grows to the largest document seen.
+ */
+public final class JsonWriter {
+    private static final byte[] HEX = "0123456789ABCDEF".getBytes();
+    private static final byte[] BASE64 = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789+/".getBytes();
+    private static final byte[] NULL = {'n', 'u', 'l', 'l'};
+    private static final byte[] TRUE = {'t', 'r', 'u', 'e'};
+    private static final byte[] FALSE = {'f', 'a', 'l', 's', 'e'};
+    private static final byte[] LONG_MIN = Long.toString(Long.MIN_VALUE).getBytes();
+    // 0 不需要转义, 否则为短转义字符, 或 'u' 表示六个字符的 unicode 转义
+    private static final byte[] ESCAPES = new byte[128];
+
+    static {
+        for (int c = 0; c < 0x20; c++) {
+            ESCAPES[c] = 'u';
+        }
+        ESCAPES['"'] = '"';
+        ESCAPES['\\'] = '\\';
+        ESCAPES['\b'] = 'b';
+        ESCAPES['\t'] = 't';
+        ESCAPES['\n'] = 'n';
+        ESCAPES['\f'] = 'f';
+        ESCAPES['\r'] = 'r';
+    }
+
+    private byte[] buf = new byte[256];
+    private int size;
+    // hasValue[depth] 表示当前容器中是否已经写过值, 下一个值之前需要逗号
+    private boolean[] hasValue = new boolean[16];
+    private int depth;
+    private boolean afterName;
+
+    /**
+     * Discard the output and start a new document.
+     */
+    public void reset() {
+        size = 0;
+        depth = 0;
+        afterName = false;
+        hasValue[0] = false;
+    }
+
+    /**
+     * @return the buffer holding the output in [0, size())
+     */
+    public byte[] buffer() {
+        return buf;
+    }
+
+    /**
+     * @return the number of bytes written since the last reset
+     */
+    public int size() {
+        return size;
+    }
+
+    public void startObject() {
+        beforeValue();
+        put((byte) '{');
+        push();
+    }
+
+    public void endObject() {
+        depth--;
+        put((byte) '}');
+    }
+
+    public void startArray() {
+        beforeValue();
+        put((byte) '[');
+        push();
+    }
+
+    public void endArray() {
+        depth--;
+        put((byte) ']');
+    }
+
+    public void fieldName(String name) {
+        beforeValue();
+        quote(name);
+        put((byte) ':');
+        afterName = true;
+    }
+
+    /**
+     * @param utf8 UTF-8 bytes of the field name
+     * @param offset
+     * @param length
+     */
+    public void fieldName(byte[] utf8, int offset, int length) {
+        beforeValue();
+        quote(utf8, offset, length);
+        put((byte) ':');
+        afterName = true;
+    }
+
+    public void string(String value) {
+        beforeValue();
+        quote(value);
+    }
+
+    /**
+     * @param utf8 UTF-8 bytes of the value
+     * @param offset
+     * @param length
+     */
+    public void string(byte[] utf8, int offset, int length) {
+        beforeValue();
+        quote(utf8, offset, length);
+    }
+
+    public void number(long value) {
+        beforeValue();
+        if (value == Long.MIN_VALUE) {
+            put(LONG_MIN, 0, LONG_MIN.length);
+            return;
+        }
+        if (value < 0) {
+            put((byte) '-');
+            value = -value;
+        }
+        int digits = 1;
+        for (long v = value; v >= 10; v /= 10) {
+            digits++;
+        }
+        ensure(digits);
+        for (int i = size + digits - 1; i >= size; i--) {
+            buf[i] = (byte) ('0' + value % 10);
+            value /= 10;
+        }
+        size += digits;
+    }
+
+    public void number(double value) {
+        beforeValue();
+        if (Double.isNaN(value) || Double.isInfinite(value)) {
+            quote(Double.toString(value));
+        } else {
+            ascii(Double.toString(value));
+        }
+    }
+
+    public void number(float value) {
+        beforeValue();
+        if (Float.isNaN(value) || Float.isInfinite(value)) {
+            quote(Float.toString(value));
+        } else {
+            ascii(Float.toString(value));
+        }
+    }
+
+    public void bool(boolean value) {
+        beforeValue();
+        byte[] literal = value ? TRUE : FALSE;
+        put(literal, 0, literal.length);
+    }
+
+    public void nullValue() {
+        beforeValue();
+        put(NULL, 0, NULL.length);
+    }
+
+    /**
+     * Write bytes as a Base64 string, without line feeds.
+     */
+    public void binary(byte[] bytes, int offset, int length) {
+        beforeValue();
+        ensure((length + 2) / 3 * 4 + 2);
+        buf[size++] = '"';
+        int end = offset + length;
+        int i = offset;
+        for (; i + 2 < end; i += 3) {
+            int b = (bytes[i] & 0xFF) << 16 | (bytes[i + 1] & 0xFF) << 8 | bytes[i + 2] & 0xFF;
+            buf[size++] = BASE64[b >>> 18];
+            buf[size++] = BASE64[(b >>> 12) & 0x3F];
+            buf[size++] = BASE64[(b >>> 6) & 0x3F];
+            buf[size++] = BASE64[b & 0x3F];
+        }
+        if (i < end) {
+            int b = (bytes[i] & 0xFF) << 16 | (i + 1 < end ? (bytes[i + 1] & 0xFF) << 8 : 0);
+            buf[size++] = BASE64[b >>> 18];
+            buf[size++] = BASE64[(b >>> 12) & 0x3F];
+            buf[size++] = i + 1 < end ? BASE64[(b >>> 6) & 0x3F] : (byte) '=';
+            buf[size++] = '=';
+        }
+        buf[size++] = '"';
+    }
+
+    private void beforeValue() {
+        if (afterName) {
+            afterName = false;
+        } else if (hasValue[depth]) {
+            put((byte) ',');
+        } else {
+            hasValue[depth] = true;
+        }
+    }
+
+    private void push() {
+        if (++depth == hasValue.length) {
+            hasValue = Arrays.copyOf(hasValue, depth << 1);
+        }
+        hasValue[depth] = false;
+    }
+
+    private void quote(byte[] utf8, int offset, int length) {
+        // 最坏情况下每个字节都转义为六个字符
+        ensure(length * 6 + 2);
+        buf[size++] = '"';
+        for (int i = offset, end = offset + length; i < end; i++) {
+            byte b = utf8[i];
+            if (b < 0 || ESCAPES[b] == 0) {
+                buf[size++] = b;
+            } else {
+                escape(b);
+            }
+        }
+        buf[size++] = '"';
+    }
+
+    private void quote(String s) {
+        int len = s.length();
+        // 一个 char 最多编码为 3 个字节或 6 个字节的转义
+        ensure(len * 6 + 2);
+        buf[size++] = '"';
+        for (int i = 0; i < len; i++) {
+            char c = s.charAt(i);
+            if (c < 0x80) {
+                if (ESCAPES[c] == 0) {
+                    buf[size++] = (byte) c;
+                } else {
+                    escape(c);
+                }
+            } else if (c < 0x800) {
+                buf[size++] = (byte) (0xC0 | c >> 6);
+                buf[size++] = (byte) (0x80 | c & 0x3F);
+            } else if (Character.isHighSurrogate(c) && i + 1 < len && Character.isLowSurrogate(s.charAt(i + 1))) {
+                int cp = Character.toCodePoint(c, s.charAt(++i));
+                buf[size++] = (byte) (0xF0 | cp >> 18);
+                buf[size++] = (byte) (0x80 | (cp >> 12) & 0x3F);
+                buf[size++] = (byte) (0x80 | (cp >> 6) & 0x3F);
+                buf[size++] = (byte) (0x80 | cp & 0x3F);
+            } else if (Character.isSurrogate(c)) {
+                // 与 String.getBytes(UTF_8) 一致, 不成对的代理字符写为 '?'
+                buf[size++] = '?';
+            } else {
+                buf[size++] = (byte) (0xE0 | c >> 12);
+                buf[size++] = (byte) (0x80 | (c >> 6) & 0x3F);
+                buf[size++] = (byte) (0x80 | c & 0x3F);
+            }
+        }
+        buf[size++] = '"';
+    }
+
+    /**
+     * Escape c, ensure() has reserved the space.
+     */
+    private void escape(int c) {
+        byte e = ESCAPES[c];
+        buf[size++] = '\\';
+        if (e == 'u') {
+            buf[size++] = 'u';
+            buf[size++] = '0';
+            buf[size++] = '0';
+            buf[size++] = HEX[c >> 4];
+            buf[size++] = HEX[c & 0xF];
+        } else {
+            buf[size++] = e;
+        }
+    }
+
+    private void ascii(String s) {
+        int len = s.length();
+        ensure(len);
+        for (int i = 0; i < len; i++) {
+            buf[size++] = (byte) s.charAt(i);
+        }
+    }
+
+    private void put(byte b) {
+        ensure(1);
+        buf[size++] = b;
+    }
+
+    private void put(byte[] bytes, int offset, int length) {
+        ensure(length);
+        System.arraycopy(bytes, offset, buf, size, length);
+        size += length;
+    }
+
+    private void ensure(int n) {
+        if (size + n > buf.length) {
+            buf = Arrays.copyOf(buf, Math.max(buf.length << 1, size + n));
+        }
+    }
+}
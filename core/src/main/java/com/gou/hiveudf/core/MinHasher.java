@@ -0,0 +1,82 @@
+package com.gou.hiveudf.core;
+
+/**
+ * @version 1.0
+ * @auther GouMi
+ */
+
+import java.util.Arrays;
+
+/**
+ * MinHash signatures over the matchNWords token set, plus LSH band keys computed from them.
+ * <p>
+ * The n hash functions are h_i(x) = mix(x ^ seed_i) over the {@link Hash64} x of the token bytes.
+ * The seeds come from a fixed SplitMix64 sequence, so every task and every JVM produces the
+ * same signature for the same text, which is what makes band keys joinable. The signature
+ * array is reused between calls.
+ */
+public final class MinHasher {
+    private static final long SEED = 0x5DEECE66DL;
+
+    private final WordTokenizer tokenizer = new WordTokenizer();
+    private final long[] seeds;
+    private final long[] signature;
+
+    public MinHasher(int n) {
+        seeds = new long[n];
+        long state = SEED;
+        for (int i = 0; i < n; i++) {
+            state += 0x9E3779B97F4A7C15L;
+            seeds[i] = Hash64.mix(state);
+        }
+        signature = new long[n];
+    }
+
+    /**
+     * Compute the signature of the UTF-8 text. Repeated tokens do not change a minimum, so the
+     * tokens are hashed as they come without building the distinct set first.
+     *
+     * @return the number of tokens; when it is 0 the signature is undefined
+     */
+    public int signature(byte[] bytes, int offset, int length) {
+        int tokens = tokenizer.tokenize(bytes, offset, length);
+        Arrays.fill(signature, Long.MAX_VALUE);
+        for (int t = 0; t < tokens; t++) {
+            long x = Hash64.hash(bytes, tokenizer.start(t), tokenizer.end(t));
+            for (int i = 0; i < seeds.length; i++) {
+                long h = Hash64.mix(x ^ seeds[i]);
+                if (h < signature[i]) {
+                    signature[i] = h;
+                }
+            }
+        }
+        return tokens;
+    }
+
+    /**
+     * @return the i-th value of the last signature
+     */
+    public long get(int i) {
+        return signature[i];
+    }
+
+    public int size() {
+        return signature.length;
+    }
+
+    /**
+     * Key of one LSH band. The band number is part of the key, so equal keys only come from
+     * the same band of two signatures that agree on all r rows of it.
+     *
+     * @param band band number
+     * @param rows the r signature values of the band
+     * @param r rows per band
+     */
+    public static long bandKey(int band, long[] rows, int r) {
+        long h = Hash64.mix(SEED + band);
+        for (int i = 0; i < r; i++) {
+            h = Hash64.mix(h ^ rows[i]) + 0x9E3779B97F4A7C15L;
+        }
+        return h;
+    }
+}
@@ -0,0 +1,279 @@
+package com.gou.hiveudf.core;
+
+/**
+ * @version 1.0
+ * @auther GouMi
+ */
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Parses array strings such as "[1, 2, null, 4]" in one pass over the UTF-8 bytes.
+ * <p>
+ * '[' and ']' are ignored wherever they appear and the rest is split at ','. An element that
+ * is blank, "null" (any case) or not a number of the element type is null; "[]" and "  "
+ * inside the brackets are the empty array. A blank input or "null" is a null array.
+ * <p>
+ * Numbers are parsed by hand without creating a String. Integers must fit the element type.
+ * Doubles with at most 15 significant digits and a decimal exponent within 22 are exact with
+ * one multiplication or division, longer forms fall back to Double.parseDouble. The values are
+ * kept in reused arrays, an instance is not thread safe.
+ */
+public final class NumberArrayParser {
+    public enum ElementType {
+        INT, BIGINT, DOUBLE;
+
+        /**
+         * @return the type of the Hive type name, or null if the name is not supported
+         */
+        public static ElementType of(String name) {
+            switch (name.trim().toLowerCase()) {
+                case "int":
+                    return INT;
+                case "bigint":
+                    return BIGINT;
+                case "double":
+                    return DOUBLE;
+                default:
+                    return null;
+            }
+        }
+    }
+
+    private static final double[] POWERS_OF_TEN = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+            1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22};
+
+    private final ElementType type;
+    private long[] longs = new long[16];
+    private double[] doubles = new double[16];
+    private boolean[] nulls = new boolean[16];
+    private int size;
+
+    public NumberArrayParser(ElementType type) {
+        this.type = type;
+    }
+
+    /**
+     * @return the number of elements, -1 for a null array
+     */
+    public int parse(byte[] bytes, int offset, int length) {
+        int end = offset + length;
+        int start = offset;
+        int last = end;
+        while (start < end && isWhitespace(bytes[start])) {
+            start++;
+        }
+        while (last > start && isWhitespace(bytes[last - 1])) {
+            last--;
+        }
+        if (start == last || isNullLiteral(bytes, start, last)) {
+            return -1;
+        }
+
+        size = 0;
+        int elementStart = offset;
+        boolean blank = true;
+        for (int i = offset; i <= end; i++) {
+            if (i == end || bytes[i] == ',') {
+                int s = skipIgnored(bytes, elementStart, i);
+                int e = trimEnd(bytes, s, i);
+                blank &= s == e;
+                // "[]" 与 "[ ]" 为空数组, 而不是包含一个 null 的数组
+                if (i == end && blank && size == 0) {
+                    return 0;
+                }
+                add(bytes, s, e);
+                elementStart = i + 1;
+            }
+        }
+        return size;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isNull(int i) {
+        return nulls[i];
+    }
+
+    /**
+     * @return the i-th element of an int or bigint array
+     */
+    public long getLong(int i) {
+        return longs[i];
+    }
+
+    /**
+     * @return the i-th element of a double array
+     */
+    public double getDouble(int i) {
+        return doubles[i];
+    }
+
+    private void add(byte[] bytes, int start, int end) {
+        if (size == nulls.length) {
+            int capacity = size << 1;
+            longs = Arrays.copyOf(longs, capacity);
+            doubles = Arrays.copyOf(doubles, capacity);
+            nulls = Arrays.copyOf(nulls, capacity);
+        }
+        boolean valid = start < end && !isNullLiteral(bytes, start, end)
+                && (type == ElementType.DOUBLE ? parseDouble(bytes, start, end) : parseLong(bytes, start, end));
+        nulls[size++] = !valid;
+    }
+
+    /**
+     * Parse an integer into longs[size].
+     *
+     * @return false if it is not an integer in the range of the element type
+     */
+    private boolean parseLong(byte[] bytes, int start, int end) {
+        boolean negative = bytes[start] == '-';
+        int i = negative || bytes[start] == '+' ? start + 1 : start;
+        if (i == end) {
+            return false;
+        }
+        // 以负数累加, 这样 Long.MIN_VALUE 也不会溢出
+        long limit = type == ElementType.INT
+                ? (negative ? Integer.MIN_VALUE : -Integer.MAX_VALUE)
+                : (negative ? Long.MIN_VALUE : -Long.MAX_VALUE);
+        long value = 0;
+        for (; i < end; i++) {
+            int digit = bytes[i] - '0';
+            if (digit < 0 || digit > 9 || value < (limit + digit) / 10) {
+                return false;
+            }
+            value = value * 10 - digit;
+        }
+        longs[size] = negative ? value : -value;
+        return true;
+    }
+
+    /**
+     * Parse a decimal number into doubles[size].
+     *
+     * @return false if it is not a number
+     */
+    private boolean parseDouble(byte[] bytes, int start, int end) {
+        boolean negative = bytes[start] == '-';
+        int i = negative || bytes[start] == '+' ? start + 1 : start;
+
+        long mantissa = 0;
+        int digits = 0;
+        int exponent = 0;
+        boolean anyDigit = false;
+        for (; i < end && bytes[i] >= '0' && bytes[i] <= '9'; i++) {
+            anyDigit = true;
+            if (digits < 18) {
+                mantissa = mantissa * 10 + (bytes[i] - '0');
+                if (mantissa != 0) {
+                    digits++;
+                }
+            } else {
+                exponent++;
+            }
+        }
+        if (i < end && bytes[i] == '.') {
+            for (i++; i < end && bytes[i] >= '0' && bytes[i] <= '9'; i++) {
+                anyDigit = true;
+                if (digits < 18) {
+                    mantissa = mantissa * 10 + (bytes[i] - '0');
+                    if (mantissa != 0) {
+                        digits++;
+                    }
+                    exponent--;
+                }
+            }
+        }
+        if (!anyDigit) {
+            return parseSlow(bytes, start, end);
+        }
+        if (i < end && (bytes[i] == 'e' || bytes[i] == 'E')) {
+            i++;
+            boolean negativeExp = i < end && bytes[i] == '-';
+            if (i < end && (bytes[i] == '-' || bytes[i] == '+')) {
+                i++;
+            }
+            if (i == end) {
+                return false;
+            }
+            int exp = 0;
+            for (; i < end && bytes[i] >= '0' && bytes[i] <= '9'; i++) {
+                exp = Math.min(exp * 10 + (bytes[i] - '0'), 100000);
+            }
+            exponent += negativeExp ? -exp : exp;
+        }
+        if (i < end) {
+            return parseSlow(bytes, start, end);
+        }
+
+        double value;
+        if (mantissa == 0) {
+            value = 0;
+        } else if (digits <= 15 && exponent >= -22 && exponent <= 22) {
+            value = exponent < 0 ? mantissa / POWERS_OF_TEN[-exponent] : mantissa * POWERS_OF_TEN[exponent];
+        } else {
+            return parseSlow(bytes, start, end);
+        }
+        doubles[size] = negative ? -value : value;
+        return true;
+    }
+
+    /**
+     * Double.parseDouble for the rare forms the fast path does not handle exactly, e.g. 17
+     * significant digits, large exponents, NaN and Infinity. The Java literal forms it also
+     * accepts, a trailing f/F/d/D and hexadecimal floats such as 0x1p3, are not numbers, nor
+     * are the control characters it trims.
+     */
+    private boolean parseSlow(byte[] bytes, int start, int end) {
+        byte last = bytes[end - 1];
+        if (last == 'f' || last == 'F' || last == 'd' || last == 'D'
+                || (bytes[start] >= 0 && bytes[start] <= ' ') || (last >= 0 && last <= ' ')) {
+            return false;
+        }
+        int i = bytes[start] == '-' || bytes[start] == '+' ? start + 1 : start;
+        if (end - i >= 2 && bytes[i] == '0' && (bytes[i + 1] == 'x' || bytes[i + 1] == 'X')) {
+            return false;
+        }
+        try {
+            doubles[size] = Double.parseDouble(new String(bytes, start, end - start, StandardCharsets.UTF_8));
+            return true;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
+    /**
+     * @return the first index in [start, end) that is neither whitespace nor a bracket
+     */
+    private static int skipIgnored(byte[] bytes, int start, int end) {
+        while (start < end && isIgnored(bytes[start])) {
+            start++;
+        }
+        return start;
+    }
+
+    private static int trimEnd(byte[] bytes, int start, int end) {
+        while (end > start && isIgnored(bytes[end - 1])) {
+            end--;
+        }
+        return end;
+    }
+
+    private static boolean isIgnored(byte b) {
+        return isWhitespace(b) || b == '[' || b == ']';
+    }
+
+    private static boolean isWhitespace(byte b) {
+        return b == ' ' || b == '\t' || b == '\n' || b == '\r';
+    }
+
+    private static boolean isNullLiteral(byte[] bytes, int start, int end) {
+        return end - start == 4
+                && (bytes[start] | 0x20) == 'n' && (bytes[start + 1] | 0x20) == 'u'
+                && (bytes[start + 2] | 0x20) == 'l' && (bytes[start + 3] | 0x20) == 'l';
+    }
+}
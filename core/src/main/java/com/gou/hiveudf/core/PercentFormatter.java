@@ -0,0 +1,115 @@
+package com.gou.hiveudf.core;
+
+/**
+ * @version 1.0
+ * @auther GouMi
+ */
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Formats integers and whole percentages as UTF-8 digits into one reused buffer, without
+ * DecimalFormat, boxing or Strings.
+ * <p>
+ * The percentage is numerator / denominator rounded half-even to a whole percent, the same
+ * pattern as DecimalFormat("0%"). It is computed on the exact ratio with long arithmetic,
+ * whereas DecimalFormat rounds the nearest double, so a tie such as 1/40 = 2.5% is 2% here and
+ * may be 3% there. Ratios too large for long arithmetic go through BigDecimal.
+ */
+public final class PercentFormatter {
+    private static final long LIMIT = Long.MAX_VALUE / 100;
+
+    // long 最多 19 位数字, 加上符号和 '%'
+    private byte[] buffer = new byte[24];
+
+    /**
+     * Format numerator / denominator as e.g. "60%" or "-33%".
+     *
+     * @return the number of bytes in {@link #bytes()}, -1 if denominator is 0
+     */
+    public int percent(long numerator, long denominator) {
+        if (denominator == 0) {
+            return -1;
+        }
+        // 商小于 LIMIT 时 100 * 商 + 99 再加上舍入的 1 不会溢出
+        if (numerator == Long.MIN_VALUE || denominator == Long.MIN_VALUE
+                || Math.abs(denominator) > LIMIT || Math.abs(numerator / denominator) >= LIMIT) {
+            return percentSlow(numerator, denominator);
+        }
+
+        long a = Math.abs(numerator);
+        long b = Math.abs(denominator);
+        long scaled = 100 * (a % b);
+        long p = 100 * (a / b) + scaled / b;
+        long twice = 2 * (scaled % b);
+        if (twice > b || (twice == b && (p & 1) == 1)) {
+            p++;
+        }
+
+        int pos = buffer.length;
+        buffer[--pos] = '%';
+        pos = writeDigits(p, pos);
+        if (p != 0 && (numerator < 0) != (denominator < 0)) {
+            buffer[--pos] = '-';
+        }
+        return shift(pos);
+    }
+
+    /**
+     * Format value in decimal.
+     *
+     * @return the number of bytes in {@link #bytes()}
+     */
+    public int integer(long value) {
+        int pos = buffer.length;
+        if (value == Long.MIN_VALUE) {
+            // 唯一不能取绝对值的数
+            pos = writeDigits(-(value / 10), pos - 1);
+            buffer[buffer.length - 1] = (byte) ('0' - value % 10);
+        } else {
+            pos = writeDigits(Math.abs(value), pos);
+        }
+        if (value < 0) {
+            buffer[--pos] = '-';
+        }
+        return shift(pos);
+    }
+
+    /**
+     * @return the buffer holding the last formatted value from index 0
+     */
+    public byte[] bytes() {
+        return buffer;
+    }
+
+    private int writeDigits(long v, int pos) {
+        do {
+            buffer[--pos] = (byte) ('0' + v % 10);
+            v /= 10;
+        } while (v != 0);
+        return pos;
+    }
+
+    /**
+     * Move the digits written backwards from the end to the start of the buffer.
+     */
+    private int shift(int pos) {
+        int length = buffer.length - pos;
+        System.arraycopy(buffer, pos, buffer, 0, length);
+        return length;
+    }
+
+    private int percentSlow(long numerator, long denominator) {
+        byte[] digits = BigDecimal.valueOf(numerator).multiply(BigDecimal.valueOf(100))
+                .divide(BigDecimal.valueOf(denominator), 0, RoundingMode.HALF_EVEN)
+                .toPlainString().getBytes(StandardCharsets.UTF_8);
+        if (buffer.length < digits.length + 1) {
+            buffer = new byte[digits.length + 1];
+        }
+        System.arraycopy(digits, 0, buffer, 0, digits.length);
+        buffer[digits.length] = '%';
+        return digits.length + 1;
+    }
+}
@@ -0,0 +1,477 @@
+package com.gou.hiveudf.core;
+
+/**
+ * @version 1.0
+ * @auther GouMi
+ */
+
+import java.util.Arrays;
+
+/**
+ * SpaceSaving sketch of the most frequent tokens of a stream, in a fixed number of counters.
+ * <p>
+ * Every counter holds a token, its count and the error of that count: the true count of the
+ * token is in [count - error, count]. A token that is not monitored when the counters are full
+ * replaces the token with the smallest count m, and starts at m + 1 with error m. So the error
+ * of any counter is at most total / capacity, and every token occurring more than
+ * total / capacity times is monitored.
+ * <p>
+ * Tokens are UTF-8 bytes, looked up by {@link #hash(byte[], int, int)}, which is the byte hash
+ * of {@link WordTokenizer}, so tokens can be offered straight from a tokenizer. Counters are found
+ * by linear probing and kept in a min-heap on their count, so an offer costs a lookup plus
+ * O(log capacity) when the count moves. The token bytes are copied into buffers that are reused
+ * when a counter gets a new token.
+ * <p>
+ * Sketches are mergeable: {@link #merge} combines two sketches with the same guarantee over
+ * both streams, so partial sketches can be built in parallel and shipped in the
+ * {@link #serialize serialized form}: version byte, capacity as a big-endian int, total as a
+ * big-endian long, number of counters as an int, then per counter count and error as longs,
+ * the token length as an int and the token bytes.
+ */
+public final class SpaceSaving {
+    private static final byte VERSION = 1;
+    private static final int HEADER = 17;
+    private static final int COUNTER_HEADER = 20;
+
+    private int capacity;
+    private long total;
+    private int size;
+    private byte[][] tokens;
+    private int[] lengths;
+    private int[] hashes;
+    private long[] counts;
+    private long[] errors;
+    // 按 count 的最小堆, heapIndex[c] 是计数器 c 在堆中的位置
+    private int[] heap;
+    private int[] heapIndex;
+    // 计数器下标 + 1, 0 表示空位
+    private int[] slots;
+    private int mask;
+
+    /**
+     * @param capacity number of counters, at least 1
+     */
+    public SpaceSaving(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be positive, but " + capacity + " was given");
+        }
+        allocate(capacity);
+    }
+
+    /**
+     * @return the sketch serialized in bytes[offset, offset + length)
+     * @throws IllegalArgumentException if the bytes are not a serialized sketch
+     */
+    public static SpaceSaving deserialize(byte[] bytes, int offset, int length) {
+        SpaceSaving sketch = new SpaceSaving(readCapacity(bytes, offset, length));
+        sketch.readCounters(bytes, offset, length);
+        return sketch;
+    }
+
+    /**
+     * The hash a token is offered with, the same as the byte hash of {@link WordTokenizer}.
+     */
+    public static int hash(byte[] bytes, int start, int end) {
+        int hash = 0;
+        for (int i = start; i < end; i++) {
+            hash = 31 * hash + (bytes[i] & 0xFF);
+        }
+        return hash;
+    }
+
+    /**
+     * Count the token src[start, end) n times.
+     *
+     * @param hash {@link #hash(byte[], int, int)} of the token
+     */
+    public void offer(byte[] src, int start, int end, int hash, long n) {
+        total += n;
+        int slot = find(src, start, end, hash);
+        int c = slots[slot] - 1;
+        if (c >= 0) {
+            counts[c] += n;
+            siftDown(heapIndex[c]);
+            return;
+        }
+        if (size < capacity) {
+            append(src, start, end, hash, n, 0);
+            return;
+        }
+        // 替换 count 最小的 token, 它的 count 作为新 token 的误差
+        c = heap[0];
+        long min = counts[c];
+        remove(find(tokens[c], 0, lengths[c], hashes[c]));
+        set(c, src, start, end, hash, min + n, min);
+        slots[find(src, start, end, hash)] = c + 1;
+        siftDown(0);
+    }
+
+    /**
+     * Add the counters of other, so this sketch covers both streams. A token missing from a full
+     * sketch may have occurred up to the minimum count of that sketch, which is added to its count
+     * and error; of the combined counters the capacity largest are kept. When both sketches have
+     * the same capacity the errors stay within the total of both over the capacity.
+     */
+    public void merge(SpaceSaving other) {
+        long minThis = size == capacity ? counts[heap[0]] : 0;
+        long minOther = other.size == other.capacity ? other.counts[other.heap[0]] : 0;
+        int n = size + other.size;
+        byte[][] newTokens = new byte[n][];
+        int[] newLengths = new int[n];
+        int[] newHashes = new int[n];
+        long[] newCounts = new long[n];
+        long[] newErrors = new long[n];
+        for (int c = 0; c < size; c++) {
+            newTokens[c] = tokens[c];
+            newLengths[c] = lengths[c];
+            newHashes[c] = hashes[c];
+            newCounts[c] = counts[c] + minOther;
+            newErrors[c] = errors[c] + minOther;
+        }
+        int m = size;
+        for (int o = 0; o < other.size; o++) {
+            int c = slots[find(other.tokens[o], 0, other.lengths[o], other.hashes[o])] - 1;
+            if (c >= 0) {
+                newCounts[c] += other.counts[o] - minOther;
+                newErrors[c] += other.errors[o] - minOther;
+            } else {
+                newTokens[m] = Arrays.copyOf(other.tokens[o], other.lengths[o]);
+                newLengths[m] = other.lengths[o];
+                newHashes[m] = other.hashes[o];
+                newCounts[m] = other.counts[o] + minThis;
+                newErrors[m] = other.errors[o] + minThis;
+                m++;
+            }
+        }
+
+        Integer[] order = new Integer[m];
+        for (int i = 0; i < m; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> Long.compare(newCounts[b], newCounts[a]));
+        long newTotal = total + other.total;
+        clear();
+        total = newTotal;
+        // 保留的 token 直接使用合并前的缓冲区, 不再复制
+        tokens = new byte[capacity][];
+        for (int i = 0; i < Math.min(m, capacity); i++) {
+            int j = order[i];
+            int c = size++;
+            tokens[c] = newTokens[j];
+            lengths[c] = newLengths[j];
+            hashes[c] = newHashes[j];
+            counts[c] = newCounts[j];
+            errors[c] = newErrors[j];
+            link(c);
+        }
+    }
+
+    /**
+     * Replace this sketch with the serialized sketch in bytes[offset, offset + length), reusing
+     * the counters when the capacity is the same.
+     *
+     * @throws IllegalArgumentException if the bytes are not a serialized sketch
+     */
+    public void read(byte[] bytes, int offset, int length) {
+        int newCapacity = readCapacity(bytes, offset, length);
+        if (newCapacity != capacity) {
+            allocate(newCapacity);
+        } else {
+            clear();
+        }
+        readCounters(bytes, offset, length);
+    }
+
+    public void clear() {
+        Arrays.fill(slots, 0);
+        size = 0;
+        total = 0;
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    /**
+     * @return the sum of all counts offered
+     */
+    public long total() {
+        return total;
+    }
+
+    /**
+     * @return the number of monitored tokens, counters are numbered [0, size)
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return the buffer holding the token of counter c in [0, {@link #length})
+     */
+    public byte[] token(int c) {
+        return tokens[c];
+    }
+
+    public int length(int c) {
+        return lengths[c];
+    }
+
+    public long count(int c) {
+        return counts[c];
+    }
+
+    public long error(int c) {
+        return errors[c];
+    }
+
+    /**
+     * @return the counters of the at most k largest counts, largest first
+     */
+    public int[] top(int k) {
+        Integer[] order = new Integer[size];
+        for (int c = 0; c < size; c++) {
+            order[c] = c;
+        }
+        Arrays.sort(order, (a, b) -> Long.compare(counts[b], counts[a]));
+        int[] top = new int[Math.min(k, size)];
+        for (int i = 0; i < top.length; i++) {
+            top[i] = order[i];
+        }
+        return top;
+    }
+
+    public int serializedSize() {
+        int bytes = HEADER + size * COUNTER_HEADER;
+        for (int c = 0; c < size; c++) {
+            bytes += lengths[c];
+        }
+        return bytes;
+    }
+
+    /**
+     * Write the sketch to out[offset, offset + {@link #serializedSize()}).
+     */
+    public void serialize(byte[] out, int offset) {
+        out[offset] = VERSION;
+        writeInt(out, offset + 1, capacity);
+        writeLong(out, offset + 5, total);
+        writeInt(out, offset + 13, size);
+        int p = offset + HEADER;
+        for (int c = 0; c < size; c++) {
+            writeLong(out, p, counts[c]);
+            writeLong(out, p + 8, errors[c]);
+            writeInt(out, p + 16, lengths[c]);
+            System.arraycopy(tokens[c], 0, out, p + COUNTER_HEADER, lengths[c]);
+            p += COUNTER_HEADER + lengths[c];
+        }
+    }
+
+    /**
+     * @return a rough size of the sketch in bytes, for the memory estimate of an aggregation
+     */
+    public int estimatedSize() {
+        int bytes = capacity * 64;
+        for (int c = 0; c < size; c++) {
+            bytes += tokens[c].length;
+        }
+        return bytes;
+    }
+
+    private void set(int c, byte[] src, int start, int end, int hash, long count, long error) {
+        int length = end - start;
+        if (tokens[c] == null || tokens[c].length < length) {
+            tokens[c] = new byte[Math.max(length, 16)];
+        }
+        System.arraycopy(src, start, tokens[c], 0, length);
+        lengths[c] = length;
+        hashes[c] = hash;
+        counts[c] = count;
+        errors[c] = error;
+    }
+
+    /**
+     * Add a counter for a token that is not monitored yet, the sketch must not be full.
+     */
+    private void append(byte[] src, int start, int end, int hash, long count, long error) {
+        int c = size++;
+        set(c, src, start, end, hash, count, error);
+        link(c);
+    }
+
+    /**
+     * Put the new counter c into the table and the heap.
+     */
+    private void link(int c) {
+        slots[find(tokens[c], 0, lengths[c], hashes[c])] = c + 1;
+        heap[c] = c;
+        heapIndex[c] = c;
+        siftUp(c);
+    }
+
+    private void readCounters(byte[] bytes, int offset, int length) {
+        total = readLong(bytes, offset + 5);
+        int n = readInt(bytes, offset + 13);
+        if (n < 0 || n > capacity) {
+            throw new IllegalArgumentException("Not a serialized SpaceSaving sketch");
+        }
+        int end = offset + length;
+        int p = offset + HEADER;
+        for (int i = 0; i < n; i++) {
+            int tokenLength = p + COUNTER_HEADER <= end ? readInt(bytes, p + 16) : -1;
+            if (tokenLength < 0 || tokenLength > end - p - COUNTER_HEADER) {
+                throw new IllegalArgumentException("Not a serialized SpaceSaving sketch");
+            }
+            int start = p + COUNTER_HEADER;
+            int tokenEnd = start + tokenLength;
+            append(bytes, start, tokenEnd, hash(bytes, start, tokenEnd), readLong(bytes, p), readLong(bytes, p + 8));
+            p = tokenEnd;
+        }
+        if (p != end) {
+            throw new IllegalArgumentException("Not a serialized SpaceSaving sketch");
+        }
+    }
+
+    private static int readCapacity(byte[] bytes, int offset, int length) {
+        if (length < HEADER || bytes[offset] != VERSION) {
+            throw new IllegalArgumentException("Not a serialized SpaceSaving sketch");
+        }
+        int capacity = readInt(bytes, offset + 1);
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Not a serialized SpaceSaving sketch");
+        }
+        return capacity;
+    }
+
+    /**
+     * Linear probing. Returns the slot holding the token, or the empty slot ending its chain.
+     */
+    private int find(byte[] src, int start, int end, int hash) {
+        int slot = mix(hash) & mask;
+        int c;
+        while ((c = slots[slot] - 1) >= 0) {
+            if (hashes[c] == hash && regionEquals(src, start, end, tokens[c], lengths[c])) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    /**
+     * Empty the slot and shift the following entries of the chain back, so lookups never need
+     * tombstones.
+     */
+    private void remove(int slot) {
+        int hole = slot;
+        slots[hole] = 0;
+        for (int i = (hole + 1) & mask; slots[i] != 0; i = (i + 1) & mask) {
+            int home = mix(hashes[slots[i] - 1]) & mask;
+            // home 不在 (hole, i] 之间时, 该项可以移到 hole
+            boolean stays = hole <= i ? hole < home && home <= i : hole < home || home <= i;
+            if (!stays) {
+                slots[hole] = slots[i];
+                slots[i] = 0;
+                hole = i;
+            }
+        }
+    }
+
+    private static boolean regionEquals(byte[] src, int start, int end, byte[] token, int length) {
+        if (end - start != length) {
+            return false;
+        }
+        for (int i = start, j = 0; i < end; i++, j++) {
+            if (src[i] != token[j]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void siftUp(int i) {
+        int c = heap[i];
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (counts[heap[parent]] <= counts[c]) {
+                break;
+            }
+            heap[i] = heap[parent];
+            heapIndex[heap[i]] = i;
+            i = parent;
+        }
+        heap[i] = c;
+        heapIndex[c] = i;
+    }
+
+    private void siftDown(int i) {
+        int c = heap[i];
+        while (true) {
+            int child = 2 * i + 1;
+            if (child >= size) {
+                break;
+            }
+            if (child + 1 < size && counts[heap[child + 1]] < counts[heap[child]]) {
+                child++;
+            }
+            if (counts[c] <= counts[heap[child]]) {
+                break;
+            }
+            heap[i] = heap[child];
+            heapIndex[heap[i]] = i;
+            i = child;
+        }
+        heap[i] = c;
+        heapIndex[c] = i;
+    }
+
+    private void allocate(int capacity) {
+        this.capacity = capacity;
+        tokens = new byte[capacity][];
+        lengths = new int[capacity];
+        hashes = new int[capacity];
+        counts = new long[capacity];
+        errors = new long[capacity];
+        heap = new int[capacity];
+        heapIndex = new int[capacity];
+        // 装载因子不超过 0.5
+        int tableSize = Integer.highestOneBit(capacity) << 2;
+        slots = new int[tableSize];
+        mask = tableSize - 1;
+        size = 0;
+        total = 0;
+    }
+
+    private static int mix(int h) {
+        h ^= h >>> 16;
+        h *= 0x85ebca6b;
+        h ^= h >>> 13;
+        return h;
+    }
+
+    private static int readInt(byte[] bytes, int p) {
+        return (bytes[p] & 0xFF) << 24 | (bytes[p + 1] & 0xFF) << 16 | (bytes[p + 2] & 0xFF) << 8 | bytes[p + 3] & 0xFF;
+    }
+
+    private static long readLong(byte[] bytes, int p) {
+        long v = 0;
+        for (int b = 0; b < 8; b++) {
+            v = v << 8 | (bytes[p + b] & 0xFF);
+        }
+        return v;
+    }
+
+    private static void writeInt(byte[] out, int p, int v) {
+        out[p] = (byte) (v >>> 24);
+        out[p + 1] = (byte) (v >>> 16);
+        out[p + 2] = (byte) (v >>> 8);
+        out[p + 3] = (byte) v;
+    }
+
+    private static void writeLong(byte[] out, int p, long v) {
+        for (int b = 7; b >= 0; b--) {
+            out[p + b] = (byte) v;
+            v >>>= 8;
+        }
+    }
+}
@@ -0,0 +1,245 @@
+package com.gou.hiveudf.core;
+
+/**
+ * @version 1.0
+ * @auther GouMi
+ */
+
+import java.util.Arrays;
+
+/**
+ * Open-addressing table counting the tokens produced by {@link WordTokenizer}.
+ * <p>
+ * A key is a (start, end) range over the source text plus the rolling hash of that range,
+ * two keys are equal when their hashes match and the ranges contain the same chars. Nothing
+ * is copied out of the source, so the source must stay unchanged while the table is in use.
+ * The arrays are cleared through the list of occupied slots and reused by the next row.
+ * <p>
+ * The source is either a CharSequence or UTF-8 bytes. A table built from one form must be
+ * probed with the same form.
+ * <p>
+ * {@link #take} never changes the counts themselves. The occurrences consumed are tracked per
+ * round, and {@link #newRound} forgets them in O(1), so a table built once from a constant
+ * argument can be matched against every row.
+ */
+public final class TokenCountTable {
+    private CharSequence chars;
+    private byte[] bytes;
+    private int mask;
+    private int[] slotHash;
+    private int[] slotStart;
+    private int[] slotEnd;
+    private int[] slotCount;
+    private int[] slotUsed;
+    private int[] slotRound;
+    private int[] occupied;
+    private int size;
+    private int round;
+
+    public TokenCountTable() {
+        allocate(64);
+    }
+
+    /**
+     * Drop all keys and count the tokens of src instead.
+     *
+     * @param src
+     * @param tokenizer tokenizer that just tokenized src
+     */
+    public void build(CharSequence src, WordTokenizer tokenizer) {
+        clear(tokenizer.count());
+        chars = src;
+        for (int i = 0; i < tokenizer.count(); i++) {
+            int start = tokenizer.start(i);
+            int end = tokenizer.end(i);
+            int hash = tokenizer.hash(i);
+            increment(find(src, start, end, hash), start, end, hash);
+        }
+    }
+
+    /**
+     * Drop all keys and count the tokens of the UTF-8 bytes src instead.
+     *
+     * @param src
+     * @param tokenizer tokenizer that just tokenized src
+     */
+    public void build(byte[] src, WordTokenizer tokenizer) {
+        clear(tokenizer.count());
+        bytes = src;
+        for (int i = 0; i < tokenizer.count(); i++) {
+            int start = tokenizer.start(i);
+            int end = tokenizer.end(i);
+            int hash = tokenizer.hash(i);
+            increment(find(src, start, end, hash), start, end, hash);
+        }
+    }
+
+    /**
+     * Make all occurrences available to {@link #take} again.
+     */
+    public void newRound() {
+        if (++round == 0) {
+            // 溢出后重新开始计数, 避免与旧的轮次混淆
+            Arrays.fill(slotRound, 0);
+            round = 1;
+        }
+    }
+
+    /**
+     * Consume one occurrence of the token src[start, end).
+     *
+     * @return true if the token was still available, i.e. it counts as one matched word
+     */
+    public boolean take(CharSequence src, int start, int end, int hash) {
+        return decrement(find(src, start, end, hash));
+    }
+
+    /**
+     * Consume one occurrence of the token in the UTF-8 bytes src[start, end).
+     *
+     * @return true if the token was still available, i.e. it counts as one matched word
+     */
+    public boolean take(byte[] src, int start, int end, int hash) {
+        return decrement(find(src, start, end, hash));
+    }
+
+    /**
+     * @return how many times the token in the UTF-8 bytes src[start, end) was counted, 0 if never
+     */
+    public int count(byte[] src, int start, int end, int hash) {
+        return slotCount[find(src, start, end, hash)];
+    }
+
+    /**
+     * @return the number of distinct tokens
+     */
+    public int size() {
+        return size;
+    }
+
+    /*
+     * The distinct tokens in insertion order, i in [0, size()).
+     */
+
+    public int start(int i) {
+        return slotStart[occupied[i]];
+    }
+
+    public int end(int i) {
+        return slotEnd[occupied[i]];
+    }
+
+    public int hash(int i) {
+        return slotHash[occupied[i]];
+    }
+
+    public int count(int i) {
+        return slotCount[occupied[i]];
+    }
+
+    private void increment(int slot, int start, int end, int hash) {
+        if (slotEnd[slot] == 0) {
+            slotHash[slot] = hash;
+            slotStart[slot] = start;
+            slotEnd[slot] = end;
+            occupied[size++] = slot;
+        }
+        slotCount[slot]++;
+    }
+
+    private boolean decrement(int slot) {
+        if (slotRound[slot] != round) {
+            slotRound[slot] = round;
+            slotUsed[slot] = 0;
+        }
+        if (slotUsed[slot] < slotCount[slot]) {
+            slotUsed[slot]++;
+            return true;
+        }
+        return false;
+    }
+
+    private void clear(int expected) {
+        for (int i = 0; i < size; i++) {
+            int slot = occupied[i];
+            slotEnd[slot] = 0;
+            slotCount[slot] = 0;
+        }
+        size = 0;
+        chars = null;
+        bytes = null;
+        // 保持装载因子不超过 0.5
+        if (expected << 1 > slotCount.length) {
+            allocate(Integer.highestOneBit(expected) << 2);
+        }
+        newRound();
+    }
+
+    /**
+     * Linear probing. Returns the slot holding the key, or the empty slot ending its chain.
+     * A slot is empty when its end is 0, which no token range can have.
+     */
+    private int find(CharSequence src, int start, int end, int hash) {
+        int slot = mix(hash) & mask;
+        while (slotEnd[slot] != 0) {
+            if (slotHash[slot] == hash && regionEquals(src, start, end, slotStart[slot], slotEnd[slot])) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private int find(byte[] src, int start, int end, int hash) {
+        int slot = mix(hash) & mask;
+        while (slotEnd[slot] != 0) {
+            if (slotHash[slot] == hash && regionEquals(src, start, end, slotStart[slot], slotEnd[slot])) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private boolean regionEquals(CharSequence src, int start, int end, int keyStart, int keyEnd) {
+        if (end - start != keyEnd - keyStart) {
+            return false;
+        }
+        for (int i = start, j = keyStart; i < end; i++, j++) {
+            if (src.charAt(i) != chars.charAt(j)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean regionEquals(byte[] src, int start, int end, int keyStart, int keyEnd) {
+        if (end - start != keyEnd - keyStart) {
+            return false;
+        }
+        for (int i = start, j = keyStart; i < end; i++, j++) {
+            if (src[i] != bytes[j]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void allocate(int capacity) {
+        mask = capacity - 1;
+        slotHash = new int[capacity];
+        slotStart = new int[capacity];
+        slotEnd = new int[capacity];
+        slotCount = new int[capacity];
+        slotUsed = new int[capacity];
+        slotRound = new int[capacity];
+        occupied = new int[capacity];
+    }
+
+    private static int mix(int h) {
+        h ^= h >>> 16;
+        h *= 0x85ebca6b;
+        h ^= h >>> 13;
+        return h;
+    }
+}
@@ -0,0 +1,326 @@
+package com.gou.hiveudf.core;
+
+/**
+ * @version 1.0
+ * @auther GouMi
+ */
+
+import java.util.Arrays;
+
+/**
+ * Inverted index from matchNWords tokens to the catalog entries containing them.
+ * <p>
+ * The tokens are interned into one byte arena, the posting lists are stored in compressed
+ * sparse row form: the postings of token t are [postingStart[t], postingStart[t + 1]) in
+ * postingEntry and postingCount. After {@link Builder#build()} the index is immutable and
+ * may be shared by all UDF instances of a JVM; each instance searches through its own
+ * {@link Searcher}.
+ * <p>
+ * The score of an entry is the matchNWords count between the query and the entry, i.e. the
+ * sum of min(query count, entry count) over the common tokens.
+ */
+public final class TokenIndex {
+    private final int entries;
+    private final byte[] arena;
+    private final int[] tokenOffset;
+    private final int[] tokenLength;
+    private final int[] tokenHash;
+    private final int[] dictionary;
+    private final int[] postingStart;
+    private final int[] postingEntry;
+    private final int[] postingCount;
+
+    private TokenIndex(Builder b) {
+        entries = b.entries;
+        arena = Arrays.copyOf(b.arena, b.arenaSize);
+        tokenOffset = Arrays.copyOf(b.tokenOffset, b.tokens);
+        tokenLength = Arrays.copyOf(b.tokenLength, b.tokens);
+        tokenHash = Arrays.copyOf(b.tokenHash, b.tokens);
+        dictionary = b.dictionary;
+
+        // counting sort of the (token, entry, count) triples by token
+        postingStart = new int[b.tokens + 1];
+        for (int i = 0; i < b.postings; i++) {
+            postingStart[b.postingToken[i] + 1]++;
+        }
+        for (int t = 0; t < b.tokens; t++) {
+            postingStart[t + 1] += postingStart[t];
+        }
+        postingEntry = new int[b.postings];
+        postingCount = new int[b.postings];
+        int[] next = Arrays.copyOf(postingStart, b.tokens);
+        for (int i = 0; i < b.postings; i++) {
+            int p = next[b.postingToken[i]]++;
+            postingEntry[p] = b.postingEntry[i];
+            postingCount[p] = b.postingCount[i];
+        }
+    }
+
+    /**
+     * @return the number of catalog entries
+     */
+    public int size() {
+        return entries;
+    }
+
+    public Searcher newSearcher() {
+        return new Searcher();
+    }
+
+    private int find(byte[] src, int start, int end, int hash) {
+        return lookup(dictionary, arena, tokenOffset, tokenLength, tokenHash, src, start, end, hash);
+    }
+
+    private static int lookup(int[] dictionary, byte[] arena, int[] tokenOffset, int[] tokenLength, int[] tokenHash,
+                              byte[] src, int start, int end, int hash) {
+        int mask = dictionary.length - 1;
+        int slot = mix(hash) & mask;
+        int len = end - start;
+        for (int id; (id = dictionary[slot]) >= 0; slot = (slot + 1) & mask) {
+            if (tokenHash[id] == hash && tokenLength[id] == len && regionEquals(arena, tokenOffset[id], src, start, len)) {
+                return id;
+            }
+        }
+        return -1 - slot;
+    }
+
+    private static boolean regionEquals(byte[] a, int aStart, byte[] b, int bStart, int len) {
+        for (int i = 0; i < len; i++) {
+            if (a[aStart + i] != b[bStart + i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int mix(int h) {
+        h ^= h >>> 16;
+        h *= 0x85ebca6b;
+        h ^= h >>> 13;
+        return h;
+    }
+
+    /**
+     * Top-k search state. Not thread safe, all arrays are reused between queries.
+     */
+    public final class Searcher {
+        private final WordTokenizer tokenizer = new WordTokenizer();
+        private final TokenCountTable table = new TokenCountTable();
+        private final int[] scores = new int[entries];
+        private int[] touched = new int[64];
+        private int[] heap = new int[16];
+        private int[] resultScore = new int[16];
+        private int resultSize;
+
+        /**
+         * Find the k entries with the highest score for the UTF-8 query, ties broken by entry order.
+         * Entries with score 0 are never returned.
+         *
+         * @return the number of results, at most k
+         */
+        public int search(byte[] bytes, int offset, int length, int k) {
+            tokenizer.tokenize(bytes, offset, length);
+            table.build(bytes, tokenizer);
+
+            // Step1: accumulate scores over the posting lists of the query tokens
+            int touchedSize = 0;
+            for (int i = 0; i < table.size(); i++) {
+                int id = find(bytes, table.start(i), table.end(i), table.hash(i));
+                if (id < 0) {
+                    continue;
+                }
+                int queryCount = table.count(i);
+                for (int p = postingStart[id]; p < postingStart[id + 1]; p++) {
+                    int entry = postingEntry[p];
+                    if (scores[entry] == 0) {
+                        if (touchedSize == touched.length) {
+                            touched = Arrays.copyOf(touched, touchedSize << 1);
+                        }
+                        touched[touchedSize++] = entry;
+                    }
+                    scores[entry] += Math.min(queryCount, postingCount[p]);
+                }
+            }
+
+            // Step2: keep the best k in a min-heap, the root is the weakest result
+            if (heap.length < k) {
+                heap = new int[k];
+            }
+            resultSize = 0;
+            for (int i = 0; i < touchedSize; i++) {
+                int entry = touched[i];
+                if (resultSize < k) {
+                    heap[resultSize] = entry;
+                    siftUp(resultSize++);
+                } else if (k > 0 && better(entry, heap[0])) {
+                    heap[0] = entry;
+                    siftDown(0, resultSize);
+                }
+            }
+
+            // Step3: heap sort, best result first
+            for (int n = resultSize - 1; n > 0; n--) {
+                int tmp = heap[0];
+                heap[0] = heap[n];
+                heap[n] = tmp;
+                siftDown(0, n);
+            }
+            if (resultScore.length < resultSize) {
+                resultScore = new int[heap.length];
+            }
+            for (int i = 0; i < resultSize; i++) {
+                resultScore[i] = scores[heap[i]];
+            }
+            for (int i = 0; i < touchedSize; i++) {
+                scores[touched[i]] = 0;
+            }
+            return resultSize;
+        }
+
+        /**
+         * @return the entry number of the i-th result, in catalog order starting from 0
+         */
+        public int entry(int i) {
+            return heap[i];
+        }
+
+        /**
+         * @return the score of the i-th result
+         */
+        public int score(int i) {
+            return resultScore[i];
+        }
+
+        private boolean better(int a, int b) {
+            return scores[a] > scores[b] || (scores[a] == scores[b] && a < b);
+        }
+
+        private void siftUp(int i) {
+            int x = heap[i];
+            while (i > 0) {
+                int parent = (i - 1) >>> 1;
+                if (!better(heap[parent], x)) {
+                    break;
+                }
+                heap[i] = heap[parent];
+                i = parent;
+            }
+            heap[i] = x;
+        }
+
+        private void siftDown(int i, int n) {
+            int x = heap[i];
+            while (true) {
+                int child = 2 * i + 1;
+                if (child >= n) {
+                    break;
+                }
+                if (child + 1 < n && better(heap[child], heap[child + 1])) {
+                    child++;
+                }
+                if (!better(x, heap[child])) {
+                    break;
+                }
+                heap[i] = heap[child];
+                i = child;
+            }
+            heap[i] = x;
+        }
+    }
+
+    /**
+     * Collects catalog entries one by one and builds the immutable index.
+     */
+    public static final class Builder {
+        private final WordTokenizer tokenizer = new WordTokenizer();
+        private final TokenCountTable table = new TokenCountTable();
+        private int entries;
+
+        private byte[] arena = new byte[1 << 12];
+        private int arenaSize;
+        private int[] tokenOffset = new int[256];
+        private int[] tokenLength = new int[256];
+        private int[] tokenHash = new int[256];
+        private int tokens;
+        private int[] dictionary = newDictionary(512);
+
+        private int[] postingToken = new int[1024];
+        private int[] postingEntry = new int[1024];
+        private int[] postingCount = new int[1024];
+        private int postings;
+
+        /**
+         * Add the next catalog entry. Entries are numbered from 0 in the order they are added.
+         */
+        public Builder add(byte[] bytes, int offset, int length) {
+            tokenizer.tokenize(bytes, offset, length);
+            table.build(bytes, tokenizer);
+            for (int i = 0; i < table.size(); i++) {
+                int token = intern(bytes, table.start(i), table.end(i), table.hash(i));
+                if (postings == postingToken.length) {
+                    int capacity = postings << 1;
+                    postingToken = Arrays.copyOf(postingToken, capacity);
+                    postingEntry = Arrays.copyOf(postingEntry, capacity);
+                    postingCount = Arrays.copyOf(postingCount, capacity);
+                }
+                postingToken[postings] = token;
+                postingEntry[postings] = entries;
+                postingCount[postings] = table.count(i);
+                postings++;
+            }
+            entries++;
+            return this;
+        }
+
+        public TokenIndex build() {
+            return new TokenIndex(this);
+        }
+
+        private int intern(byte[] src, int start, int end, int hash) {
+            int found = lookup(dictionary, arena, tokenOffset, tokenLength, tokenHash, src, start, end, hash);
+            if (found >= 0) {
+                return found;
+            }
+            int len = end - start;
+            if (arenaSize + len > arena.length) {
+                arena = Arrays.copyOf(arena, Math.max(arena.length << 1, arenaSize + len));
+            }
+            System.arraycopy(src, start, arena, arenaSize, len);
+            if (tokens == tokenOffset.length) {
+                int capacity = tokens << 1;
+                tokenOffset = Arrays.copyOf(tokenOffset, capacity);
+                tokenLength = Arrays.copyOf(tokenLength, capacity);
+                tokenHash = Arrays.copyOf(tokenHash, capacity);
+            }
+            tokenOffset[tokens] = arenaSize;
+            tokenLength[tokens] = len;
+            tokenHash[tokens] = hash;
+            arenaSize += len;
+            dictionary[-1 - found] = tokens;
+            tokens++;
+            // 保持装载因子不超过 0.5
+            if (tokens << 1 > dictionary.length) {
+                rehash();
+            }
+            return tokens - 1;
+        }
+
+        private void rehash() {
+            dictionary = newDictionary(dictionary.length << 1);
+            int mask = dictionary.length - 1;
+            for (int id = 0; id < tokens; id++) {
+                int slot = mix(tokenHash[id]) & mask;
+                while (dictionary[slot] >= 0) {
+                    slot = (slot + 1) & mask;
+                }
+                dictionary[slot] = id;
+            }
+        }
+
+        private static int[] newDictionary(int capacity) {
+            int[] d = new int[capacity];
+            Arrays.fill(d, -1);
+            return d;
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package com.gou.hiveudf.core;
+
+/**
+ * @version 1.0
+ * @auther GouMi
+ */
+
+/**
+ * Jaccard, Dice and cosine similarity over the matchNWords token multisets of two UTF-8 strings.
+ * <p>
+ * With a and b the counts of a token on each side:
+ * <ul>
+ *   <li>jaccard = sum(min(a, b)) / sum(max(a, b))</li>
+ *   <li>dice = 2 * sum(min(a, b)) / (|A| + |B|)</li>
+ *   <li>cosine = sum(a * b) / (sqrt(sum(a * a)) * sqrt(sum(b * b)))</li>
+ * </ul>
+ * sum(min(a, b)) is exactly the matchNWords count. When either side has no word the similarity
+ * is 0. The scratch space is kept between calls, an instance is not thread safe.
+ * <p>
+ * The threshold lets a filter stop early: as soon as the remaining tokens can no longer lift the
+ * score to the threshold, 0 is returned instead of the exact score.
+ * <p>
+ * All three measures are symmetric, so a constant argument can always be the first side: after
+ * {@link #prepare} it is tokenized and counted once and {@link #similarityPrepared} only processes
+ * the other side. Calling {@link #similarity} afterwards discards the prepared side.
+ */
+public final class TokenSimilarity {
+    public enum Measure { JACCARD, DICE, COSINE }
+
+    private final Measure measure;
+    private final WordTokenizer tokenizer = new WordTokenizer();
+    private final TokenCountTable table1 = new TokenCountTable();
+    private final TokenCountTable table2 = new TokenCountTable();
+    private byte[] prepared = new byte[0];
+    // prepared 一侧的单词数, -1 表示 table1 中不是 prepared 的内容
+    private int preparedCount = -1;
+
+    public TokenSimilarity(Measure measure) {
+        this.measure = measure;
+    }
+
+    /**
+     * @param threshold minimum score of interest, 0 to always get the exact score
+     * @return the similarity in [0, 1], or 0 if it is below threshold
+     */
+    public double similarity(byte[] bytes1, int offset1, int length1,
+                             byte[] bytes2, int offset2, int length2, double threshold) {
+        preparedCount = -1;
+        int n1 = tokenizer.tokenize(bytes1, offset1, length1);
+        table1.build(bytes1, tokenizer);
+        return compare(n1, bytes2, offset2, length2, threshold);
+    }
+
+    /**
+     * Tokenize and count one side once, e.g. a constant argument. The bytes are copied, so the
+     * caller may reuse its buffer.
+     */
+    public void prepare(byte[] bytes, int offset, int length) {
+        if (prepared.length < length) {
+            prepared = new byte[length];
+        }
+        System.arraycopy(bytes, offset, prepared, 0, length);
+        preparedCount = tokenizer.tokenize(prepared, 0, length);
+        table1.build(prepared, tokenizer);
+    }
+
+    /**
+     * @return the similarity between the prepared side and the UTF-8 bytes, as {@link #similarity}
+     */
+    public double similarityPrepared(byte[] bytes, int offset, int length, double threshold) {
+        table1.newRound();
+        return compare(preparedCount, bytes, offset, length, threshold);
+    }
+
+    private double compare(int n1, byte[] bytes2, int offset2, int length2, double threshold) {
+        int n2 = tokenizer.tokenize(bytes2, offset2, length2);
+        if (n1 == 0 || n2 == 0) {
+            return 0;
+        }
+        double score = measure == Measure.COSINE ? cosine(bytes2, threshold) : overlap(bytes2, n1, n2, threshold);
+        return score < threshold ? 0 : score;
+    }
+
+    /**
+     * Jaccard and Dice only depend on the matchNWords count, which needs at least `required`
+     * matched words to reach the threshold.
+     */
+    private double overlap(byte[] bytes2, int n1, int n2, double threshold) {
+        double bound = measure == Measure.JACCARD
+                ? threshold * (n1 + n2) / (1 + threshold)
+                : threshold * (n1 + n2) / 2;
+        // 减去一个很小的数, 避免浮点误差把刚好达到阈值的情况排除掉
+        int required = (int) Math.ceil(bound - 1e-9);
+        if (Math.min(n1, n2) < required) {
+            return 0;
+        }
+
+        int matchCnt = 0;
+        for (int i = 0; i < n2; i++) {
+            if (table1.take(bytes2, tokenizer.start(i), tokenizer.end(i), tokenizer.hash(i))) {
+                matchCnt++;
+            } else if (matchCnt + n2 - i - 1 < required) {
+                return 0;
+            }
+        }
+        return measure == Measure.JACCARD
+                ? (double) matchCnt / (n1 + n2 - matchCnt)
+                : 2.0 * matchCnt / (n1 + n2);
+    }
+
+    /**
+     * Each remaining occurrence of a token of str2 adds at most maxCount1 to the dot product,
+     * which bounds the score while the distinct tokens of str2 are walked.
+     */
+    private double cosine(byte[] bytes2, double threshold) {
+        int n2 = tokenizer.count();
+        table2.build(bytes2, tokenizer);
+
+        long norm1 = 0;
+        int maxCount1 = 0;
+        for (int i = 0; i < table1.size(); i++) {
+            int c = table1.count(i);
+            norm1 += (long) c * c;
+            maxCount1 = Math.max(maxCount1, c);
+        }
+        long norm2 = 0;
+        for (int i = 0; i < table2.size(); i++) {
+            int c = table2.count(i);
+            norm2 += (long) c * c;
+        }
+        double norm = Math.sqrt((double) norm1) * Math.sqrt((double) norm2);
+
+        long dot = 0;
+        int remaining = n2;
+        for (int i = 0; i < table2.size(); i++) {
+            int c = table2.count(i);
+            dot += (long) c * table1.count(bytes2, table2.start(i), table2.end(i), table2.hash(i));
+            remaining -= c;
+            if ((dot + (long) remaining * maxCount1) < threshold * norm - 1e-9) {
+                return 0;
+            }
+        }
+        return Math.min(1.0, dot / norm);
+    }
+}
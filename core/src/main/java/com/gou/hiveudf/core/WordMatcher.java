@@ -0,0 +1,279 @@
+package com.gou.hiveudf.core;
+
+/**
+ * @version 1.0
+ * @auther GouMi
+ */
+
+/**
+ * The matchNWords engine shared by the matchNWords UDFs and their vectorized expressions.
+ * <p>
+ * The words of str1 are counted in a {@link TokenCountTable}, then every word of str2 consumes
+ * one occurrence from that table. Summed over all words this is min(count1, count2) per word,
+ * the same result as comparing two word count maps. An instance keeps its scratch space between
+ * calls and is not thread safe; each UDF instance owns one.
+ * <p>
+ * Since min(count1, count2) is symmetric, either argument can be the one held in the table.
+ * After {@link #prepare} the table holds a fixed side and {@link #matchPrepared} reuses it for
+ * every row; calling {@link #match} afterwards discards the prepared side.
+ * <p>
+ * With n &gt; 1 the matched units are n-grams, n consecutive tokens, so "new york" and
+ * "york new" no longer match. In shingle mode the grams are taken within each run of tokens
+ * that are not separated by a space or delimiter, i.e. n consecutive chars of a CJK run,
+ * while separated English words stay single grams. A stream or run shorter than n is one
+ * gram. Grams are keyed by a rolling hash over the 64-bit token hashes and counted in a
+ * {@link GramCountTable}, the counting is min(count1, count2) per gram as for words.
+ */
+public final class WordMatcher {
+    // 滚动哈希的基数, 奇数保证乘法可逆
+    private static final long BASE = 0x100000001B3L;
+
+    private final WordTokenizer tokenizer;
+    private final TokenCountTable table = new TokenCountTable();
+    private final int n;
+    private final boolean shingles;
+    private final long power;
+    // n == 1 时为 null, 直接按单词匹配
+    private final GramCountTable grams;
+    private long[] tokenHashes = new long[16];
+    private long[] keys = new long[16];
+    private byte[] prepared = new byte[0];
+    // -1 表示 table 中不是 prepared 的内容
+    private int preparedLength = -1;
+
+    public WordMatcher() {
+        this(null);
+    }
+
+    /**
+     * @param delimiters chars separating English words in addition to spaces and \t, may be null
+     */
+    public WordMatcher(char[] delimiters) {
+        this(delimiters, 1, false);
+    }
+
+    /**
+     * @param delimiters chars separating English words in addition to spaces and \t, may be null
+     * @param n number of tokens per gram, 1 to match single words
+     * @param shingles take the grams within runs of unseparated tokens instead of over the whole stream
+     */
+    public WordMatcher(char[] delimiters, int n, boolean shingles) {
+        tokenizer = new WordTokenizer(delimiters);
+        this.n = n;
+        this.shingles = shingles;
+        long p = 1;
+        for (int i = 1; i < n; i++) {
+            p *= BASE;
+        }
+        power = p;
+        grams = n > 1 ? new GramCountTable() : null;
+    }
+
+    /**
+     * return the count of match words between str1 and str2
+     *
+     * @param str1
+     * @param str2
+     * @return match words count
+     */
+    public int match(CharSequence str1, CharSequence str2) {
+        // Step1: split and count the words of str1
+        preparedLength = -1;
+        tokenizer.tokenize(str1);
+        if (grams != null) {
+            // 先计算 gram, keys 可能会被扩容
+            int gramCount = gramKeys(str1);
+            grams.build(keys, gramCount);
+            tokenizer.tokenize(str2);
+            return probeGrams(gramKeys(str2));
+        }
+        table.build(str1, tokenizer);
+
+        // Step2: match the words of str2 against them
+        int count = tokenizer.tokenize(str2);
+        int matchCnt = 0;
+        for (int i = 0; i < count; i++) {
+            if (table.take(str2, tokenizer.start(i), tokenizer.end(i), tokenizer.hash(i))) {
+                matchCnt++;
+            }
+        }
+        return matchCnt;
+    }
+
+    /**
+     * return the count of match words between two UTF-8 strings, processing the bytes in place
+     *
+     * @param bytes1 UTF-8 bytes of str1, e.g. Text.getBytes()
+     * @param offset1 start of str1 in bytes1
+     * @param length1 number of bytes of str1
+     * @param bytes2 UTF-8 bytes of str2
+     * @param offset2 start of str2 in bytes2
+     * @param length2 number of bytes of str2
+     * @return match words count
+     */
+    public int match(byte[] bytes1, int offset1, int length1, byte[] bytes2, int offset2, int length2) {
+        preparedLength = -1;
+        tokenizer.tokenize(bytes1, offset1, length1);
+        if (grams != null) {
+            int gramCount = gramKeys(bytes1);
+            grams.build(keys, gramCount);
+        } else {
+            table.build(bytes1, tokenizer);
+        }
+        return probe(bytes2, offset2, length2);
+    }
+
+    /**
+     * Tokenize and count one side once, e.g. a constant argument. The bytes are copied, so the
+     * caller may reuse its buffer. Following calls of {@link #matchPrepared} only tokenize and
+     * probe the other side. Preparing the same bytes again is a no-op.
+     *
+     * @param bytes UTF-8 bytes of the prepared side
+     * @param offset start of the prepared side in bytes
+     * @param length number of bytes of the prepared side
+     */
+    public void prepare(byte[] bytes, int offset, int length) {
+        if (isPrepared(bytes, offset, length)) {
+            return;
+        }
+        if (prepared.length < length) {
+            prepared = new byte[length];
+        }
+        System.arraycopy(bytes, offset, prepared, 0, length);
+        preparedLength = length;
+        tokenizer.tokenize(prepared, 0, length);
+        if (grams != null) {
+            int gramCount = gramKeys(prepared);
+            grams.build(keys, gramCount);
+        } else {
+            table.build(prepared, tokenizer);
+        }
+    }
+
+    /**
+     * return the count of match words between the prepared side and a UTF-8 string
+     *
+     * @param bytes UTF-8 bytes of the other side
+     * @param offset start of the other side in bytes
+     * @param length number of bytes of the other side
+     * @return match words count
+     */
+    public int matchPrepared(byte[] bytes, int offset, int length) {
+        if (grams != null) {
+            grams.newRound();
+        } else {
+            table.newRound();
+        }
+        return probe(bytes, offset, length);
+    }
+
+    private int probe(byte[] bytes, int offset, int length) {
+        int count = tokenizer.tokenize(bytes, offset, length);
+        if (grams != null) {
+            return probeGrams(gramKeys(bytes));
+        }
+        int matchCnt = 0;
+        for (int i = 0; i < count; i++) {
+            if (table.take(bytes, tokenizer.start(i), tokenizer.end(i), tokenizer.hash(i))) {
+                matchCnt++;
+            }
+        }
+        return matchCnt;
+    }
+
+    private int probeGrams(int count) {
+        int matchCnt = 0;
+        for (int i = 0; i < count; i++) {
+            if (grams.take(keys[i])) {
+                matchCnt++;
+            }
+        }
+        return matchCnt;
+    }
+
+    /**
+     * Gram keys of the bytes just tokenized, into keys.
+     *
+     * @return the number of grams
+     */
+    private int gramKeys(byte[] bytes) {
+        int count = ensureCapacity();
+        for (int i = 0; i < count; i++) {
+            tokenHashes[i] = Hash64.hash(bytes, tokenizer.start(i), tokenizer.end(i));
+        }
+        return gramKeys(count);
+    }
+
+    private int gramKeys(CharSequence chars) {
+        int count = ensureCapacity();
+        for (int i = 0; i < count; i++) {
+            long h = 0xCBF29CE484222325L;
+            for (int j = tokenizer.start(i); j < tokenizer.end(i); j++) {
+                h ^= chars.charAt(j);
+                h *= 0x100000001B3L;
+            }
+            tokenHashes[i] = Hash64.mix(h);
+        }
+        return gramKeys(count);
+    }
+
+    private int gramKeys(int count) {
+        if (!shingles) {
+            return window(0, count, 0);
+        }
+        int gramCount = 0;
+        int runStart = 0;
+        for (int i = 1; i <= count; i++) {
+            if (i == count || tokenizer.end(i - 1) != tokenizer.start(i)) {
+                gramCount = window(runStart, i, gramCount);
+                runStart = i;
+            }
+        }
+        return gramCount;
+    }
+
+    /**
+     * Append the keys of the grams of tokens [from, to) at keys[gramCount], rolling the
+     * polynomial hash one token at a time.
+     *
+     * @return the new number of keys
+     */
+    private int window(int from, int to, int gramCount) {
+        if (from == to) {
+            return gramCount;
+        }
+        long h = 0;
+        int first = Math.min(to, from + n);
+        for (int i = from; i < first; i++) {
+            h = h * BASE + tokenHashes[i];
+        }
+        keys[gramCount++] = h;
+        for (int i = first; i < to; i++) {
+            h = (h - tokenHashes[i - n] * power) * BASE + tokenHashes[i];
+            keys[gramCount++] = h;
+        }
+        return gramCount;
+    }
+
+    private int ensureCapacity() {
+        int count = tokenizer.count();
+        if (tokenHashes.length < count) {
+            int capacity = Math.max(count, tokenHashes.length << 1);
+            tokenHashes = new long[capacity];
+            keys = new long[capacity];
+        }
+        return count;
+    }
+
+    private boolean isPrepared(byte[] bytes, int offset, int length) {
+        if (preparedLength != length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (prepared[i] != bytes[offset + i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,219 @@
+package com.gou.hiveudf.core;
+
+/**
+ * @version 1.0
+ * @auther GouMi
+ */
+
+import java.util.Arrays;
+
+/**
+ * Split text into matchNWords tokens without building any String.
+ * 英文以一个单词作为word, 中文以单个字作为word; 空格(全角以及半角)以及\t 作为分隔符.
+ * <p>
+ * The tokens are exposed as (start, end) ranges over the input, together with a hash
+ * rolled over the chars of each range. The range arrays are reused between calls, so
+ * one tokenizer instance allocates only while it grows to the longest input seen.
+ * <p>
+ * Input is either a CharSequence or UTF-8 bytes, e.g. the backing array of a Text. Both
+ * follow the same rules: chars up to U+00FF form English words, every other code point is
+ * a word by itself. The hashes of the two forms differ, so ranges of chars must only be
+ * compared with ranges of chars and ranges of bytes with ranges of bytes.
+ * <p>
+ * Extra delimiters, e.g. punctuation, hyphens and slashes in product titles, are compiled
+ * into a class table indexed by char, so classifying a char is one array read.
+ */
+public final class WordTokenizer {
+    private static final byte SPACE = 0;
+    private static final byte WORD = 1;
+    private static final byte SINGLE = 2;
+
+    private static final byte[] DEFAULT_CLASSES = new byte[Character.MAX_VALUE + 1];
+
+    static {
+        // 英文字符组成单词, 其他字符(中文)单独作为一个word
+        Arrays.fill(DEFAULT_CLASSES, 0, 0x0100, WORD);
+        Arrays.fill(DEFAULT_CLASSES, 0x0100, DEFAULT_CLASSES.length, SINGLE);
+        // 空格(全角以及半角)或者是\t
+        DEFAULT_CLASSES[' '] = SPACE;
+        DEFAULT_CLASSES['\u3000'] = SPACE;
+        DEFAULT_CLASSES['\u0009'] = SPACE;
+    }
+
+    private final byte[] classes;
+    private int[] starts = new int[16];
+    private int[] ends = new int[16];
+    private int[] hashes = new int[16];
+    private int count;
+
+    public WordTokenizer() {
+        classes = DEFAULT_CLASSES;
+    }
+
+    /**
+     * @param delimiters chars separating words in addition to the default spaces and \t
+     */
+    public WordTokenizer(char[] delimiters) {
+        if (delimiters == null || delimiters.length == 0) {
+            classes = DEFAULT_CLASSES;
+        } else {
+            classes = DEFAULT_CLASSES.clone();
+            for (char c : delimiters) {
+                classes[c] = SPACE;
+            }
+        }
+    }
+
+    /**
+     * Tokenize src, replacing the ranges of the previous call.
+     *
+     * @param src
+     * @return the number of tokens
+     */
+    public int tokenize(CharSequence src) {
+        count = 0;
+        int len = src.length();
+        for (int i = 0; i < len; ) {
+            char c = src.charAt(i);
+            byte cls = classes[c];
+            // 如果是分隔符
+            if (cls == SPACE) {
+                i++;
+            }
+            // 如果是英文字符, 一直读到单词结束
+            else if (cls == WORD) {
+                int start = i;
+                int hash = 0;
+                do {
+                    hash = 31 * hash + c;
+                    i++;
+                } while (i < len && classes[c = src.charAt(i)] == WORD);
+                add(start, i, hash);
+            }
+            // 其他情况：中文. 代理对作为一个字处理, 与 UTF-8 的处理保持一致
+            else if (Character.isHighSurrogate(c) && i + 1 < len && Character.isLowSurrogate(src.charAt(i + 1))) {
+                add(i, i + 2, 31 * c + src.charAt(i + 1));
+                i += 2;
+            } else {
+                add(i, i + 1, c);
+                i++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Tokenize the UTF-8 bytes src[offset, offset + length) in place, replacing the ranges of the
+     * previous call. Ranges are indexes into src. Malformed bytes become single byte words.
+     *
+     * @param src
+     * @param offset
+     * @param length
+     * @return the number of tokens
+     */
+    public int tokenize(byte[] src, int offset, int length) {
+        count = 0;
+        length += offset;
+        for (int i = offset; i < length; ) {
+            int n = sequenceLength(src, i, length);
+            byte cls = classOf(src, i, n);
+            // 如果是分隔符
+            if (cls == SPACE) {
+                i += n;
+            }
+            // 如果是英文字符(ASCII 或 U+0080-U+00FF 的两字节编码), 一直读到单词结束
+            else if (cls == WORD) {
+                int start = i;
+                int hash = 0;
+                do {
+                    for (int t = 0; t < n; t++) {
+                        hash = 31 * hash + (src[i++] & 0xFF);
+                    }
+                } while (i < length && classOf(src, i, n = sequenceLength(src, i, length)) == WORD);
+                add(start, i, hash);
+            }
+            // 其他情况：中文, 一个码点作为一个word
+            else {
+                int hash = 0;
+                for (int t = i; t < i + n; t++) {
+                    hash = 31 * hash + (src[t] & 0xFF);
+                }
+                add(i, i + n, hash);
+                i += n;
+            }
+        }
+        return count;
+    }
+
+    public int count() {
+        return count;
+    }
+
+    public int start(int i) {
+        return starts[i];
+    }
+
+    public int end(int i) {
+        return ends[i];
+    }
+
+    public int hash(int i) {
+        return hashes[i];
+    }
+
+    /**
+     * Length of the UTF-8 sequence at src[i], ending before src[length] and cut short at the first byte that is not a
+     * continuation byte. Malformed lead bytes have length 1.
+     */
+    private static int sequenceLength(byte[] src, int i, int length) {
+        int lead = src[i] & 0xFF;
+        int n;
+        if (lead < 0xC0) {
+            return 1;
+        } else if (lead < 0xE0) {
+            n = 2;
+        } else if (lead < 0xF0) {
+            n = 3;
+        } else if (lead < 0xF8) {
+            n = 4;
+        } else {
+            return 1;
+        }
+        n = Math.min(n, length - i);
+        for (int t = 1; t < n; t++) {
+            if ((src[i + t] & 0xC0) != 0x80) {
+                return t;
+            }
+        }
+        return n;
+    }
+
+    /**
+     * Decode the BMP code point src[i, i + n) and look it up in the class table.
+     * Supplementary and truncated sequences are always single words.
+     */
+    private byte classOf(byte[] src, int i, int n) {
+        int lead = src[i] & 0xFF;
+        if (n == 1) {
+            return lead < 0x80 ? classes[lead] : SINGLE;
+        } else if (n == 2 && lead < 0xE0) {
+            return classes[((lead & 0x1F) << 6) | (src[i + 1] & 0x3F)];
+        } else if (n == 3 && lead < 0xF0) {
+            return classes[((lead & 0x0F) << 12) | ((src[i + 1] & 0x3F) << 6) | (src[i + 2] & 0x3F)];
+        }
+        return SINGLE;
+    }
+
+    private void add(int start, int end, int hash) {
+        if (count == starts.length) {
+            int capacity = count << 1;
+            starts = Arrays.copyOf(starts, capacity);
+            ends = Arrays.copyOf(ends, capacity);
+            hashes = Arrays.copyOf(hashes, capacity);
+        }
+        starts[count] = start;
+        ends[count] = end;
+        hashes[count] = hash;
+        count++;
+    }
+}
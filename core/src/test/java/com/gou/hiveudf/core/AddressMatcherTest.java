@@ -0,0 +1,65 @@
+package com.gou.hiveudf.core;
+
+/**
+ * @version 1.0
+ * @auther GouMi
+ */
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * The order of the names and aliases in the alternation of a level: names overlapping at the same
+ * position win in the order of the area map, as before aliases existed, and an alias only matches
+ * where no name does.
+ */
+public class AddressMatcherTest {
+    private static final String AREAS = "广西壮族自治区,广西壮族自治区,广西壮族自治区,450000,P\n"
+            + "广西壮族自治区,南宁市,南宁市,450100,T\n"
+            + "广西壮族自治区,南宁市,青秀区,450103,D\n"
+            + "广西壮族自治区,南宁市,江南区,450105,D\n"
+            + "广西壮族自治区,南宁市,江南西,450197,D\n";
+    private static final String CHENGBEI = "广西壮族自治区,南宁市,城北,450198,D\n";
+    private static final String CHENGBEI_XIN = "广西壮族自治区,南宁市,城北新,450199,D\n";
+
+    @Test
+    public void overlappingNamesKeepTheAreaMapOrder() throws IOException {
+        String address = "广西壮族自治区南宁市城北新村5号";
+        assertEquals("450198", load(AREAS + CHENGBEI + CHENGBEI_XIN).match(address));
+        assertEquals("450199", load(AREAS + CHENGBEI_XIN + CHENGBEI).match(address));
+    }
+
+    @Test
+    public void nameWinsOverAnAliasOfAnotherName() throws IOException {
+        // 江南区 的别名 江南 是 江南西 的前缀
+        assertEquals("450197", load(AREAS).match("广西南宁市江南西街"));
+        assertEquals("450105", load(AREAS).match("广西南宁市江南大道"));
+    }
+
+    @Test
+    public void aliasesMatchWithoutTheSuffix() throws IOException {
+        AddressMatcher matcher = load(AREAS);
+        assertEquals("450103", matcher.match("广西南宁青秀区民族大道"));
+        assertEquals("450103", matcher.match("广西壮族自治区南宁市青秀民族大道"));
+        assertEquals("450100", matcher.match("中国广西南宁"));
+        assertEquals("450000", matcher.match("广西壮族自治区"));
+    }
+
+    @Test
+    public void aliasFileAddsAliases() throws IOException {
+        AddressMatcher matcher = AddressMatcher.load(stream(AREAS), stream("邕城,南宁市\n"));
+        assertEquals("450103", matcher.match("广西邕城青秀区"));
+    }
+
+    private static AddressMatcher load(String areas) throws IOException {
+        return AddressMatcher.load(stream(areas));
+    }
+
+    private static ByteArrayInputStream stream(String text) {
+        return new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8));
+    }
+}
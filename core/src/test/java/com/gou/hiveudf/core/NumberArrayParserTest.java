@@ -0,0 +1,52 @@
+package com.gou.hiveudf.core;
+
+/**
+ * @version 1.0
+ * @auther GouMi
+ */
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Double elements: the forms Double.parseDouble accepts beyond decimal numbers are null elements,
+ * the rare decimal forms it parses for the fast path keep their values.
+ */
+public class NumberArrayParserTest {
+    @Test
+    public void javaLiteralFormsAreNull() {
+        NumberArrayParser parser = parse("[1.5f, 1d, 2.0D, 3F, 0x1p3, -0X10, +0x1.8p1, 1\u000b, 7]");
+        assertEquals(9, parser.size());
+        for (int i = 0; i < 8; i++) {
+            assertTrue("element " + i, parser.isNull(i));
+        }
+        assertFalse(parser.isNull(8));
+        assertEquals(7.0, parser.getDouble(8), 0);
+    }
+
+    @Test
+    public void slowDecimalFormsAreParsed() {
+        NumberArrayParser parser = parse("[0.12345678901234567, 1e300, -2.5E-30, NaN, -Infinity, 0.5]");
+        assertEquals(6, parser.size());
+        assertEquals(0.12345678901234567, parser.getDouble(0), 0);
+        assertEquals(1e300, parser.getDouble(1), 0);
+        assertEquals(-2.5E-30, parser.getDouble(2), 0);
+        assertTrue(Double.isNaN(parser.getDouble(3)));
+        assertEquals(Double.NEGATIVE_INFINITY, parser.getDouble(4), 0);
+        assertEquals(0.5, parser.getDouble(5), 0);
+        for (int i = 0; i < 6; i++) {
+            assertFalse("element " + i, parser.isNull(i));
+        }
+    }
+
+    private static NumberArrayParser parse(String array) {
+        NumberArrayParser parser = new NumberArrayParser(NumberArrayParser.ElementType.DOUBLE);
+        byte[] bytes = array.getBytes(StandardCharsets.UTF_8);
+        parser.parse(bytes, 0, bytes.length);
+        return parser;
+    }
+}
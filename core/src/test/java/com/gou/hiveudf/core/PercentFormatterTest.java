@@ -0,0 +1,59 @@
+package com.gou.hiveudf.core;
+
+/**
+ * @version 1.0
+ * @auther GouMi
+ */
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Percentages against BigDecimal, around the quotients where the long arithmetic would overflow.
+ */
+public class PercentFormatterTest {
+    private static final long LIMIT = Long.MAX_VALUE / 100;
+
+    @Test
+    public void quotientAtLimit() {
+        assertPercent(2 * LIMIT, 2);
+        assertPercent(2 * LIMIT + 1, 2);
+        assertPercent(-2 * LIMIT - 1, 2);
+        assertPercent(LIMIT, 1);
+        assertPercent(LIMIT + 1, 1);
+        assertPercent(Long.MAX_VALUE, 1);
+        assertPercent(Long.MAX_VALUE, -3);
+    }
+
+    @Test
+    public void quotientBelowLimit() {
+        assertPercent(LIMIT - 1, 1);
+        assertPercent(2 * LIMIT - 1, 2);
+        assertPercent(-(2 * LIMIT - 1), 2);
+        assertPercent(3 * LIMIT - 1, 3);
+    }
+
+    @Test
+    public void smallRatios() {
+        assertPercent(3, 5);
+        assertPercent(-1, 3);
+        assertPercent(1, 40);
+        assertPercent(3, 40);
+        assertPercent(0, -7);
+        assertPercent(Long.MIN_VALUE, Long.MIN_VALUE);
+        assertEquals(-1, new PercentFormatter().percent(1, 0));
+    }
+
+    private static void assertPercent(long numerator, long denominator) {
+        String expected = BigDecimal.valueOf(numerator).multiply(BigDecimal.valueOf(100))
+                .divide(BigDecimal.valueOf(denominator), 0, RoundingMode.HALF_EVEN).toPlainString() + "%";
+        PercentFormatter formatter = new PercentFormatter();
+        int length = formatter.percent(numerator, denominator);
+        assertEquals(numerator + " / " + denominator, expected,
+                new String(formatter.bytes(), 0, length, StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,73 @@
+package com.gou.hiveudf;
+
+/**
+ * @version 1.0
+ * @auther GouMi
+ */
+
+import com.gou.hiveudf.core.BloomFilter;
+
+import org.apache.hadoop.hive.serde2.objectinspector.ObjectInspector;
+
+/**
+ * Reads the key argument of bloom_build and bloom_contains and hashes it for {@link BloomFilter}:
+ * strings, chars and varchars over their UTF-8 bytes in place, tinyint to bigint as a long, so
+ * 1 as an int and 1 as a bigint are the same key. An instance belongs to one argument of one UDF
+ * instance and is not thread safe.
+ */
+final class BloomKeyReader {
+    private final StringAccessor string;
+    private final NumberAccessor number;
+    private long hash;
+
+    private BloomKeyReader(StringAccessor string, NumberAccessor number) {
+        this.string = string;
+        this.number = number;
+    }
+
+    /**
+     * @return the reader for the argument, null if it is neither a string nor an integer type
+     */
+    static BloomKeyReader of(ObjectInspector argument) {
+        StringAccessor string = StringAccessor.of(argument);
+        if (string != null) {
+            return new BloomKeyReader(string, null);
+        }
+        NumberAccessor number = NumberAccessor.of(argument);
+        if (number != null && number.isIntegral()) {
+            return new BloomKeyReader(null, number);
+        }
+        return null;
+    }
+
+    /**
+     * Read and hash the value of a row.
+     *
+     * @return false if the value is null
+     */
+    boolean read(Object o) {
+        if (string != null) {
+            if (!string.read(o)) {
+                return false;
+            }
+            hash = BloomFilter.hash(string.bytes(), string.start(), string.start() + string.length());
+            return true;
+        }
+        if (o == null) {
+            return false;
+        }
+        hash = BloomFilter.hash(number.getLong(o));
+        return true;
+    }
+
+    /**
+     * @return the size of the value read, for the metrics
+     */
+    int size() {
+        return string != null ? string.length() : 8;
+    }
+
+    long hash() {
+        return hash;
+    }
+}
@@ -0,0 +1,69 @@
+package com.gou.hiveudf;
+
+/**
+ * @version 1.0
+ * @auther GouMi
+ */
+
+import org.apache.hadoop.hive.ql.exec.MapredContext;
+import org.apache.hadoop.hive.ql.metadata.HiveException;
+import org.apache.hadoop.hive.ql.udf.generic.GenericUDF;
+import org.apache.hadoop.hive.serde2.objectinspector.ObjectInspector;
+
+import java.io.IOException;
+
+/**
+ * {@link UDFMetrics} of the legacy UDF subclasses, which GenericUDFBridge neither configures nor
+ * closes. They call {@link #create} on their first evaluate, in the task thread, where
+ * MapredContext.get() returns the context of the task; outside a task, e.g. in a local fetch
+ * task, the metrics are disabled. The enabled metrics are closed with the context at the end of
+ * the task, as the metrics of an {@link InstrumentedGenericUDF} are.
+ */
+final class BridgedUDFMetrics {
+    private BridgedUDFMetrics() {
+    }
+
+    static UDFMetrics create(String name) {
+        MapredContext context = MapredContext.get();
+        if (context == null) {
+            return UDFMetrics.DISABLED;
+        }
+        UDFMetrics metrics = UDFMetrics.create(name, context);
+        if (metrics.isEnabled()) {
+            // MapredContext 只关闭 GenericUDF 和 GenericUDAFEvaluator
+            context.setup(new Closer(metrics));
+        }
+        return metrics;
+    }
+
+    /**
+     * Registered with the MapredContext only to close the metrics, never initialized or evaluated.
+     */
+    private static final class Closer extends GenericUDF {
+        private final UDFMetrics metrics;
+
+        Closer(UDFMetrics metrics) {
+            this.metrics = metrics;
+        }
+
+        @Override
+        public ObjectInspector initialize(ObjectInspector[] arguments) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Object evaluate(DeferredObject[] arguments) throws HiveException {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public String getDisplayString(String[] children) {
+            return "close metrics";
+        }
+
+        @Override
+        public void close() throws IOException {
+            metrics.close();
+        }
+    }
+}
@@ -0,0 +1,160 @@
+package com.gou.hiveudf;
+
+/**
+ * @version 1.0
+ * @auther GouMi
+ */
+import com.gou.hiveudf.core.BloomFilter;
+
+import org.apache.hadoop.hive.ql.exec.Description;
+import org.apache.hadoop.hive.ql.exec.UDFArgumentException;
+import org.apache.hadoop.hive.ql.exec.UDFArgumentLengthException;
+import org.apache.hadoop.hive.ql.exec.UDFArgumentTypeException;
+import org.apache.hadoop.hive.ql.metadata.HiveException;
+import org.apache.hadoop.hive.ql.parse.SemanticException;
+import org.apache.hadoop.hive.ql.udf.generic.AbstractGenericUDAFResolver;
+import org.apache.hadoop.hive.ql.udf.generic.GenericUDAFEvaluator;
+import org.apache.hadoop.hive.ql.udf.generic.GenericUDAFParameterInfo;
+import org.apache.hadoop.hive.serde2.objectinspector.ObjectInspector;
+import org.apache.hadoop.hive.serde2.objectinspector.primitive.BinaryObjectInspector;
+import org.apache.hadoop.hive.serde2.objectinspector.primitive.PrimitiveObjectInspectorFactory;
+import org.apache.hadoop.io.BytesWritable;
+
+@Description(name = "bloom_build",
+        value = "FUNC(key, expectedN, fpp) - Returns a serialized bloom filter of the keys, sized for expectedN "
+                + "keys at a false positive probability of fpp",
+        extended = "key is a string, char, varchar or integer type, expectedN and fpp are constants. Null keys are "
+                + "skipped, a group without any key gives null. The binary result is probed with bloom_contains, "
+                + "e.g. to drop the rows of a large table that cannot join before the shuffle:\n"
+                + "  > SELECT f.* FROM fact f CROSS JOIN (SELECT FUNC(k, 100000, 0.01) bf FROM keys) b\n"
+                + "    WHERE bloom_contains(b.bf, f.k);")
+public class GenericUDAFBloomBuild extends AbstractGenericUDAFResolver {
+
+    @Override
+    public GenericUDAFEvaluator getEvaluator(GenericUDAFParameterInfo info) throws SemanticException {
+        ObjectInspector[] parameters = info.getParameterObjectInspectors();
+        if (parameters.length != 3) {
+            throw new UDFArgumentLengthException("The function bloom_build(key, expectedN, fpp) takes exactly 3 arguments.");
+        }
+        if (BloomKeyReader.of(parameters[0]) == null) {
+            throw new UDFArgumentTypeException(0, "The first argument of function bloom_build must be a string "
+                    + "or an integer, but " + parameters[0].getTypeName() + " was given.");
+        }
+        UDFArgumentUtils.getConstantInt(parameters[1], 1, "bloom_build", "expectedN");
+        checkFpp(UDFArgumentUtils.getConstantDouble(parameters[2], 2, "bloom_build", "fpp"));
+        return new BloomBuildEvaluator();
+    }
+
+    private static double checkFpp(double fpp) throws UDFArgumentException {
+        if (!(fpp > 0 && fpp < 1)) {
+            throw new UDFArgumentException("fpp of function bloom_build must be between 0 and 1, but "
+                    + fpp + " was given.");
+        }
+        return fpp;
+    }
+
+    /**
+     * Iterates the keys into a {@link BloomFilter}; partial results are the serialized filters, merged
+     * by OR-ing their words in place.
+     */
+    public static class BloomBuildEvaluator extends GenericUDAFEvaluator {
+        // PARTIAL1 和 COMPLETE 读取原始参数, PARTIAL2 和 FINAL 读取序列化的部分结果
+        private transient BloomKeyReader key;
+        private transient int expectedN;
+        private transient double fpp;
+        private transient BinaryObjectInspector partialOI;
+        // terminate 与 terminatePartial 共用; group by 立即序列化结果, 窗口函数先复制再保留
+        private transient BytesWritable result;
+
+        @AggregationType(estimable = true)
+        static class BloomBuffer extends AbstractAggregationBuffer {
+            BloomFilter filter;
+            // 清空后复用 filter 的空间, empty 表示还没有加入任何 key
+            boolean empty = true;
+
+            @Override
+            public int estimate() {
+                return filter == null ? 0 : filter.serializedSize();
+            }
+        }
+
+        @Override
+        public ObjectInspector init(Mode m, ObjectInspector[] parameters) throws HiveException {
+            super.init(m, parameters);
+            if (m == Mode.PARTIAL1 || m == Mode.COMPLETE) {
+                key = BloomKeyReader.of(parameters[0]);
+                expectedN = UDFArgumentUtils.getConstantInt(parameters[1], 1, "bloom_build", "expectedN");
+                fpp = checkFpp(UDFArgumentUtils.getConstantDouble(parameters[2], 2, "bloom_build", "fpp"));
+            } else {
+                partialOI = (BinaryObjectInspector) parameters[0];
+            }
+            result = new BytesWritable();
+            return PrimitiveObjectInspectorFactory.writableBinaryObjectInspector;
+        }
+
+        @Override
+        public AggregationBuffer getNewAggregationBuffer() throws HiveException {
+            return new BloomBuffer();
+        }
+
+        @Override
+        public void reset(AggregationBuffer agg) throws HiveException {
+            BloomBuffer buffer = (BloomBuffer) agg;
+            if (!buffer.empty) {
+                buffer.filter.clear();
+                buffer.empty = true;
+            }
+        }
+
+        @Override
+        public void iterate(AggregationBuffer agg, Object[] parameters) throws HiveException {
+            if (!key.read(parameters[0])) {
+                return;
+            }
+            BloomBuffer buffer = (BloomBuffer) agg;
+            if (buffer.filter == null) {
+                buffer.filter = BloomFilter.create(expectedN, fpp);
+            }
+            buffer.filter.add(key.hash());
+            buffer.empty = false;
+        }
+
+        @Override
+        public Object terminatePartial(AggregationBuffer agg) throws HiveException {
+            return terminate(agg);
+        }
+
+        @Override
+        public void merge(AggregationBuffer agg, Object partial) throws HiveException {
+            if (partial == null) {
+                return;
+            }
+            BytesWritable bytes = partialOI.getPrimitiveWritableObject(partial);
+            BloomBuffer buffer = (BloomBuffer) agg;
+            try {
+                if (buffer.filter == null) {
+                    buffer.filter = BloomFilter.deserialize(bytes.getBytes(), 0, bytes.getLength());
+                } else if (buffer.empty) {
+                    buffer.filter.read(bytes.getBytes(), 0, bytes.getLength());
+                } else {
+                    buffer.filter.merge(bytes.getBytes(), 0, bytes.getLength());
+                }
+            } catch (IllegalArgumentException e) {
+                throw new HiveException(e.getMessage(), e);
+            }
+            buffer.empty = false;
+        }
+
+        @Override
+        public Object terminate(AggregationBuffer agg) throws HiveException {
+            BloomBuffer buffer = (BloomBuffer) agg;
+            if (buffer.empty) {
+                return null;
+            }
+            int size = buffer.filter.serializedSize();
+            result.setSize(size);
+            buffer.filter.serialize(result.getBytes(), 0);
+            return result;
+        }
+    }
+}
@@ -0,0 +1,222 @@
+package com.gou.hiveudf;
+
+/**
+ * @version 1.0
+ * @auther GouMi
+ */
+import com.gou.hiveudf.core.SpaceSaving;
+import com.gou.hiveudf.core.WordTokenizer;
+
+import org.apache.hadoop.hive.ql.exec.Description;
+import org.apache.hadoop.hive.ql.exec.UDFArgumentException;
+import org.apache.hadoop.hive.ql.exec.UDFArgumentLengthException;
+import org.apache.hadoop.hive.ql.exec.UDFArgumentTypeException;
+import org.apache.hadoop.hive.ql.metadata.HiveException;
+import org.apache.hadoop.hive.ql.parse.SemanticException;
+import org.apache.hadoop.hive.ql.udf.generic.AbstractGenericUDAFResolver;
+import org.apache.hadoop.hive.ql.udf.generic.GenericUDAFEvaluator;
+import org.apache.hadoop.hive.ql.udf.generic.GenericUDAFParameterInfo;
+import org.apache.hadoop.hive.serde2.objectinspector.ObjectInspector;
+import org.apache.hadoop.hive.serde2.objectinspector.ObjectInspectorFactory;
+import org.apache.hadoop.hive.serde2.objectinspector.primitive.BinaryObjectInspector;
+import org.apache.hadoop.hive.serde2.objectinspector.primitive.PrimitiveObjectInspectorFactory;
+import org.apache.hadoop.io.BytesWritable;
+import org.apache.hadoop.io.LongWritable;
+import org.apache.hadoop.io.Text;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+@Description(name = "top_tokens",
+        value = "FUNC(text, k[, capacity]) - Returns the k most frequent words of the texts with their counts, "
+                + "as array<struct<token:string,count:bigint,error:bigint>>",
+        extended = "The words are split the same way as matchNWords: an English word or a single Chinese "
+                + "character. Counting uses a SpaceSaving sketch of capacity counters (default 10 * k, at "
+                + "least k), so the true count of a token is between count - error and count, errors are at "
+                + "most the number of words over capacity, and every word occurring more often than that is "
+                + "counted. Null texts are skipped, a group without any word gives an empty array.\n"
+                + "Example:\n  > SELECT category, FUNC(title, 10) FROM products GROUP BY category;")
+public class GenericUDAFTopTokens extends AbstractGenericUDAFResolver {
+    private static final int CAPACITY_PER_TOKEN = 10;
+    private static final int MAX_CAPACITY = 1 << 20;
+
+    @Override
+    public GenericUDAFEvaluator getEvaluator(GenericUDAFParameterInfo info) throws SemanticException {
+        ObjectInspector[] parameters = info.getParameterObjectInspectors();
+        if (parameters.length != 2 && parameters.length != 3) {
+            throw new UDFArgumentLengthException("The function top_tokens(text, k[, capacity]) takes 2 or 3 arguments.");
+        }
+        if (StringAccessor.of(parameters[0]) == null) {
+            throw new UDFArgumentTypeException(0, "The first argument of function top_tokens must be a string, but "
+                    + parameters[0].getTypeName() + " was given.");
+        }
+        capacity(parameters);
+        return new TopTokensEvaluator();
+    }
+
+    /**
+     * @return the number of counters given by the constant arguments k and capacity
+     */
+    private static int capacity(ObjectInspector[] parameters) throws UDFArgumentException {
+        int k = UDFArgumentUtils.getConstantInt(parameters[1], 1, "top_tokens", "k");
+        if (parameters.length < 3) {
+            return (int) Math.min(MAX_CAPACITY, Math.max(k, (long) k * CAPACITY_PER_TOKEN));
+        }
+        int capacity = UDFArgumentUtils.getConstantInt(parameters[2], 2, "top_tokens", "capacity");
+        if (capacity < k || capacity > MAX_CAPACITY) {
+            throw new UDFArgumentException("capacity of function top_tokens must be between k and "
+                    + MAX_CAPACITY + ", but " + capacity + " was given.");
+        }
+        return capacity;
+    }
+
+    /**
+     * Offers the words of every text to a {@link SpaceSaving} sketch. Partial results are k as a
+     * big-endian int followed by the serialized sketch, as PARTIAL2 and FINAL only see the partial
+     * results and not the constant arguments.
+     */
+    public static class TopTokensEvaluator extends GenericUDAFEvaluator {
+        // PARTIAL1 和 COMPLETE 读取原始参数, PARTIAL2 和 FINAL 读取序列化的部分结果
+        private transient StringAccessor text;
+        private transient WordTokenizer tokenizer;
+        private transient int k;
+        private transient int capacity;
+        private transient BinaryObjectInspector partialOI;
+        // merge 时读取部分结果的 sketch, 在各行之间复用
+        private transient SpaceSaving scratch;
+        private transient BytesWritable partial;
+        // 与 GenericUDF 相同, 结果在各组之间复用
+        private transient ArrayList<Object[]> result;
+
+        @AggregationType(estimable = true)
+        static class TopTokensBuffer extends AbstractAggregationBuffer {
+            SpaceSaving sketch;
+
+            @Override
+            public int estimate() {
+                return sketch == null ? 0 : sketch.estimatedSize();
+            }
+        }
+
+        @Override
+        public ObjectInspector init(Mode m, ObjectInspector[] parameters) throws HiveException {
+            super.init(m, parameters);
+            if (m == Mode.PARTIAL1 || m == Mode.COMPLETE) {
+                text = StringAccessor.of(parameters[0]);
+                tokenizer = new WordTokenizer();
+                k = UDFArgumentUtils.getConstantInt(parameters[1], 1, "top_tokens", "k");
+                capacity = capacity(parameters);
+            } else {
+                partialOI = (BinaryObjectInspector) parameters[0];
+                scratch = new SpaceSaving(1);
+            }
+            if (m == Mode.PARTIAL1 || m == Mode.PARTIAL2) {
+                partial = new BytesWritable();
+                return PrimitiveObjectInspectorFactory.writableBinaryObjectInspector;
+            }
+            result = new ArrayList<>();
+            return ObjectInspectorFactory.getStandardListObjectInspector(
+                    ObjectInspectorFactory.getStandardStructObjectInspector(
+                            Arrays.asList("token", "count", "error"),
+                            Arrays.asList(
+                                    PrimitiveObjectInspectorFactory.writableStringObjectInspector,
+                                    PrimitiveObjectInspectorFactory.writableLongObjectInspector,
+                                    PrimitiveObjectInspectorFactory.writableLongObjectInspector)));
+        }
+
+        @Override
+        public AggregationBuffer getNewAggregationBuffer() throws HiveException {
+            return new TopTokensBuffer();
+        }
+
+        @Override
+        public void reset(AggregationBuffer agg) throws HiveException {
+            TopTokensBuffer buffer = (TopTokensBuffer) agg;
+            if (buffer.sketch != null) {
+                buffer.sketch.clear();
+            }
+        }
+
+        @Override
+        public void iterate(AggregationBuffer agg, Object[] parameters) throws HiveException {
+            if (!text.read(parameters[0])) {
+                return;
+            }
+            byte[] bytes = text.bytes();
+            int n = tokenizer.tokenize(bytes, text.start(), text.length());
+            if (n == 0) {
+                return;
+            }
+            TopTokensBuffer buffer = (TopTokensBuffer) agg;
+            if (buffer.sketch == null) {
+                buffer.sketch = new SpaceSaving(capacity);
+            }
+            for (int i = 0; i < n; i++) {
+                buffer.sketch.offer(bytes, tokenizer.start(i), tokenizer.end(i), tokenizer.hash(i), 1);
+            }
+        }
+
+        @Override
+        public Object terminatePartial(AggregationBuffer agg) throws HiveException {
+            TopTokensBuffer buffer = (TopTokensBuffer) agg;
+            if (buffer.sketch == null) {
+                return null;
+            }
+            int size = buffer.sketch.serializedSize();
+            partial.setSize(4 + size);
+            byte[] out = partial.getBytes();
+            out[0] = (byte) (k >>> 24);
+            out[1] = (byte) (k >>> 16);
+            out[2] = (byte) (k >>> 8);
+            out[3] = (byte) k;
+            buffer.sketch.serialize(out, 4);
+            return partial;
+        }
+
+        @Override
+        public void merge(AggregationBuffer agg, Object partialResult) throws HiveException {
+            if (partialResult == null) {
+                return;
+            }
+            BytesWritable bytes = partialOI.getPrimitiveWritableObject(partialResult);
+            byte[] in = bytes.getBytes();
+            if (bytes.getLength() < 4) {
+                throw new HiveException("Not a partial result of top_tokens");
+            }
+            k = (in[0] & 0xFF) << 24 | (in[1] & 0xFF) << 16 | (in[2] & 0xFF) << 8 | in[3] & 0xFF;
+            TopTokensBuffer buffer = (TopTokensBuffer) agg;
+            try {
+                if (buffer.sketch == null) {
+                    buffer.sketch = SpaceSaving.deserialize(in, 4, bytes.getLength() - 4);
+                } else {
+                    scratch.read(in, 4, bytes.getLength() - 4);
+                    buffer.sketch.merge(scratch);
+                }
+            } catch (IllegalArgumentException e) {
+                throw new HiveException(e.getMessage(), e);
+            }
+        }
+
+        @Override
+        public Object terminate(AggregationBuffer agg) throws HiveException {
+            TopTokensBuffer buffer = (TopTokensBuffer) agg;
+            SpaceSaving sketch = buffer.sketch;
+            int[] top = sketch == null ? new int[0] : sketch.top(k);
+            // 复用 struct 以及其中的 writable, 只在结果变多时分配
+            while (result.size() < top.length) {
+                result.add(new Object[]{new Text(), new LongWritable(), new LongWritable()});
+            }
+            while (result.size() > top.length) {
+                result.remove(result.size() - 1);
+            }
+            for (int i = 0; i < top.length; i++) {
+                Object[] struct = result.get(i);
+                int c = top[i];
+                ((Text) struct[0]).set(sketch.token(c), 0, sketch.length(c));
+                ((LongWritable) struct[1]).set(sketch.count(c));
+                ((LongWritable) struct[2]).set(sketch.error(c));
+            }
+            return result;
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.gou.hiveudf;
+
+/**
+ * @version 1.0
+ * @auther GouMi
+ */
+import com.gou.hiveudf.core.DistinctIndex;
+
+import org.apache.hadoop.hive.ql.exec.Description;
+import org.apache.hadoop.hive.ql.exec.UDFArgumentException;
+import org.apache.hadoop.hive.ql.exec.UDFArgumentLengthException;
+import org.apache.hadoop.hive.ql.metadata.HiveException;
+import org.apache.hadoop.hive.serde2.objectinspector.ListObjectInspector;
+import org.apache.hadoop.hive.serde2.objectinspector.ObjectInspector;
+import org.apache.hadoop.hive.serde2.objectinspector.ObjectInspectorFactory;
+import org.apache.hadoop.hive.serde2.objectinspector.ObjectInspectorUtils;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+@Description(name = "array_distinct",
+        value = "FUNC(n0) - Creates an distinct of array with the given arrays ")
+public class GenericUDFArrayDistinct extends InstrumentedGenericUDF implements Serializable {
+    private transient ListObjectInspector inputOI;
+    private transient ObjectInspector elementOI;
+    // 去重在 core 的 DistinctIndex 中按哈希进行, 元素及其哈希放在复用的数组中
+    private transient DistinctIndex distinctIndex;
+    private transient DistinctIndex.Equality equality;
+    private transient Object[] elements;
+    private transient int[] hashes;
+    // 每行复用, 元素是参数数组中的对象
+    private transient ArrayList<Object> result;
+
+    @Override
+    public ObjectInspector initialize(ObjectInspector[] arguments) throws UDFArgumentException {
+        // Check if at least two arguments were passed
+        if (arguments.length != 1 || arguments[0].getCategory()!= ObjectInspector.Category.LIST) {
+            throw new UDFArgumentLengthException(
+                    "The function array_distinct(array) takes only 1 argument. And it should be list type");
+        }
+        inputOI = (ListObjectInspector) arguments[0];
+        elementOI = inputOI.getListElementObjectInspector();
+        distinctIndex = new DistinctIndex();
+        equality = (i, j) -> ObjectInspectorUtils.compare(elements[i], elementOI, elements[j], elementOI) == 0;
+        elements = new Object[16];
+        hashes = new int[16];
+        result = new ArrayList<>();
+        return foldConstants(arguments, ObjectInspectorFactory.getStandardListObjectInspector(elementOI));
+    }
+
+    @Override
+    protected Object evaluateRow(DeferredObject[] arguments) throws HiveException {
+        Object array = arguments[0].get();
+        if (array == null) {
+            metrics.nullInput();
+            return null;
+        }
+        int length = inputOI.getListLength(array);
+        metrics.inputSize(length);
+        if (elements.length < length) {
+            int capacity = Math.max(length, elements.length << 1);
+            elements = new Object[capacity];
+            hashes = new int[capacity];
+        }
+        for (int i = 0; i < length; i++) {
+            Object element = inputOI.getListElement(array, i);
+            elements[i] = element;
+            hashes[i] = ObjectInspectorUtils.hashCode(element, elementOI);
+        }
+        int count = distinctIndex.distinct(hashes, length, equality);
+        result.clear();
+        for (int i = 0; i < count; i++) {
+            result.add(elements[distinctIndex.index(i)]);
+        }
+        // 不保留上一行的元素
+        Arrays.fill(elements, 0, length, null);
+        return result;
+    }
+
+    @Override
+    public String getDisplayString(String[] args) {
+        return getStandardDisplayString("array_distinct", args);
+    }
+}
\ No newline at end of file
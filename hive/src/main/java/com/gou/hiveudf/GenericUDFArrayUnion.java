@@ -0,0 +1,156 @@
+package com.gou.hiveudf;
+
+/**
+ * @version 1.0
+ * @auther GouMi
+ */
+import org.apache.hadoop.hive.ql.exec.Description;
+import org.apache.hadoop.hive.ql.exec.UDFArgumentException;
+import org.apache.hadoop.hive.ql.exec.UDFArgumentLengthException;
+import org.apache.hadoop.hive.ql.exec.UDFArgumentTypeException;
+import org.apache.hadoop.hive.ql.metadata.HiveException;
+import org.apache.hadoop.hive.serde2.objectinspector.ConstantObjectInspector;
+import org.apache.hadoop.hive.serde2.objectinspector.ListObjectInspector;
+import org.apache.hadoop.hive.serde2.objectinspector.ObjectInspector;
+import org.apache.hadoop.hive.serde2.objectinspector.ObjectInspectorFactory;
+import org.apache.hadoop.hive.serde2.objectinspector.ObjectInspectorUtils;
+import org.apache.hadoop.hive.serde2.objectinspector.PrimitiveObjectInspector;
+import org.apache.hadoop.hive.serde2.objectinspector.primitive.AbstractPrimitiveWritableObjectInspector;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+
+@Description(name = "array_union",
+        value = "FUNC(n0, n1...) - Creates an union of array with the given arrays ")
+public class GenericUDFArrayUnion extends InstrumentedGenericUDF implements Serializable {
+    private transient ListObjectInspector[] inputOI;
+    // 元素需要复制成标准 writable 对象的参数
+    private transient boolean[] copyElements;
+    // 常量数组的元素, 非常量参数为 null
+    private transient Object[][] constantElements;
+
+    // 每行复用, 元素可能是参数中的对象, 与参数一样只在本行有效
+    private transient ArrayList<Object> result;
+
+    @Override
+    public ObjectInspector initialize(ObjectInspector[] arguments) throws UDFArgumentException {
+        // Check if at least two arguments were passed
+        if (arguments.length < 2 || arguments[0] == null) {
+            throw new UDFArgumentLengthException(
+                    "The function array_union(array, array...) takes at least 2 arguments. And the first array cannot be null");
+        }
+
+        inputOI = new ListObjectInspector[arguments.length];
+
+        ObjectInspector baseListElementOI = ((ListObjectInspector) arguments[0]).getListElementObjectInspector();
+
+        for (int i = 0; i < arguments.length; i++) {
+            if (arguments[i] == null) {
+                continue;
+            }
+
+            // Check if two argument is of category LIST
+            if (!arguments[i].getCategory().equals(ObjectInspector.Category.LIST)) {
+                throw new UDFArgumentTypeException(i,
+                        "\"" + org.apache.hadoop.hive.serde.serdeConstants.LIST_TYPE_NAME + "\" "
+                                + "expected at function array_union, but "
+                                + "\"" + arguments[i].getTypeName() + "\" "
+                                + "is found");
+            }
+            ListObjectInspector thisListOI = (ListObjectInspector) arguments[i];
+            ObjectInspector thisListElementOI = thisListOI.getListElementObjectInspector();
+            // Check if two array are of same type
+            if (!ObjectInspectorUtils.compareTypes(thisListElementOI, baseListElementOI)) {
+                throw new UDFArgumentTypeException(1,
+                        "\"" + baseListElementOI.getTypeName() + "\""
+                                + " expected at function array_concat, but "
+                                + "\"" + thisListElementOI.getTypeName() + "\""
+                                + " is found");
+            }
+
+            inputOI[i] = ((ListObjectInspector) arguments[i]);
+        }
+
+        // 各参数的元素类型相同, 表示方式却可能不同, 例如 lazy 的列与 writable 的常量数组;
+        // 此时结果使用标准 writable 的元素, 表示方式不同的参数的元素逐个复制
+        ObjectInspector returnElementOI = baseListElementOI;
+        copyElements = new boolean[arguments.length];
+        for (int i = 0; i < arguments.length; i++) {
+            if (inputOI[i] != null && !sameRepresentation(inputOI[i].getListElementObjectInspector(), baseListElementOI)) {
+                returnElementOI = ObjectInspectorUtils.getStandardObjectInspector(
+                        baseListElementOI, ObjectInspectorUtils.ObjectInspectorCopyOption.WRITABLE);
+                break;
+            }
+        }
+        for (int i = 0; i < arguments.length; i++) {
+            copyElements[i] = inputOI[i] != null
+                    && !sameRepresentation(inputOI[i].getListElementObjectInspector(), returnElementOI);
+        }
+
+        // 常量数组的元素只在这里取出(并复制)一次
+        constantElements = new Object[arguments.length][];
+        for (int i = 0; i < arguments.length; i++) {
+            if (inputOI[i] == null || !ObjectInspectorUtils.isConstantObjectInspector(arguments[i])) {
+                continue;
+            }
+            Object array = ((ConstantObjectInspector) arguments[i]).getWritableConstantValue();
+            Object[] elements = new Object[Math.max(inputOI[i].getListLength(array), 0)];
+            for (int j = 0; j < elements.length; j++) {
+                elements[j] = element(i, inputOI[i].getListElement(array, j));
+            }
+            constantElements[i] = elements;
+        }
+
+        result = new ArrayList<>();
+        return foldConstants(arguments, ObjectInspectorFactory.getStandardListObjectInspector(returnElementOI));
+    }
+
+    /**
+     * @return whether objects of a can be read by b, i.e. they are the same ObjectInspector or both read writables
+     */
+    private static boolean sameRepresentation(ObjectInspector a, ObjectInspector b) {
+        return a == b || a instanceof AbstractPrimitiveWritableObjectInspector
+                && b instanceof AbstractPrimitiveWritableObjectInspector
+                && ((PrimitiveObjectInspector) a).getPrimitiveCategory() == ((PrimitiveObjectInspector) b).getPrimitiveCategory();
+    }
+
+    private Object element(int i, Object element) {
+        return copyElements[i]
+                ? ObjectInspectorUtils.copyToStandardObject(element, inputOI[i].getListElementObjectInspector(),
+                        ObjectInspectorUtils.ObjectInspectorCopyOption.WRITABLE)
+                : element;
+    }
+
+    @Override
+    protected Object evaluateRow(DeferredObject[] arguments) throws HiveException {
+        result.clear();
+        int size = 0;
+        for (int i = 0; i < arguments.length; i++) {
+            if (arguments[i] == null || inputOI[i] == null) {
+                continue;
+            }
+            if (constantElements[i] != null) {
+                size += constantElements[i].length;
+                for (Object arrayElement : constantElements[i]) {
+                    result.add(arrayElement);
+                }
+                continue;
+            }
+            Object sourceArray = arguments[i].get();
+            // null 数组的长度为 -1
+            int length = inputOI[i].getListLength(sourceArray);
+            size += Math.max(length, 0);
+            for (int j =0; j< length; j++) {
+                Object arrayElement = inputOI[i].getListElement(sourceArray,j);
+                result.add(element(i, arrayElement));
+            }
+        }
+        metrics.inputSize(size);
+        return result;
+    }
+
+    @Override
+    public String getDisplayString(String[] args) {
+        return getStandardDisplayString("array_union", args);
+    }
+}
\ No newline at end of file
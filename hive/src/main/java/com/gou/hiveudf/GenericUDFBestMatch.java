@@ -0,0 +1,248 @@
+package com.gou.hiveudf;
+
+/**
+ * @version 1.0
+ * @auther GouMi
+ */
+import com.gou.hiveudf.core.TokenIndex;
+
+import org.apache.hadoop.hive.ql.exec.Description;
+import org.apache.hadoop.hive.ql.exec.UDFArgumentException;
+import org.apache.hadoop.hive.ql.exec.UDFArgumentLengthException;
+import org.apache.hadoop.hive.ql.exec.UDFArgumentTypeException;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.hive.ql.metadata.HiveException;
+import org.apache.hadoop.hive.ql.session.SessionState;
+import org.apache.hadoop.hive.serde2.objectinspector.ObjectInspector;
+import org.apache.hadoop.hive.serde2.objectinspector.ObjectInspectorFactory;
+import org.apache.hadoop.hive.serde2.objectinspector.primitive.PrimitiveObjectInspectorFactory;
+import org.apache.hadoop.io.IntWritable;
+import org.apache.hadoop.io.Text;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Serializable;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+@Description(name = "best_match",
+        value = "FUNC(text, k[, catalog]) - Returns the k catalog entries sharing the most matchNWords words with text",
+        extended = "catalog is a file with one entry per line, either 'id<TAB>text' or just 'text'. "
+                + "Ship it with ADD FILE, or pass a full hdfs:// path which is added to the distributed "
+                + "cache. The default name is " + GenericUDFBestMatch.DEFAULT_CATALOG + ".\n"
+                + "Returns array<struct<id:string,score:int>>, best first, entries with score 0 are left out.\n"
+                + "Example:\n  > SELECT FUNC(title, 3, 'hdfs:///dim/product_catalog.txt') FROM orders;")
+public class GenericUDFBestMatch extends InstrumentedGenericUDF implements Serializable {
+    static final String DEFAULT_CATALOG = "best_match_catalog.txt";
+
+    static final int MAX_CATALOGS = 8;
+    // 每个 JVM 只加载一次 catalog, 同一 JVM 中的所有实例共享不可变的索引;
+    // 以本地文件的绝对路径为 key, 文件被替换(修改时间或大小变化)后重新加载, 最久未用的 catalog 先被淘汰
+    private static final Map<String, Catalog> CATALOGS = new LinkedHashMap<String, Catalog>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Catalog> eldest) {
+            return size() > MAX_CATALOGS;
+        }
+    };
+
+    private transient StringAccessor text;
+    private transient int k;
+    private transient String catalogPath;
+    private transient Catalog catalog;
+    private transient TokenIndex.Searcher searcher;
+    private transient ArrayList<Object[]> result;
+
+    @Override
+    public ObjectInspector initialize(ObjectInspector[] arguments) throws UDFArgumentException {
+        if (arguments.length != 2 && arguments.length != 3) {
+            throw new UDFArgumentLengthException(
+                    "The function best_match(text, k[, catalog]) takes 2 or 3 arguments.");
+        }
+        text = StringAccessor.of(arguments[0]);
+        if (text == null) {
+            throw new UDFArgumentTypeException(0,
+                    "The first argument of function best_match must be a string, but "
+                            + arguments[0].getTypeName() + " was given.");
+        }
+
+        k = UDFArgumentUtils.getConstantInt(arguments[1], 1, "best_match", "k");
+
+        catalogPath = DEFAULT_CATALOG;
+        if (arguments.length == 3) {
+            String path = UDFArgumentUtils.getConstantString(arguments[2], 2, "best_match", "catalog");
+            if (path != null) {
+                catalogPath = path;
+            }
+        }
+
+        result = new ArrayList<>(k);
+        // catalog 在编译查询时不可用, 不调用 foldConstants
+        return ObjectInspectorFactory.getStandardListObjectInspector(
+                ObjectInspectorFactory.getStandardStructObjectInspector(
+                        Arrays.asList("id", "score"),
+                        Arrays.asList(
+                                PrimitiveObjectInspectorFactory.writableStringObjectInspector,
+                                PrimitiveObjectInspectorFactory.writableIntObjectInspector)));
+    }
+
+    @Override
+    public String[] getRequiredFiles() {
+        // 完整路径的 catalog 由 Hive 加入 distributed cache, 本地文件名为路径的最后一段
+        if (catalogPath != null && catalogPath.contains("/")) {
+            return new String[]{catalogPath};
+        }
+        return null;
+    }
+
+    @Override
+    protected Object evaluateRow(DeferredObject[] arguments) throws HiveException {
+        if (!text.read(arguments[0].get())) {
+            metrics.nullInput();
+            return null;
+        }
+        metrics.inputSize(text.length());
+
+        if (searcher == null) {
+            catalog = loadCatalog(localFile(catalogPath));
+            searcher = catalog.index.newSearcher();
+        }
+
+        int n = searcher.search(text.bytes(), text.start(), text.length(), k);
+        // 复用 struct 以及其中的 writable, 只在结果变多时分配
+        while (result.size() < n) {
+            result.add(new Object[]{new Text(), new IntWritable()});
+        }
+        while (result.size() > n) {
+            result.remove(result.size() - 1);
+        }
+        for (int i = 0; i < n; i++) {
+            Object[] struct = result.get(i);
+            int entry = searcher.entry(i);
+            ((Text) struct[0]).set(catalog.ids, catalog.idOffset[entry], catalog.idLength[entry]);
+            ((IntWritable) struct[1]).set(searcher.score(i));
+        }
+        return result;
+    }
+
+    @Override
+    public String getDisplayString(String[] children) {
+        return getStandardDisplayString("best_match", children);
+    }
+
+    private static String localName(String path) {
+        return path.substring(path.lastIndexOf('/') + 1);
+    }
+
+    /**
+     * @param path the catalog argument
+     * @return the local copy of the catalog: in a session, e.g. a local fetch task, the file ADD FILE
+     * or the required files put in the resource directory of the session; otherwise the file the
+     * distributed cache links into the working directory of the task
+     */
+    static File localFile(String path) {
+        String name = localName(path);
+        SessionState session = SessionState.get();
+        if (session != null) {
+            Set<String> files = session.list_local_resource(SessionState.ResourceType.FILE);
+            if (files != null) {
+                for (String file : files) {
+                    // 本地资源可能带有 file: scheme
+                    String local = new Path(file).toUri().getPath();
+                    if (localName(local).equals(name)) {
+                        return new File(local).getAbsoluteFile();
+                    }
+                }
+            }
+        }
+        return new File(name).getAbsoluteFile();
+    }
+
+    private Catalog loadCatalog(File file) throws HiveException {
+        String key = file.getPath();
+        long lastModified = file.lastModified();
+        long length = file.length();
+        synchronized (CATALOGS) {
+            Catalog cached = CATALOGS.get(key);
+            if (cached != null && cached.lastModified == lastModified && cached.length == length) {
+                metrics.cacheHit();
+                return cached;
+            }
+        }
+        metrics.cacheMiss();
+        // 在锁外读取, 同时初始化的实例可能各自读取一次, 不会互相阻塞
+        Catalog loaded;
+        try {
+            loaded = Catalog.read(file, lastModified, length);
+        } catch (IOException e) {
+            throw new HiveException("best_match failed to load catalog " + catalogPath + " from " + file, e);
+        }
+        synchronized (CATALOGS) {
+            CATALOGS.put(key, loaded);
+        }
+        return loaded;
+    }
+
+    /**
+     * The ids of the catalog entries in one byte array plus the inverted index of their texts, and
+     * the modification time and size of the file they were read from.
+     */
+    private static final class Catalog {
+        private final byte[] ids;
+        private final int[] idOffset;
+        private final int[] idLength;
+        private final TokenIndex index;
+        private final long lastModified;
+        private final long length;
+
+        private Catalog(byte[] ids, int[] idOffset, int[] idLength, TokenIndex index, long lastModified, long length) {
+            this.ids = ids;
+            this.idOffset = idOffset;
+            this.idLength = idLength;
+            this.index = index;
+            this.lastModified = lastModified;
+            this.length = length;
+        }
+
+        static Catalog read(File file, long lastModified, long length) throws IOException {
+            TokenIndex.Builder builder = new TokenIndex.Builder();
+            List<byte[]> idList = new ArrayList<>();
+            int idBytes = 0;
+            try (BufferedReader br = new BufferedReader(
+                    new InputStreamReader(new FileInputStream(file), StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = br.readLine()) != null) {
+                    if (line.isEmpty()) {
+                        continue;
+                    }
+                    int tab = line.indexOf('\t');
+                    byte[] id = (tab < 0 ? line : line.substring(0, tab)).getBytes(StandardCharsets.UTF_8);
+                    byte[] text = (tab < 0 ? line : line.substring(tab + 1)).getBytes(StandardCharsets.UTF_8);
+                    builder.add(text, 0, text.length);
+                    idList.add(id);
+                    idBytes += id.length;
+                }
+            }
+
+            byte[] ids = new byte[idBytes];
+            int[] idOffset = new int[idList.size()];
+            int[] idLength = new int[idList.size()];
+            int offset = 0;
+            for (int i = 0; i < idList.size(); i++) {
+                byte[] id = idList.get(i);
+                System.arraycopy(id, 0, ids, offset, id.length);
+                idOffset[i] = offset;
+                idLength[i] = id.length;
+                offset += id.length;
+            }
+            return new Catalog(ids, idOffset, idLength, builder.build(), lastModified, length);
+        }
+    }
+}
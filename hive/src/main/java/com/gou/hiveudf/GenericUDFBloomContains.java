@@ -0,0 +1,139 @@
+package com.gou.hiveudf;
+
+/**
+ * @version 1.0
+ * @auther GouMi
+ */
+import com.gou.hiveudf.core.BloomFilter;
+
+import org.apache.hadoop.hive.ql.exec.Description;
+import org.apache.hadoop.hive.ql.exec.UDFArgumentException;
+import org.apache.hadoop.hive.ql.exec.UDFArgumentLengthException;
+import org.apache.hadoop.hive.ql.exec.UDFArgumentTypeException;
+import org.apache.hadoop.hive.ql.exec.vector.VectorizedExpressions;
+import org.apache.hadoop.hive.ql.metadata.HiveException;
+import org.apache.hadoop.hive.serde2.objectinspector.ConstantObjectInspector;
+import org.apache.hadoop.hive.serde2.objectinspector.ObjectInspector;
+import org.apache.hadoop.hive.serde2.objectinspector.ObjectInspectorUtils;
+import org.apache.hadoop.hive.serde2.objectinspector.primitive.BinaryObjectInspector;
+import org.apache.hadoop.hive.serde2.objectinspector.primitive.PrimitiveObjectInspectorFactory;
+import org.apache.hadoop.io.BooleanWritable;
+import org.apache.hadoop.io.BytesWritable;
+
+@Description(name = "bloom_contains",
+        value = "FUNC(filter, key) - Returns false if key is certainly not in the bloom filter built by bloom_build, "
+                + "true if it may be",
+        extended = "key must have the type family the filter was built with: a string, char or varchar, or an "
+                + "integer type. Returns null if filter or key is null.\n"
+                + "A constant filter is deserialized once in initialize. A filter from a column, e.g. a cross "
+                + "join with the bloom_build result, is only read again when its bytes change.")
+// 注册为永久函数时, 常量 filter 的调用会选择以下向量化表达式
+@VectorizedExpressions({VectorUDFBloomContainsScalarLongCol.class, VectorUDFBloomContainsScalarStringCol.class})
+public class GenericUDFBloomContains extends InstrumentedGenericUDF {
+    private transient BinaryObjectInspector filterOI;
+    private transient BloomKeyReader key;
+    private transient boolean constantFilter;
+    // 常量 filter 为 null 时也为 null
+    private transient BloomFilter filter;
+    // filter 不是常量时, 当前 filter 的序列化字节
+    private transient byte[] filterBytes;
+    private transient int filterLength;
+    private transient BooleanWritable result;
+
+    @Override
+    public ObjectInspector initialize(ObjectInspector[] arguments) throws UDFArgumentException {
+        if (arguments.length != 2) {
+            throw new UDFArgumentLengthException("The function bloom_contains(filter, key) takes exactly 2 arguments.");
+        }
+        if (!(arguments[0] instanceof BinaryObjectInspector)) {
+            throw new UDFArgumentTypeException(0, "The first argument of function bloom_contains must be the "
+                    + "binary result of bloom_build, but " + arguments[0].getTypeName() + " was given.");
+        }
+        filterOI = (BinaryObjectInspector) arguments[0];
+        key = BloomKeyReader.of(arguments[1]);
+        if (key == null) {
+            throw new UDFArgumentTypeException(1, "The second argument of function bloom_contains must be a string "
+                    + "or an integer, but " + arguments[1].getTypeName() + " was given.");
+        }
+
+        filter = null;
+        filterBytes = new byte[0];
+        filterLength = -1;
+        constantFilter = ObjectInspectorUtils.isConstantObjectInspector(arguments[0]);
+        if (constantFilter) {
+            Object value = ((ConstantObjectInspector) arguments[0]).getWritableConstantValue();
+            if (value != null) {
+                BytesWritable bytes = filterOI.getPrimitiveWritableObject(value);
+                try {
+                    filter = BloomFilter.deserialize(bytes.getBytes(), 0, bytes.getLength());
+                } catch (IllegalArgumentException e) {
+                    throw new UDFArgumentException(e.getMessage());
+                }
+            }
+        }
+        result = new BooleanWritable();
+        return foldConstants(arguments, PrimitiveObjectInspectorFactory.writableBooleanObjectInspector);
+    }
+
+    @Override
+    protected Object evaluateRow(DeferredObject[] arguments) throws HiveException {
+        if (!constantFilter) {
+            Object value = arguments[0].get();
+            if (value == null) {
+                metrics.nullInput();
+                return null;
+            }
+            readFilter(filterOI.getPrimitiveWritableObject(value));
+        }
+        if (filter == null || !key.read(arguments[1].get())) {
+            metrics.nullInput();
+            return null;
+        }
+        metrics.inputSize(key.size());
+        result.set(filter.mightContain(key.hash()));
+        return result;
+    }
+
+    /**
+     * Read the filter of the row unless it has the bytes of the current filter. The bytes are
+     * compared rather than the objects, as readers reuse their BytesWritable between rows.
+     */
+    private void readFilter(BytesWritable value) throws HiveException {
+        byte[] bytes = value.getBytes();
+        int length = value.getLength();
+        if (length == filterLength && sameBytes(bytes, length)) {
+            metrics.cacheHit();
+            return;
+        }
+        metrics.cacheMiss();
+        try {
+            if (filter == null) {
+                filter = BloomFilter.deserialize(bytes, 0, length);
+            } else {
+                filter.read(bytes, 0, length);
+            }
+        } catch (IllegalArgumentException e) {
+            filterLength = -1;
+            throw new HiveException(e.getMessage(), e);
+        }
+        if (filterBytes.length < length) {
+            filterBytes = new byte[length];
+        }
+        System.arraycopy(bytes, 0, filterBytes, 0, length);
+        filterLength = length;
+    }
+
+    private boolean sameBytes(byte[] bytes, int length) {
+        for (int i = 0; i < length; i++) {
+            if (bytes[i] != filterBytes[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public String getDisplayString(String[] children) {
+        return getStandardDisplayString("bloom_contains", children);
+    }
+}
@@ -0,0 +1,26 @@
+package com.gou.hiveudf;
+
+/**
+ * @version 1.0
+ * @auther GouMi
+ */
+import com.gou.hiveudf.core.TokenSimilarity;
+
+import org.apache.hadoop.hive.ql.exec.Description;
+
+@Description(name = "cosine_similarity",
+        value = "FUNC(str1, str2[, threshold]) - Returns the cosine of the word count vectors of str1 and str2",
+        extended = "The words are split the same way as matchNWords. Returns 0 when either side has no word, "
+                + "and 0 as soon as the score can no longer reach threshold.\n"
+                + "Example:\n  > SELECT FUNC('apple iphone 12', 'apple iphone 12 pro');\n  0.8660254037844387")
+public class GenericUDFCosine extends GenericUDFTokenSimilarity {
+    @Override
+    protected TokenSimilarity.Measure getMeasure() {
+        return TokenSimilarity.Measure.COSINE;
+    }
+
+    @Override
+    protected String getName() {
+        return "cosine_similarity";
+    }
+}
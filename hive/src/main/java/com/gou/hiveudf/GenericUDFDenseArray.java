@@ -7,12 +7,14 @@ package com.gou.hiveudf;
 import org.apache.hadoop.hive.ql.exec.Description;
 import org.apache.hadoop.hive.ql.exec.UDFArgumentException;
 import org.apache.hadoop.hive.ql.exec.UDFArgumentTypeException;
+import org.apache.hadoop.hive.ql.exec.vector.VectorizedExpressions;
 import org.apache.hadoop.hive.ql.metadata.HiveException;
-import org.apache.hadoop.hive.ql.udf.generic.GenericUDF;
 import org.apache.hadoop.hive.ql.udf.generic.GenericUDFUtils;
+import org.apache.hadoop.hive.serde2.objectinspector.ConstantObjectInspector;
 import org.apache.hadoop.hive.serde2.objectinspector.ObjectInspector;
 import org.apache.hadoop.hive.serde2.objectinspector.ObjectInspectorConverters;
 import org.apache.hadoop.hive.serde2.objectinspector.ObjectInspectorFactory;
+import org.apache.hadoop.hive.serde2.objectinspector.ObjectInspectorUtils;
 import org.apache.hadoop.hive.serde2.objectinspector.PrimitiveObjectInspector;
 import org.apache.hadoop.hive.serde2.objectinspector.primitive.PrimitiveObjectInspectorFactory;
 
@@ -21,8 +23,18 @@ import java.util.ArrayList;
 
 @Description(name = "dense_array",
         value = "FUNC(n0, n1...) - Creates an array with the given elements, also ignores null value ")
-public class GenericUDFDenseArray extends GenericUDF implements Serializable {
+// 向量化描述符最多支持 3 个参数, 更多参数时 Hive 用 VectorUDFAdaptor 逐行调用 evaluate
+@VectorizedExpressions({VectorUDFDenseArrayCol.class, VectorUDFDenseArrayColCol.class,
+        VectorUDFDenseArrayColColCol.class, VectorUDFDenseArrayDoubleCol.class,
+        VectorUDFDenseArrayDoubleColCol.class, VectorUDFDenseArrayDoubleColColCol.class,
+        VectorUDFDenseArrayStringCol.class, VectorUDFDenseArrayStringColCol.class,
+        VectorUDFDenseArrayStringColColCol.class})
+public class GenericUDFDenseArray extends InstrumentedGenericUDF implements Serializable {
     private transient ObjectInspectorConverters.Converter[] converters;
+    // 常量参数在 initialize 中转换一次, 之后每行直接使用
+    private transient boolean[] isConstant;
+    private transient Object[] constants;
+    private transient ArrayList<Object> ret;
 
     @Override
     public ObjectInspector initialize(ObjectInspector[] arguments) throws UDFArgumentException {
@@ -46,32 +58,51 @@ public class GenericUDFDenseArray extends GenericUDF implements Serializable {
 
         converters = new ObjectInspectorConverters.Converter[arguments.length];
 
+        isConstant = new boolean[arguments.length];
+        constants = new Object[arguments.length];
+        ret = new ArrayList<>(arguments.length);
+
         ObjectInspector returnOI =
                 returnOIResolver.get(PrimitiveObjectInspectorFactory.javaStringObjectInspector);
         for (int i = 0; i < arguments.length; i++) {
             if (arguments[i] == null
                     || arguments[i].getCategory() == ObjectInspector.Category.PRIMITIVE
                     && ((PrimitiveObjectInspector)arguments[i]).getPrimitiveCategory()== PrimitiveObjectInspector.PrimitiveCategory.VOID) {
+                isConstant[i] = true;
                 continue;
             }
             converters[i] = ObjectInspectorConverters.getConverter(arguments[i],
                     returnOI);
+            if (ObjectInspectorUtils.isConstantObjectInspector(arguments[i])) {
+                // 每个参数有自己的 converter, 转换结果在之后不会被覆盖
+                Object value = ((ConstantObjectInspector) arguments[i]).getWritableConstantValue();
+                isConstant[i] = true;
+                constants[i] = value == null ? null : converters[i].convert(value);
+            }
         }
 
-
-        return ObjectInspectorFactory.getStandardListObjectInspector(returnOIResolver.get());
+        // 所有参数都是常量时结果也是常量, 只在这里计算一次
+        return foldConstants(arguments, ObjectInspectorFactory.getStandardListObjectInspector(returnOI));
     }
 
     @Override
-    public Object evaluate(GenericUDF.DeferredObject[] arguments) throws HiveException {
-        ArrayList<Object> ret = new ArrayList<>();
+    protected Object evaluateRow(DeferredObject[] arguments) throws HiveException {
+        // 复用同一个 list, converter 的输出 writable 也是每个参数各自复用的
+        ret.clear();
         for (int i = 0; i < arguments.length; i++) {
+            if (isConstant[i]) {
+                if (constants[i] != null) {
+                    ret.add(constants[i]);
+                }
+                continue;
+            }
             if (arguments[i] == null) {
                 continue;
             }
+            // 每个参数只取一次, 避免重复计算子表达式
             Object ai = arguments[i].get();
-            if (ai != null && converters[i]!=null ) {
-                ret.add(converters[i].convert(arguments[i].get()));
+            if (ai != null) {
+                ret.add(converters[i].convert(ai));
             }
         }
         return ret;
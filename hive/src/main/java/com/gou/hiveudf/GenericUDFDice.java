@@ -0,0 +1,26 @@
+package com.gou.hiveudf;
+
+/**
+ * @version 1.0
+ * @auther GouMi
+ */
+import com.gou.hiveudf.core.TokenSimilarity;
+
+import org.apache.hadoop.hive.ql.exec.Description;
+
+@Description(name = "dice",
+        value = "FUNC(str1, str2[, threshold]) - Returns 2 * sum(min) / (|A| + |B|) of the word counts of str1 and str2",
+        extended = "The words are split the same way as matchNWords. Returns 0 when either side has no word, "
+                + "and 0 as soon as the score can no longer reach threshold.\n"
+                + "Example:\n  > SELECT FUNC('apple iphone 12', 'apple iphone 12 pro');\n  0.8571428571428571")
+public class GenericUDFDice extends GenericUDFTokenSimilarity {
+    @Override
+    protected TokenSimilarity.Measure getMeasure() {
+        return TokenSimilarity.Measure.DICE;
+    }
+
+    @Override
+    protected String getName() {
+        return "dice";
+    }
+}
@@ -0,0 +1,110 @@
+package com.gou.hiveudf;
+
+/**
+ * @version 1.0
+ * @auther GouMi
+ */
+import com.gou.hiveudf.core.EditDistance;
+
+import org.apache.hadoop.hive.ql.exec.Description;
+import org.apache.hadoop.hive.ql.exec.UDFArgumentException;
+import org.apache.hadoop.hive.ql.exec.UDFArgumentLengthException;
+import org.apache.hadoop.hive.ql.exec.UDFArgumentTypeException;
+import org.apache.hadoop.hive.ql.metadata.HiveException;
+import org.apache.hadoop.hive.serde2.objectinspector.ConstantObjectInspector;
+import org.apache.hadoop.hive.serde2.objectinspector.ObjectInspector;
+import org.apache.hadoop.hive.serde2.objectinspector.ObjectInspectorUtils;
+import org.apache.hadoop.hive.serde2.objectinspector.primitive.PrimitiveObjectInspectorFactory;
+import org.apache.hadoop.io.IntWritable;
+
+@Description(name = "edit_distance",
+        value = "FUNC(str1, str2[, max]) - Returns the Levenshtein distance between str1 and str2 in chars",
+        extended = "A Chinese char or an emoji is one char. With max the computation stops as soon as the "
+                + "distance must exceed max, and max + 1 is returned instead.\n"
+                + "Example:\n  > SELECT FUNC('kitten', 'sitting');\n  3\n"
+                + "  > SELECT FUNC('北京市朝阳区', '北京朝阳区');\n  1")
+public class GenericUDFEditDistance extends InstrumentedGenericUDF {
+    private transient StringAccessor[] accessors;
+    // 常量参数的下标, -1 表示没有常量参数
+    private transient int constantIndex;
+    private transient boolean constantIsNull;
+    private transient EditDistance editDistance;
+    private transient int max;
+    private transient IntWritable result;
+
+    @Override
+    public ObjectInspector initialize(ObjectInspector[] arguments) throws UDFArgumentException {
+        if (arguments.length != 2 && arguments.length != 3) {
+            throw new UDFArgumentLengthException("The function edit_distance(str1, str2[, max]) takes 2 or 3 arguments.");
+        }
+        accessors = new StringAccessor[2];
+        for (int i = 0; i < accessors.length; i++) {
+            accessors[i] = StringAccessor.of(arguments[i]);
+            if (accessors[i] == null) {
+                throw new UDFArgumentTypeException(i, "The arguments of function edit_distance must be strings, but "
+                        + arguments[i].getTypeName() + " was given.");
+            }
+        }
+        max = arguments.length == 3
+                ? UDFArgumentUtils.getConstantInt(arguments[2], 2, "edit_distance", "max")
+                : Integer.MAX_VALUE;
+        editDistance = new EditDistance();
+        result = new IntWritable();
+        // 如果有一个参数是常量, 只在这里处理一次, evaluate 中只处理另一个参数
+        constantIndex = -1;
+        for (int i = 0; i < accessors.length; i++) {
+            if (ObjectInspectorUtils.isConstantObjectInspector(arguments[i])) {
+                StringAccessor constant = accessors[i];
+                constantIndex = i;
+                constantIsNull = !constant.read(((ConstantObjectInspector) arguments[i]).getWritableConstantValue());
+                if (!constantIsNull) {
+                    editDistance.prepare(constant.bytes(), constant.start(), constant.length());
+                }
+                break;
+            }
+        }
+        return foldConstants(arguments, PrimitiveObjectInspectorFactory.writableIntObjectInspector);
+    }
+
+    @Override
+    protected Object evaluateRow(DeferredObject[] arguments) throws HiveException {
+        if (constantIndex >= 0) {
+            return evaluateWithConstant(arguments[1 - constantIndex].get());
+        }
+
+        Object o1 = arguments[0].get();
+        Object o2 = arguments[1].get();
+        if (o1 == null || o2 == null) {
+            metrics.nullInput();
+            return null;
+        }
+        StringAccessor str1 = accessors[0];
+        StringAccessor str2 = accessors[1];
+        if (!str1.read(o1) || !str2.read(o2)) {
+            metrics.nullInput();
+            return null;
+        }
+        metrics.inputSize(str1.length() + str2.length());
+
+        result.set(editDistance.distance(str1.bytes(), str1.start(), str1.length(),
+                str2.bytes(), str2.start(), str2.length(), max));
+        return result;
+    }
+
+    private Object evaluateWithConstant(Object o) {
+        StringAccessor str = accessors[1 - constantIndex];
+        if (constantIsNull || !str.read(o)) {
+            metrics.nullInput();
+            return null;
+        }
+        metrics.inputSize(str.length());
+
+        result.set(editDistance.distancePrepared(str.bytes(), str.start(), str.length(), max));
+        return result;
+    }
+
+    @Override
+    public String getDisplayString(String[] children) {
+        return getStandardDisplayString("edit_distance", children);
+    }
+}
@@ -1,17 +1,17 @@
 package com.gou.hiveudf;
 
+import com.gou.hiveudf.core.PercentFormatter;
+
 import org.apache.hadoop.hive.ql.exec.Description;
 import org.apache.hadoop.hive.ql.exec.UDFArgumentException;
 import org.apache.hadoop.hive.ql.exec.UDFArgumentLengthException;
 import org.apache.hadoop.hive.ql.metadata.HiveException;
-import org.apache.hadoop.hive.ql.udf.generic.GenericUDF;
 import org.apache.hadoop.hive.serde2.objectinspector.ObjectInspector;
 import org.apache.hadoop.hive.serde2.objectinspector.ObjectInspectorFactory;
 import org.apache.hadoop.hive.serde2.objectinspector.PrimitiveObjectInspector;
 import org.apache.hadoop.hive.serde2.objectinspector.primitive.PrimitiveObjectInspectorFactory;
 import org.apache.hadoop.io.Text;
 
-import java.text.DecimalFormat;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -19,8 +19,21 @@ import java.util.Map;
         name="GenericUDFExample",
         value="GenericUDFExample(...) - count int or long type numbers",
         extended = "Example :\n    >select GenericUDFExample(3, 5);\n    >{numerator=3,denominator=5,percentage=60%}\n"
+                + "Returns null if either argument is null, percentage is null if the denominator is 0.\n"
 )
-public class GenericUDFExample extends GenericUDF {
+public class GenericUDFExample extends InstrumentedGenericUDF {
+    private static final Text NUMERATOR = new Text("numerator");
+    private static final Text DENOMINATOR = new Text("denominator");
+    private static final Text PERCENTAGE = new Text("percentage");
+
+    private transient NumberAccessor numeratorInput;
+    private transient NumberAccessor denominatorInput;
+    private transient PercentFormatter formatter;
+    // 返回的 map 与其中的 Text 每行复用, key 不变, 只更新 value 的内容
+    private transient Map<Text, Text> ret;
+    private transient Text numerator;
+    private transient Text denominator;
+    private transient Text percentage;
 
     @Override
     public ObjectInspector initialize(ObjectInspector[] objectInspectors) throws UDFArgumentException {
@@ -38,38 +51,48 @@ public class GenericUDFExample extends GenericUDF {
                 || !PrimitiveObjectInspector.PrimitiveCategory.INT.equals(((PrimitiveObjectInspector)objectInspectors[1]).getPrimitiveCategory())){ // 传入第二个参数类型是否为hive的Int类型
             throw new UDFArgumentException("函数第二个参数为int类型");
         }
+        numeratorInput = NumberAccessor.of(objectInspectors[0]);
+        denominatorInput = NumberAccessor.of(objectInspectors[1]);
+        formatter = new PercentFormatter();
+        numerator = new Text();
+        denominator = new Text();
+        percentage = new Text();
+        ret = new HashMap<>(4);
         //最后返回结果的类型
-        return ObjectInspectorFactory.getStandardMapObjectInspector (
+        return foldConstants(objectInspectors, ObjectInspectorFactory.getStandardMapObjectInspector (
                 PrimitiveObjectInspectorFactory.writableStringObjectInspector,
-                PrimitiveObjectInspectorFactory.writableStringObjectInspector) ;
+                PrimitiveObjectInspectorFactory.writableStringObjectInspector));
     }
 
     @Override
-    public Object evaluate(DeferredObject[] deferredObjects) throws HiveException {
-        String num1 = deferredObjects[0].get().toString();
-        String num2 = deferredObjects[1].get().toString();
-        return intToPrecent(num1,num2);
+    protected Object evaluateRow(DeferredObject[] deferredObjects) throws HiveException {
+        Object o1 = deferredObjects[0].get();
+        Object o2 = deferredObjects[1].get();
+        if (o1 == null || o2 == null) {
+            metrics.nullInput();
+            return null;
+        }
+        return intToPrecent((int) numeratorInput.getLong(o1), (int) denominatorInput.getLong(o2));
     }
 
-    public Map<Text,Text> intToPrecent(String i1, String i2){
-        int i = Integer.parseInt(i1);
-        int j = Integer.parseInt(i2);
-        double result = (double)i/j;
-        // 格式化器
-        DecimalFormat df = new DecimalFormat("0%");
-        Map<Text,Text> ret = new HashMap();
-        // 实际使用中 报错 String can not cast Text，但是在IDEA上测试没问题，IDEA上做功能逻辑测试
-        // ret.put("numerator",i1);
-        // ret.put("denominator",i2);
-        // ret.put("percentage",df.format(result));
-        ret.put(new Text("numerator"),new Text(i1));
-        ret.put(new Text("denominator"),new Text(i2));
-        ret.put(new Text("percentage"),new Text(df.format(result)));
+    public Map<Text,Text> intToPrecent(int i, int j){
+        numerator.set(formatter.bytes(), 0, formatter.integer(i));
+        denominator.set(formatter.bytes(), 0, formatter.integer(j));
+        ret.put(NUMERATOR, numerator);
+        ret.put(DENOMINATOR, denominator);
+        // 分母为 0 时百分比没有意义, 返回 null 而不是 Infinity/NaN
+        int length = formatter.percent(i, j);
+        if (length < 0) {
+            ret.put(PERCENTAGE, null);
+        } else {
+            percentage.set(formatter.bytes(), 0, length);
+            ret.put(PERCENTAGE, percentage);
+        }
         return ret;
     }
 
     @Override
     public String getDisplayString(String[] strings) {
-        return "GOOD";
+        return getStandardDisplayString("GenericUDFExample", strings);
     }
 }
\ No newline at end of file
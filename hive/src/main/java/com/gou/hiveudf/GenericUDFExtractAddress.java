@@ -0,0 +1,135 @@
+package com.gou.hiveudf;
+
+/**
+ * @version 1.0
+ * @auther GouMi
+ */
+import com.gou.hiveudf.core.AddressMatcher;
+
+import org.apache.hadoop.hive.ql.exec.UDFArgumentException;
+import org.apache.hadoop.hive.ql.exec.UDFArgumentLengthException;
+import org.apache.hadoop.hive.ql.exec.UDFArgumentTypeException;
+import org.apache.hadoop.hive.ql.metadata.HiveException;
+import org.apache.hadoop.hive.serde2.objectinspector.ObjectInspector;
+import org.apache.hadoop.hive.serde2.objectinspector.primitive.PrimitiveObjectInspectorFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.*;
+
+public class GenericUDFExtractAddress extends InstrumentedGenericUDF implements Serializable {
+    private transient ObjectInspector strObjectInspector;
+    private transient StringAccessor addressAccessor;
+
+    @Override
+    public ObjectInspector initialize(ObjectInspector[] arguments)
+            throws UDFArgumentException {
+        if (arguments.length != 1) {
+            throw new UDFArgumentLengthException(
+                    "extract_address() accepts exactly 1 arguments.");
+        }
+
+        strObjectInspector = arguments[0];
+        addressAccessor = StringAccessor.of(strObjectInspector);
+
+        if (addressAccessor == null) {
+            throw new UDFArgumentTypeException(0, "The first " +
+                    "argument of function extract_address must be a string, " +
+                    "char or varchar but " +
+                    strObjectInspector.toString() + " was given.");
+        }
+
+        return foldConstants(arguments, PrimitiveObjectInspectorFactory.javaStringObjectInspector);
+    }
+
+    @Override
+    protected Object evaluateRow(DeferredObject[] arguments) throws HiveException {
+        if (!addressAccessor.read(arguments[0].get())) {
+            metrics.nullInput();
+            return null;
+        }
+        metrics.inputSize(addressAccessor.length());
+
+        // 正则匹配需要 String, Java String 的输入不会重复解码
+        return evaluate(addressAccessor.string());
+    }
+
+
+    @Override
+    public void copyToNewInstance(Object newInstance) throws UDFArgumentException {
+        super.copyToNewInstance(newInstance); // Asserts the class invariant. (Same types.)
+        GenericUDFExtractAddress that = (GenericUDFExtractAddress) newInstance;
+        if (that != this) {
+            that.strObjectInspector = this.strObjectInspector;
+            // accessor 保存每行的读取状态, 不能在实例间共享
+            that.addressAccessor = this.strObjectInspector == null ? null : StringAccessor.of(this.strObjectInspector);
+        }
+    }
+
+    @Override
+    public String getDisplayString(String[] children) {
+        return getStandardDisplayString("extract_address", children);
+    }
+
+    /**
+     * area_map.csv is loaded when the first address is matched, not when the class is loaded or the
+     * UDF is initialized, and only once per class loader: the matcher is thread safe and shared by
+     * all instances, including those of extract_addresses. Queries that only compile or never
+     * reach evaluate do not pay for it.
+     * <p>
+     * An optional area_alias.csv on the classpath, lines of alias and area name, adds aliases to
+     * the ones the matcher derives from the names, see {@link AddressMatcher#load(InputStream, InputStream)}.
+     * <p>
+     * If the files cannot be read, the error is logged once and every address matched afterwards
+     * fails with a HiveException caused by it, so the task fails instead of returning nulls.
+     */
+    static final class AreaMap {
+        private static final Logger LOG = LoggerFactory.getLogger(AreaMap.class);
+        // 加载失败时 MATCHER 为 null, 异常保存在 FAILURE 中, 匹配时抛出
+        private static final AddressMatcher MATCHER;
+        private static final IOException FAILURE;
+
+        static {
+            AddressMatcher matcher = null;
+            IOException failure = null;
+            try {
+                matcher = load();
+            } catch (IOException e) {
+                LOG.error("Failed to load the area map of extract_address", e);
+                failure = e;
+            }
+            MATCHER = matcher;
+            FAILURE = failure;
+        }
+
+        /**
+         * @return the matcher shared by all instances
+         * @throws HiveException if area_map.csv or area_alias.csv could not be read
+         */
+        static AddressMatcher matcher() throws HiveException {
+            if (MATCHER == null) {
+                throw new HiveException("Failed to load the area map of extract_address", FAILURE);
+            }
+            return MATCHER;
+        }
+
+        private static AddressMatcher load() throws IOException {
+            ClassLoader loader = GenericUDFExtractAddress.class.getClassLoader();
+            try (InputStream in = loader.getResourceAsStream("area_map.csv");
+                 InputStream aliases = loader.getResourceAsStream("area_alias.csv")) {
+                if (in == null) {
+                    throw new FileNotFoundException("area_map.csv is not on the classpath");
+                }
+                return AddressMatcher.load(in, aliases);
+            }
+        }
+    }
+
+    public String evaluate(String address) throws HiveException {
+        if (address == null) {
+            return null;
+        }
+
+        return AreaMap.matcher().match(address);
+    }
+}
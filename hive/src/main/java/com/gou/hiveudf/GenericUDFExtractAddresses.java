@@ -0,0 +1,110 @@
+package com.gou.hiveudf;
+
+/**
+ * @version 1.0
+ * @auther GouMi
+ */
+import com.gou.hiveudf.core.AddressMatcher;
+import com.gou.hiveudf.core.DistinctIndex;
+
+import org.apache.hadoop.hive.ql.exec.Description;
+import org.apache.hadoop.hive.ql.exec.UDFArgumentException;
+import org.apache.hadoop.hive.ql.exec.UDFArgumentLengthException;
+import org.apache.hadoop.hive.ql.exec.UDFArgumentTypeException;
+import org.apache.hadoop.hive.ql.metadata.HiveException;
+import org.apache.hadoop.hive.serde2.objectinspector.ListObjectInspector;
+import org.apache.hadoop.hive.serde2.objectinspector.ObjectInspector;
+import org.apache.hadoop.hive.serde2.objectinspector.ObjectInspectorFactory;
+import org.apache.hadoop.hive.serde2.objectinspector.primitive.PrimitiveObjectInspectorFactory;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+@Description(name = "extract_addresses",
+        value = "FUNC(addresses) - Returns the area code of every address of an array, as extract_address does",
+        extended = "addresses is an array of strings, chars or varchars, e.g. the billing, shipping and pickup "
+                + "address of an order. The codes are in the order of the addresses, null for a null address or "
+                + "one without any known area. Equal addresses of the array are matched once. Returns null if "
+                + "addresses is null.\n"
+                + "Example:\n  > SELECT order_id, FUNC(array(billing, shipping, pickup)) FROM orders;")
+public class GenericUDFExtractAddresses extends InstrumentedGenericUDF {
+    private transient ListObjectInspector inputOI;
+    private transient StringAccessor element;
+    // 每行复用: 地址, 地址的哈希以及去重后各地址的代码
+    private transient DistinctIndex distinctIndex;
+    private transient DistinctIndex.Equality equality;
+    private transient String[] addresses;
+    private transient int[] hashes;
+    private transient String[] codes;
+    private transient ArrayList<Object> result;
+
+    @Override
+    public ObjectInspector initialize(ObjectInspector[] arguments) throws UDFArgumentException {
+        if (arguments.length != 1) {
+            throw new UDFArgumentLengthException("The function extract_addresses(addresses) takes exactly 1 argument.");
+        }
+        element = arguments[0].getCategory() == ObjectInspector.Category.LIST
+                ? StringAccessor.of(((ListObjectInspector) arguments[0]).getListElementObjectInspector())
+                : null;
+        if (element == null) {
+            throw new UDFArgumentTypeException(0, "The argument of function extract_addresses must be an array of "
+                    + "strings, but " + arguments[0].getTypeName() + " was given.");
+        }
+        inputOI = (ListObjectInspector) arguments[0];
+        distinctIndex = new DistinctIndex();
+        equality = (i, j) -> addresses[i] == null ? addresses[j] == null : addresses[i].equals(addresses[j]);
+        addresses = new String[4];
+        hashes = new int[4];
+        codes = new String[4];
+        result = new ArrayList<>();
+        return foldConstants(arguments, ObjectInspectorFactory.getStandardListObjectInspector(
+                PrimitiveObjectInspectorFactory.javaStringObjectInspector));
+    }
+
+    @Override
+    protected Object evaluateRow(DeferredObject[] arguments) throws HiveException {
+        Object array = arguments[0].get();
+        if (array == null) {
+            metrics.nullInput();
+            return null;
+        }
+        int length = inputOI.getListLength(array);
+        metrics.inputSize(length);
+        if (addresses.length < length) {
+            int capacity = Math.max(length, addresses.length << 1);
+            addresses = new String[capacity];
+            hashes = new int[capacity];
+            codes = new String[capacity];
+        }
+        for (int i = 0; i < length; i++) {
+            String address = element.read(inputOI.getListElement(array, i)) ? element.string() : null;
+            addresses[i] = address;
+            hashes[i] = address == null ? 0 : address.hashCode();
+        }
+
+        // 同一数组中相同的地址只匹配一次, 重复的地址计为缓存命中
+        AddressMatcher matcher = GenericUDFExtractAddress.AreaMap.matcher();
+        int count = distinctIndex.distinct(hashes, length, equality);
+        for (int d = 0; d < count; d++) {
+            int i = distinctIndex.index(d);
+            codes[i] = addresses[i] == null ? null : matcher.match(addresses[i]);
+            metrics.cacheMiss();
+        }
+        result.clear();
+        for (int i = 0; i < length; i++) {
+            int first = distinctIndex.first(i);
+            if (first != i) {
+                metrics.cacheHit();
+            }
+            result.add(codes[first]);
+        }
+        // 不保留本行的地址
+        Arrays.fill(addresses, 0, length, null);
+        return result;
+    }
+
+    @Override
+    public String getDisplayString(String[] children) {
+        return getStandardDisplayString("extract_addresses", children);
+    }
+}
@@ -0,0 +1,101 @@
+package com.gou.hiveudf;
+
+/**
+ * @version 1.0
+ * @auther GouMi
+ */
+import com.gou.hiveudf.core.MinHasher;
+
+import org.apache.hadoop.hive.ql.exec.Description;
+import org.apache.hadoop.hive.ql.exec.UDFArgumentException;
+import org.apache.hadoop.hive.ql.exec.UDFArgumentLengthException;
+import org.apache.hadoop.hive.ql.exec.UDFArgumentTypeException;
+import org.apache.hadoop.hive.ql.metadata.HiveException;
+import org.apache.hadoop.hive.serde2.objectinspector.ListObjectInspector;
+import org.apache.hadoop.hive.serde2.objectinspector.ObjectInspector;
+import org.apache.hadoop.hive.serde2.objectinspector.ObjectInspectorFactory;
+import org.apache.hadoop.hive.serde2.objectinspector.primitive.LongObjectInspector;
+import org.apache.hadoop.hive.serde2.objectinspector.primitive.PrimitiveObjectInspectorFactory;
+import org.apache.hadoop.io.LongWritable;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collections;
+
+@Description(name = "lsh_bands",
+        value = "FUNC(signature, b, r) - Returns b LSH band keys of a minhash signature, r values per band",
+        extended = "Two signatures share a band key when they agree on all r values of that band, so "
+                + "exploding the keys and equi-joining on them generates fuzzy join candidates. "
+                + "Returns NULL for a signature with fewer than b * r values.\n"
+                + "Example:\n  > SELECT id, band FROM t LATERAL VIEW explode(FUNC(minhash(title, 32), 8, 4)) b AS band;")
+public class GenericUDFLshBands extends InstrumentedGenericUDF implements Serializable {
+    private transient ListObjectInspector signatureOI;
+    private transient NumberAccessor element;
+    private transient int bands;
+    private transient int rows;
+    private transient long[] band;
+    private transient ArrayList<LongWritable> result;
+
+    @Override
+    public ObjectInspector initialize(ObjectInspector[] arguments) throws UDFArgumentException {
+        if (arguments.length != 3) {
+            throw new UDFArgumentLengthException("The function lsh_bands(signature, b, r) takes exactly 3 arguments.");
+        }
+        if (arguments[0].getCategory() != ObjectInspector.Category.LIST
+                || !(((ListObjectInspector) arguments[0]).getListElementObjectInspector() instanceof LongObjectInspector)) {
+            throw new UDFArgumentTypeException(0,
+                    "The first argument of function lsh_bands must be array<bigint>, but "
+                            + arguments[0].getTypeName() + " was given.");
+        }
+        signatureOI = (ListObjectInspector) arguments[0];
+        element = NumberAccessor.of(signatureOI.getListElementObjectInspector());
+        bands = UDFArgumentUtils.getConstantInt(arguments[1], 1, "lsh_bands", "b");
+        rows = UDFArgumentUtils.getConstantInt(arguments[2], 2, "lsh_bands", "r");
+        // 签名的下标 b * rows + r 是 int, 乘积不能溢出
+        if ((long) bands * rows > Integer.MAX_VALUE) {
+            throw new UDFArgumentException("b * r of function lsh_bands must be at most " + Integer.MAX_VALUE
+                    + ", but " + bands + " * " + rows + " was given.");
+        }
+
+        band = new long[rows];
+        result = new ArrayList<>(bands);
+        for (int i = 0; i < bands; i++) {
+            result.add(new LongWritable());
+        }
+        return foldConstants(arguments, ObjectInspectorFactory.getStandardListObjectInspector(
+                PrimitiveObjectInspectorFactory.writableLongObjectInspector));
+    }
+
+    @Override
+    protected Object evaluateRow(DeferredObject[] arguments) throws HiveException {
+        Object signature = arguments[0].get();
+        if (signature == null) {
+            metrics.nullInput();
+            return null;
+        }
+        int length = signatureOI.getListLength(signature);
+        metrics.inputSize(length);
+        // minhash 对没有任何单词的文本返回空数组, 不产生候选
+        if (length == 0) {
+            return Collections.emptyList();
+        }
+        // 签名比 b * r 短, 例如 minhash 的 k 与 b, r 不一致; 与其他无法计算的输入一样返回 null, 计入 null results
+        if (length < bands * rows) {
+            return null;
+        }
+
+        for (int b = 0; b < bands; b++) {
+            for (int r = 0; r < rows; r++) {
+                Object value = signatureOI.getListElement(signature, b * rows + r);
+                band[r] = value == null ? 0L : element.getLong(value);
+            }
+            result.get(b).set(MinHasher.bandKey(b, band, rows));
+        }
+        return result;
+    }
+
+    @Override
+    public String getDisplayString(String[] children) {
+        return getStandardDisplayString("lsh_bands", children);
+    }
+}
@@ -0,0 +1,75 @@
+package com.gou.hiveudf;
+
+/**
+ * @version 1.0
+ * @auther GouMi
+ */
+import com.gou.hiveudf.core.MinHasher;
+
+import org.apache.hadoop.hive.ql.exec.Description;
+import org.apache.hadoop.hive.ql.exec.UDFArgumentException;
+import org.apache.hadoop.hive.ql.exec.UDFArgumentLengthException;
+import org.apache.hadoop.hive.ql.exec.UDFArgumentTypeException;
+import org.apache.hadoop.hive.ql.metadata.HiveException;
+import org.apache.hadoop.hive.serde2.objectinspector.ObjectInspector;
+import org.apache.hadoop.hive.serde2.objectinspector.ObjectInspectorFactory;
+import org.apache.hadoop.hive.serde2.objectinspector.primitive.PrimitiveObjectInspectorFactory;
+import org.apache.hadoop.io.LongWritable;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collections;
+
+@Description(name = "minhash",
+        value = "FUNC(text, n) - Returns the n-value MinHash signature of the matchNWords word set of text",
+        extended = "The signature is an array<bigint>, the same text always gives the same signature. "
+                + "A text without any word gives an empty array.\n"
+                + "Use lsh_bands on the signature to generate equi-join keys for fuzzy joins.")
+public class GenericUDFMinHash extends InstrumentedGenericUDF implements Serializable {
+    private transient StringAccessor text;
+    private transient MinHasher hasher;
+    private transient ArrayList<LongWritable> result;
+
+    @Override
+    public ObjectInspector initialize(ObjectInspector[] arguments) throws UDFArgumentException {
+        if (arguments.length != 2) {
+            throw new UDFArgumentLengthException("The function minhash(text, n) takes exactly 2 arguments.");
+        }
+        text = StringAccessor.of(arguments[0]);
+        if (text == null) {
+            throw new UDFArgumentTypeException(0,
+                    "The first argument of function minhash must be a string, but "
+                            + arguments[0].getTypeName() + " was given.");
+        }
+
+        int n = UDFArgumentUtils.getConstantInt(arguments[1], 1, "minhash", "n");
+        hasher = new MinHasher(n);
+        result = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            result.add(new LongWritable());
+        }
+        return foldConstants(arguments, ObjectInspectorFactory.getStandardListObjectInspector(
+                PrimitiveObjectInspectorFactory.writableLongObjectInspector));
+    }
+
+    @Override
+    protected Object evaluateRow(DeferredObject[] arguments) throws HiveException {
+        if (!text.read(arguments[0].get())) {
+            metrics.nullInput();
+            return null;
+        }
+        metrics.inputSize(text.length());
+        if (hasher.signature(text.bytes(), text.start(), text.length()) == 0) {
+            return Collections.emptyList();
+        }
+        for (int i = 0; i < hasher.size(); i++) {
+            result.get(i).set(hasher.get(i));
+        }
+        return result;
+    }
+
+    @Override
+    public String getDisplayString(String[] children) {
+        return getStandardDisplayString("minhash", children);
+    }
+}
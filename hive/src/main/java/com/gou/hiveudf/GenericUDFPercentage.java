@@ -0,0 +1,71 @@
+package com.gou.hiveudf;
+
+/**
+ * @version 1.0
+ * @auther GouMi
+ */
+import com.gou.hiveudf.core.PercentFormatter;
+
+import org.apache.hadoop.hive.ql.exec.Description;
+import org.apache.hadoop.hive.ql.exec.UDFArgumentException;
+import org.apache.hadoop.hive.ql.exec.UDFArgumentLengthException;
+import org.apache.hadoop.hive.ql.exec.UDFArgumentTypeException;
+import org.apache.hadoop.hive.ql.exec.vector.VectorizedExpressions;
+import org.apache.hadoop.hive.ql.metadata.HiveException;
+import org.apache.hadoop.hive.serde2.objectinspector.ObjectInspector;
+import org.apache.hadoop.hive.serde2.objectinspector.primitive.IntObjectInspector;
+import org.apache.hadoop.hive.serde2.objectinspector.primitive.LongObjectInspector;
+import org.apache.hadoop.hive.serde2.objectinspector.primitive.PrimitiveObjectInspectorFactory;
+import org.apache.hadoop.io.Text;
+
+@Description(name = "percentage",
+        value = "FUNC(numerator, denominator) - Returns numerator / denominator as a whole percent string",
+        extended = "The arguments are int or bigint, the ratio is rounded half-even. Returns null if either argument "
+                + "is null or the denominator is 0.\n"
+                + "Example:\n  > SELECT FUNC(3, 5);\n  60%\n  > SELECT FUNC(1, 3);\n  33%")
+// 注册为永久函数时向量化执行会选择以下表达式
+@VectorizedExpressions({VectorUDFPercentageColCol.class})
+public class GenericUDFPercentage extends InstrumentedGenericUDF {
+    private transient NumberAccessor[] inputs;
+    private transient PercentFormatter formatter;
+    private transient Text result;
+
+    @Override
+    public ObjectInspector initialize(ObjectInspector[] arguments) throws UDFArgumentException {
+        if (arguments.length != 2) {
+            throw new UDFArgumentLengthException("The function percentage(numerator, denominator) takes exactly 2 arguments.");
+        }
+        inputs = new NumberAccessor[2];
+        for (int i = 0; i < inputs.length; i++) {
+            if (!(arguments[i] instanceof IntObjectInspector) && !(arguments[i] instanceof LongObjectInspector)) {
+                throw new UDFArgumentTypeException(i, "The arguments of function percentage must be int or bigint, but "
+                        + arguments[i].getTypeName() + " was given.");
+            }
+            inputs[i] = NumberAccessor.of(arguments[i]);
+        }
+        formatter = new PercentFormatter();
+        result = new Text();
+        return foldConstants(arguments, PrimitiveObjectInspectorFactory.writableStringObjectInspector);
+    }
+
+    @Override
+    protected Object evaluateRow(DeferredObject[] arguments) throws HiveException {
+        Object o1 = arguments[0].get();
+        Object o2 = arguments[1].get();
+        if (o1 == null || o2 == null) {
+            metrics.nullInput();
+            return null;
+        }
+        int length = formatter.percent(inputs[0].getLong(o1), inputs[1].getLong(o2));
+        if (length < 0) {
+            return null;
+        }
+        result.set(formatter.bytes(), 0, length);
+        return result;
+    }
+
+    @Override
+    public String getDisplayString(String[] children) {
+        return getStandardDisplayString("percentage", children);
+    }
+}
@@ -0,0 +1,132 @@
+package com.gou.hiveudf;
+
+/**
+ * @version 1.0
+ * @auther GouMi
+ */
+import com.gou.hiveudf.core.NumberArrayParser;
+
+import org.apache.hadoop.hive.ql.exec.Description;
+import org.apache.hadoop.hive.ql.exec.UDFArgumentException;
+import org.apache.hadoop.hive.ql.exec.UDFArgumentLengthException;
+import org.apache.hadoop.hive.ql.exec.UDFArgumentTypeException;
+import org.apache.hadoop.hive.ql.exec.vector.VectorizedExpressions;
+import org.apache.hadoop.hive.ql.metadata.HiveException;
+import org.apache.hadoop.hive.serde2.io.DoubleWritable;
+import org.apache.hadoop.hive.serde2.objectinspector.ObjectInspector;
+import org.apache.hadoop.hive.serde2.objectinspector.ObjectInspectorFactory;
+import org.apache.hadoop.hive.serde2.objectinspector.primitive.PrimitiveObjectInspectorFactory;
+import org.apache.hadoop.io.IntWritable;
+import org.apache.hadoop.io.LongWritable;
+import org.apache.hadoop.io.Writable;
+
+import java.util.ArrayList;
+
+@Description(name = "string_to_array",
+        value = "FUNC(str[, type]) - Parses an array string like '[1,2,3]' into array<type>",
+        extended = "type is 'int' (default), 'bigint' or 'double'. '[' and ']' are ignored and the elements are "
+                + "separated by ','. Blank elements, 'null' and elements that are not a number of the type are "
+                + "null. A blank or 'null' str returns null.\n"
+                + "Example:\n  > SELECT FUNC('[1, 2, null, 4]');\n  [1,2,null,4]\n"
+                + "  > SELECT FUNC('[0.5,1e3]', 'double');\n  [0.5,1000.0]")
+// 与 matchNWords2 相同, 注册为永久函数时向量化执行才会选择以下表达式
+@VectorizedExpressions({VectorUDFStringToArrayCol.class, VectorUDFStringToArrayColScalar.class})
+public class GenericUDFStringToArray extends InstrumentedGenericUDF {
+    private transient StringAccessor text;
+    private transient NumberArrayParser.ElementType type;
+    private transient NumberArrayParser parser;
+    // 元素 writable 按下标复用, result 中 null 元素不占用 writable
+    private transient ArrayList<Writable> elements;
+    private transient ArrayList<Object> result;
+
+    @Override
+    public ObjectInspector initialize(ObjectInspector[] arguments) throws UDFArgumentException {
+        if (arguments.length != 1 && arguments.length != 2) {
+            throw new UDFArgumentLengthException("The function string_to_array(str[, type]) takes 1 or 2 arguments.");
+        }
+        text = StringAccessor.of(arguments[0]);
+        if (text == null) {
+            throw new UDFArgumentTypeException(0, "The first argument of function string_to_array must be a string, but "
+                    + arguments[0].getTypeName() + " was given.");
+        }
+
+        type = NumberArrayParser.ElementType.INT;
+        if (arguments.length == 2) {
+            String name = UDFArgumentUtils.getConstantString(arguments[1], 1, "string_to_array", "type");
+            type = name == null ? null : NumberArrayParser.ElementType.of(name);
+            if (type == null) {
+                throw new UDFArgumentException("type of function string_to_array must be 'int', 'bigint' or 'double', but "
+                        + name + " was given.");
+            }
+        }
+        parser = new NumberArrayParser(type);
+        elements = new ArrayList<>();
+        result = new ArrayList<>();
+
+        ObjectInspector elementOI;
+        switch (type) {
+            case INT:
+                elementOI = PrimitiveObjectInspectorFactory.writableIntObjectInspector;
+                break;
+            case BIGINT:
+                elementOI = PrimitiveObjectInspectorFactory.writableLongObjectInspector;
+                break;
+            default:
+                elementOI = PrimitiveObjectInspectorFactory.writableDoubleObjectInspector;
+        }
+        return foldConstants(arguments, ObjectInspectorFactory.getStandardListObjectInspector(elementOI));
+    }
+
+    @Override
+    protected Object evaluateRow(DeferredObject[] arguments) throws HiveException {
+        if (!text.read(arguments[0].get())) {
+            metrics.nullInput();
+            return null;
+        }
+        metrics.inputSize(text.length());
+
+        int n = parser.parse(text.bytes(), text.start(), text.length());
+        if (n < 0) {
+            return null;
+        }
+        result.clear();
+        for (int i = 0; i < n; i++) {
+            if (parser.isNull(i)) {
+                result.add(null);
+                continue;
+            }
+            while (elements.size() <= i) {
+                elements.add(newElement());
+            }
+            Writable w = elements.get(i);
+            switch (type) {
+                case INT:
+                    ((IntWritable) w).set((int) parser.getLong(i));
+                    break;
+                case BIGINT:
+                    ((LongWritable) w).set(parser.getLong(i));
+                    break;
+                default:
+                    ((DoubleWritable) w).set(parser.getDouble(i));
+            }
+            result.add(w);
+        }
+        return result;
+    }
+
+    private Writable newElement() {
+        switch (type) {
+            case INT:
+                return new IntWritable();
+            case BIGINT:
+                return new LongWritable();
+            default:
+                return new DoubleWritable();
+        }
+    }
+
+    @Override
+    public String getDisplayString(String[] children) {
+        return getStandardDisplayString("string_to_array", children);
+    }
+}
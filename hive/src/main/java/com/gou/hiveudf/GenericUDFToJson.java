@@ -0,0 +1,388 @@
+package com.gou.hiveudf;
+
+import com.gou.hiveudf.core.JsonWriter;
+
+import org.apache.hadoop.hive.common.type.Timestamp;
+import org.apache.hadoop.hive.ql.exec.Description;
+import org.apache.hadoop.hive.ql.exec.UDFArgumentException;
+import org.apache.hadoop.hive.ql.exec.UDFArgumentLengthException;
+import org.apache.hadoop.hive.ql.exec.UDFArgumentTypeException;
+import org.apache.hadoop.hive.ql.metadata.HiveException;
+import org.apache.hadoop.hive.serde2.objectinspector.*;
+import org.apache.hadoop.hive.serde2.objectinspector.primitive.*;
+import org.joda.time.format.DateTimeFormatter;
+import org.joda.time.format.ISODateTimeFormat;
+
+import org.apache.hadoop.io.Text;
+
+import java.io.Serializable;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * @version 1.0
+ * @auther GouMi
+ */
+@Description(name = "to_json",
+        value = "FUNC(n0) - Creates a json string based on input ")
+public class GenericUDFToJson extends InstrumentedGenericUDF implements Serializable {
+    private transient InspectorHandler inspHandler;
+    // JSON 以 UTF-8 写入 core 的 JsonWriter, 它的缓冲区在行之间复用, 结果 Text 每行覆盖
+    private transient JsonWriter out;
+    private transient Text result;
+
+    @Override
+    protected Object evaluateRow(DeferredObject[] args) throws HiveException {
+        out.reset();
+        inspHandler.generateJson(out, args[0].get());
+        result.set(out.buffer(), 0, out.size());
+        return result;
+    }
+
+    @Override
+    public String getDisplayString(String[] args) {
+        return getStandardDisplayString("to_json", args);
+    }
+
+    @Override
+    public ObjectInspector initialize(ObjectInspector[] args)
+            throws UDFArgumentException {
+        if (args.length != 1) {
+            throw new UDFArgumentLengthException("The function to_json takes an object as an argument");
+        }
+        ObjectInspector oi = args[0];
+        if (oi.getCategory() == ObjectInspector.Category.PRIMITIVE) {
+            throw new UDFArgumentTypeException(0, "The function to_json takes only complex type");
+        }
+        inspHandler = generateInspectorHandler(oi);
+        out = new JsonWriter();
+        result = new Text();
+        return foldConstants(args, PrimitiveObjectInspectorFactory.writableStringObjectInspector);
+    }
+
+    private InspectorHandler generateInspectorHandler(ObjectInspector insp) throws UDFArgumentException {
+        ObjectInspector.Category cat = insp.getCategory();
+        switch (cat) {
+            case MAP:
+                return new MapInspectorHandler((MapObjectInspector) insp);
+            case LIST:
+                return new ArrayInspectorHandler((ListObjectInspector) insp);
+            case STRUCT:
+                return new StructInspectorHandler((StructObjectInspector) insp);
+            case PRIMITIVE:
+                PrimitiveObjectInspector primInsp = (PrimitiveObjectInspector) insp;
+                PrimitiveObjectInspector.PrimitiveCategory primCat = primInsp.getPrimitiveCategory();
+                switch (primCat) {
+                    case STRING:
+                    case VARCHAR:
+                    case CHAR:
+                        return new StringInspectorHandler(primInsp);
+                    case INT:
+                        return new IntInspectorHandler((IntObjectInspector) primInsp);
+                    case LONG:
+                        return new LongInspectorHandler((LongObjectInspector) primInsp);
+                    case SHORT:
+                        return new ShortInspectorHandler((ShortObjectInspector) primInsp);
+                    case BOOLEAN:
+                        return new BooleanInspectorHandler((BooleanObjectInspector) primInsp);
+                    case FLOAT:
+                        return new FloatInspectorHandler((FloatObjectInspector) primInsp);
+                    case DOUBLE:
+                        return new DoubleInspectorHandler((DoubleObjectInspector) primInsp);
+                    case BYTE:
+                        return new ByteInspectorHandler((ByteObjectInspector) primInsp);
+                    case BINARY:
+                        return new BinaryInspectorHandler((BinaryObjectInspector) primInsp);
+                    case TIMESTAMP:
+                        return new TimestampInspectorHandler((TimestampObjectInspector) primInsp);
+                    default:
+                        throw new UDFArgumentException("Don't know how to handle object inspector " + insp);
+                }
+            default:
+                throw new UDFArgumentException("Don't know how to handle object inspector " + insp);
+        }
+    }
+
+    private interface InspectorHandler {
+        void generateJson(JsonWriter out, Object obj);
+    }
+
+    private class MapInspectorHandler implements InspectorHandler {
+        private final MapObjectInspector mapInspector;
+        private final StringAccessor keyAccessor;
+        private final InspectorHandler valueInspector;
+
+        public MapInspectorHandler(MapObjectInspector mInsp) throws UDFArgumentException {
+            mapInspector = mInsp;
+            keyAccessor = StringAccessor.of(mInsp.getMapKeyObjectInspector());
+            if (keyAccessor == null) {
+                throw new UDFArgumentException("Only Maps with strings as keys can be converted to valid JSON");
+            }
+            valueInspector = generateInspectorHandler(mInsp.getMapValueObjectInspector());
+        }
+
+        @Override
+        public void generateJson(JsonWriter out, Object obj) {
+            if (obj == null) {
+                out.nullValue();
+            } else {
+                out.startObject();
+                Map<?, ?> map = mapInspector.getMap(obj);
+                for (Map.Entry<?, ?> entry : map.entrySet()) {
+                    // JSON 的字段名不能为 null, null key 写为 "null"
+                    if (keyAccessor.read(entry.getKey())) {
+                        out.fieldName(keyAccessor.bytes(), keyAccessor.start(), keyAccessor.length());
+                    } else {
+                        out.fieldName("null");
+                    }
+                    valueInspector.generateJson(out, entry.getValue());
+                }
+                out.endObject();
+            }
+        }
+    }
+
+    private class StructInspectorHandler implements InspectorHandler {
+        private final StructObjectInspector structInspector;
+        // 字段名只在这里编码一次
+        private final List<byte[]> fieldNames;
+        private final List<InspectorHandler> fieldInspectorHandlers;
+
+        public StructInspectorHandler(StructObjectInspector insp) throws UDFArgumentException {
+            structInspector = insp;
+            List<? extends StructField> fieldList = insp.getAllStructFieldRefs();
+            this.fieldNames = new ArrayList<>();
+            this.fieldInspectorHandlers = new ArrayList<>();
+            for (StructField sf : fieldList) {
+                fieldNames.add(sf.getFieldName().getBytes(StandardCharsets.UTF_8));
+                fieldInspectorHandlers.add(generateInspectorHandler(sf.getFieldObjectInspector()));
+            }
+        }
+
+        @Override
+        public void generateJson(JsonWriter out, Object obj) {
+            //// Interpret a struct as a map ...
+            if (obj == null) {
+                out.nullValue();
+            } else {
+                out.startObject();
+                List<Object> structObjs = structInspector.getStructFieldsDataAsList(obj);
+                for (int i = 0; i < fieldNames.size(); ++i) {
+                    byte[] fieldName = fieldNames.get(i);
+                    out.fieldName(fieldName, 0, fieldName.length);
+                    fieldInspectorHandlers.get(i).generateJson(out, structObjs.get(i));
+                }
+                out.endObject();
+            }
+        }
+    }
+
+    private class ArrayInspectorHandler implements InspectorHandler {
+        private final ListObjectInspector arrayInspector;
+        private final InspectorHandler valueInspector;
+
+        public ArrayInspectorHandler(ListObjectInspector lInsp) throws UDFArgumentException {
+            arrayInspector = lInsp;
+            valueInspector = generateInspectorHandler(arrayInspector.getListElementObjectInspector());
+        }
+
+        @Override
+        public void generateJson(JsonWriter out, Object obj) {
+            if (obj == null) {
+                out.nullValue();
+            } else {
+                out.startArray();
+                List<?> list = arrayInspector.getList(obj);
+                for (Object listObj : list) {
+                    valueInspector.generateJson(out, listObj);
+                }
+                out.endArray();
+            }
+        }
+    }
+
+    private class StringInspectorHandler implements InspectorHandler {
+        private final StringAccessor strAccessor;
+
+        public StringInspectorHandler(PrimitiveObjectInspector insp) {
+            strAccessor = StringAccessor.of(insp);
+        }
+
+        @Override
+        public void generateJson(JsonWriter out, Object obj) {
+            if (!strAccessor.read(obj)) {
+                out.nullValue();
+            } else {
+                // 直接转义 UTF-8 字节, 不解码成 String
+                out.string(strAccessor.bytes(), strAccessor.start(), strAccessor.length());
+            }
+        }
+    }
+
+    private class IntInspectorHandler implements InspectorHandler {
+        private final IntObjectInspector intInspector;
+
+        public IntInspectorHandler(IntObjectInspector insp) {
+            intInspector = insp;
+        }
+
+        @Override
+        public void generateJson(JsonWriter out, Object obj) {
+            if (obj == null)
+                out.nullValue();
+            else {
+                int num = intInspector.get(obj);
+                out.number(num);
+            }
+        }
+    }
+
+    private class DoubleInspectorHandler implements InspectorHandler {
+        private final DoubleObjectInspector dblInspector;
+
+        public DoubleInspectorHandler(DoubleObjectInspector insp) {
+            dblInspector = insp;
+        }
+
+        @Override
+        public void generateJson(JsonWriter out, Object obj) {
+            if (obj == null) {
+                out.nullValue();
+            } else {
+                double num = dblInspector.get(obj);
+                out.number(num);
+            }
+        }
+    }
+
+    private class LongInspectorHandler implements InspectorHandler {
+        private final LongObjectInspector longInspector;
+
+        public LongInspectorHandler(LongObjectInspector insp) {
+            longInspector = insp;
+        }
+
+        @Override
+        public void generateJson(JsonWriter out, Object obj) {
+            if (obj == null) {
+                out.nullValue();
+            } else {
+                long num = longInspector.get(obj);
+                out.number(num);
+            }
+        }
+    }
+
+    private class ShortInspectorHandler implements InspectorHandler {
+        private final ShortObjectInspector shortInspector;
+
+        public ShortInspectorHandler(ShortObjectInspector insp) {
+            shortInspector = insp;
+        }
+
+        @Override
+        public void generateJson(JsonWriter out, Object obj) {
+            if (obj == null) {
+                out.nullValue();
+            } else {
+                short num = shortInspector.get(obj);
+                out.number(num);
+            }
+        }
+    }
+
+    private class ByteInspectorHandler implements InspectorHandler {
+        private final ByteObjectInspector byteInspector;
+
+        public ByteInspectorHandler(ByteObjectInspector insp) {
+            byteInspector = insp;
+        }
+
+        @Override
+        public void generateJson(JsonWriter out, Object obj) {
+            if (obj == null) {
+                out.nullValue();
+            } else {
+                byte num = byteInspector.get(obj);
+                out.number(num);
+            }
+        }
+    }
+
+    private class FloatInspectorHandler implements InspectorHandler {
+        private final FloatObjectInspector floatInspector;
+
+        public FloatInspectorHandler(FloatObjectInspector insp) {
+            floatInspector = insp;
+        }
+
+        @Override
+        public void generateJson(JsonWriter out, Object obj) {
+            if (obj == null) {
+                out.nullValue();
+            } else {
+                float num = floatInspector.get(obj);
+                out.number(num);
+            }
+        }
+    }
+
+    private class BooleanInspectorHandler implements InspectorHandler {
+        private final BooleanObjectInspector boolInspector;
+
+        public BooleanInspectorHandler(BooleanObjectInspector insp) {
+            boolInspector = insp;
+        }
+
+        @Override
+        public void generateJson(JsonWriter out, Object obj) {
+            if (obj == null) {
+                out.nullValue();
+            } else {
+                boolean tf = boolInspector.get(obj);
+                out.bool(tf);
+            }
+        }
+    }
+
+    private class BinaryInspectorHandler implements InspectorHandler {
+        private final BinaryObjectInspector binaryInspector;
+
+        public BinaryInspectorHandler(BinaryObjectInspector insp) {
+            binaryInspector = insp;
+        }
+
+        @Override
+        public void generateJson(JsonWriter out, Object obj) {
+            if (obj == null) {
+                out.nullValue();
+            } else {
+                byte[] bytes = binaryInspector.getPrimitiveJavaObject(obj);
+                out.binary(bytes, 0, bytes.length);
+            }
+        }
+    }
+
+    private class TimestampInspectorHandler implements InspectorHandler {
+        private final TimestampObjectInspector timestampInspector;
+        // Hive 的 Timestamp 没有时区, toEpochMilli 按 UTC 解释, 也按 UTC 格式化, 不受 JVM 默认时区影响
+        private final DateTimeFormatter isoFormatter = ISODateTimeFormat.dateTimeNoMillis().withZoneUTC();
+
+        public TimestampInspectorHandler(TimestampObjectInspector insp) {
+            timestampInspector = insp;
+        }
+
+        @Override
+        public void generateJson(JsonWriter out, Object obj) {
+            if (obj == null) {
+                out.nullValue();
+            } else {
+                Timestamp timestamp = timestampInspector.getPrimitiveJavaObject(obj);
+                String timeStr = isoFormatter.print(timestamp.toEpochMilli());
+                out.string(timeStr);
+            }
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,118 @@
+package com.gou.hiveudf;
+
+/**
+ * @version 1.0
+ * @auther GouMi
+ */
+import com.gou.hiveudf.core.TokenSimilarity;
+
+import org.apache.hadoop.hive.ql.exec.UDFArgumentException;
+import org.apache.hadoop.hive.ql.exec.UDFArgumentLengthException;
+import org.apache.hadoop.hive.ql.exec.UDFArgumentTypeException;
+import org.apache.hadoop.hive.ql.metadata.HiveException;
+import org.apache.hadoop.hive.serde2.objectinspector.ConstantObjectInspector;
+import org.apache.hadoop.hive.serde2.objectinspector.ObjectInspector;
+import org.apache.hadoop.hive.serde2.objectinspector.ObjectInspectorUtils;
+import org.apache.hadoop.hive.serde2.objectinspector.primitive.PrimitiveObjectInspectorFactory;
+import org.apache.hadoop.hive.serde2.io.DoubleWritable;
+
+/**
+ * Common part of jaccard, dice and cosine_similarity: FUNC(str1, str2[, threshold]) returning a
+ * double computed by {@link TokenSimilarity} on the UTF-8 bytes of the arguments.
+ */
+public abstract class GenericUDFTokenSimilarity extends InstrumentedGenericUDF {
+    private transient StringAccessor[] accessors;
+    // 常量参数的下标, -1 表示没有常量参数
+    private transient int constantIndex;
+    private transient boolean constantIsNull;
+    private transient TokenSimilarity similarity;
+    private transient double threshold;
+    private transient DoubleWritable result;
+
+    protected abstract TokenSimilarity.Measure getMeasure();
+
+    protected abstract String getName();
+
+    @Override
+    public ObjectInspector initialize(ObjectInspector[] arguments) throws UDFArgumentException {
+        if (arguments.length != 2 && arguments.length != 3) {
+            throw new UDFArgumentLengthException(
+                    "The function " + getName() + "(str1, str2[, threshold]) takes 2 or 3 arguments.");
+        }
+        accessors = new StringAccessor[2];
+        for (int i = 0; i < accessors.length; i++) {
+            accessors[i] = StringAccessor.of(arguments[i]);
+            if (accessors[i] == null) {
+                throw new UDFArgumentTypeException(i, "The arguments of function " + getName()
+                        + " must be strings, but " + arguments[i].getTypeName() + " was given.");
+            }
+        }
+
+        threshold = 0;
+        if (arguments.length == 3) {
+            threshold = UDFArgumentUtils.getConstantDouble(arguments[2], 2, getName(), "threshold");
+            if (threshold < 0 || threshold > 1) {
+                throw new UDFArgumentException("threshold of function " + getName()
+                        + " must be between 0 and 1, but " + threshold + " was given.");
+            }
+        }
+        similarity = new TokenSimilarity(getMeasure());
+        result = new DoubleWritable();
+        // 如果有一个参数是常量, 只在这里处理一次, evaluate 中只处理另一个参数
+        constantIndex = -1;
+        for (int i = 0; i < accessors.length; i++) {
+            if (ObjectInspectorUtils.isConstantObjectInspector(arguments[i])) {
+                StringAccessor constant = accessors[i];
+                constantIndex = i;
+                constantIsNull = !constant.read(((ConstantObjectInspector) arguments[i]).getWritableConstantValue());
+                if (!constantIsNull) {
+                    similarity.prepare(constant.bytes(), constant.start(), constant.length());
+                }
+                break;
+            }
+        }
+        return foldConstants(arguments, PrimitiveObjectInspectorFactory.writableDoubleObjectInspector);
+    }
+
+    @Override
+    protected Object evaluateRow(DeferredObject[] arguments) throws HiveException {
+        if (constantIndex >= 0) {
+            return evaluateWithConstant(arguments[1 - constantIndex].get());
+        }
+
+        Object o1 = arguments[0].get();
+        Object o2 = arguments[1].get();
+        if (o1 == null || o2 == null) {
+            metrics.nullInput();
+            return null;
+        }
+        StringAccessor str1 = accessors[0];
+        StringAccessor str2 = accessors[1];
+        if (!str1.read(o1) || !str2.read(o2)) {
+            metrics.nullInput();
+            return null;
+        }
+        metrics.inputSize(str1.length() + str2.length());
+
+        result.set(similarity.similarity(str1.bytes(), str1.start(), str1.length(),
+                str2.bytes(), str2.start(), str2.length(), threshold));
+        return result;
+    }
+
+    private Object evaluateWithConstant(Object o) {
+        StringAccessor str = accessors[1 - constantIndex];
+        if (constantIsNull || !str.read(o)) {
+            metrics.nullInput();
+            return null;
+        }
+        metrics.inputSize(str.length());
+
+        result.set(similarity.similarityPrepared(str.bytes(), str.start(), str.length(), threshold));
+        return result;
+    }
+
+    @Override
+    public String getDisplayString(String[] children) {
+        return getStandardDisplayString(getName(), children);
+    }
+}
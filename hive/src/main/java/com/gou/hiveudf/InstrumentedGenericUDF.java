@@ -0,0 +1,137 @@
+package com.gou.hiveudf;
+
+/**
+ * @version 1.0
+ * @auther GouMi
+ */
+
+import org.apache.hadoop.hive.ql.exec.Description;
+import org.apache.hadoop.hive.ql.exec.MapredContext;
+import org.apache.hadoop.hive.ql.exec.UDFArgumentException;
+import org.apache.hadoop.hive.ql.metadata.HiveException;
+import org.apache.hadoop.hive.ql.udf.generic.GenericUDF;
+import org.apache.hadoop.hive.serde2.objectinspector.ConstantObjectInspector;
+import org.apache.hadoop.hive.serde2.objectinspector.ObjectInspector;
+import org.apache.hadoop.hive.serde2.objectinspector.ObjectInspectorUtils;
+
+import java.io.IOException;
+
+/**
+ * Base class of the GenericUDFs of this package, adding the opt-in {@link UDFMetrics}.
+ * <p>
+ * Hive calls {@link #configure} in a map or reduce task before initialize, and {@link #close}
+ * when the task ends. Without configure, e.g. in a local fetch task or for an instance
+ * deserialized from the plan, {@link #metrics} is disabled from initialize on. Subclasses implement {@link #evaluateRow} instead of evaluate and may report
+ * null inputs, input sizes and cache hits through {@link #metrics}; with metrics disabled these
+ * calls return right away.
+ * <p>
+ * initialize ends with {@link #foldConstants}, so a call with only constant arguments is
+ * evaluated once and returns a ConstantObjectInspector. Hive's initializeAndFoldConstants folds
+ * such calls itself, but Spark's HiveGenericUDF and other engines calling initialize directly
+ * only fold when initialize already returns a ConstantObjectInspector.
+ * <p>
+ * Results follow Hive's contract for GenericUDFs. The object returned by evaluate, and the lists
+ * and writables inside it, belong to the UDF instance and are only valid until its next
+ * evaluate; they may also hold argument objects of the row, which are valid as long. So
+ * subclasses reuse their result objects between rows, and whoever keeps a result beyond the row
+ * copies it with ObjectInspectorUtils.copyToStandardObject, as Hive's buffering operators (PTF
+ * partitions, join and group by keys, collect_list) already do. In the other direction, a UDF
+ * copies whatever it keeps from an argument beyond the row. The constant result of
+ * foldConstants is a copy and never reused.
+ * <p>
+ * Hive clones a UDF per operator and LLAP runs many fragments in one JVM, so the state of an
+ * instance is only used by one thread; it is allocated in initialize, field initializers do not
+ * run when an instance is deserialized. State shared between instances is static and immutable
+ * once loaded or thread safe, like the catalogs of best_match and the area map of extract_address.
+ */
+public abstract class InstrumentedGenericUDF extends GenericUDF {
+    protected transient UDFMetrics metrics = UDFMetrics.DISABLED;
+    // 所有参数都是常量时, 结果在 initialize 中算好, evaluate 直接返回
+    private transient boolean folded;
+    private transient Object constantResult;
+
+    @Override
+    public void configure(MapredContext context) {
+        metrics = UDFMetrics.create(getMetricsName(), context);
+    }
+
+    @Override
+    public final Object evaluate(DeferredObject[] arguments) throws HiveException {
+        if (folded) {
+            return constantResult;
+        }
+        long start = metrics.start();
+        Object result = evaluateRow(arguments);
+        metrics.end(start, result);
+        return result;
+    }
+
+    protected abstract Object evaluateRow(DeferredObject[] arguments) throws HiveException;
+
+    /**
+     * Called at the end of initialize. If all arguments are constant, evaluate the call once and
+     * return a ConstantObjectInspector holding a copy of the result, as the result objects of
+     * evaluateRow are reused; otherwise return returnOI unchanged.
+     * <p>
+     * UDFs reading required files leave the constant calls to evaluate, the files are not
+     * available when the query is compiled.
+     *
+     * @param returnOI the ObjectInspector initialize would return otherwise
+     */
+    protected final ObjectInspector foldConstants(ObjectInspector[] arguments, ObjectInspector returnOI)
+            throws UDFArgumentException {
+        // 反序列化的实例不运行字段的初始化, 没有调用 configure 时 metrics 为 null
+        if (metrics == null) {
+            metrics = UDFMetrics.DISABLED;
+        }
+        folded = false;
+        constantResult = null;
+        if (getRequiredFiles() != null || getRequiredJars() != null
+                || !ObjectInspectorUtils.supportsConstantObjectInspector(returnOI)) {
+            return returnOI;
+        }
+        DeferredObject[] values = new DeferredObject[arguments.length];
+        for (int i = 0; i < arguments.length; i++) {
+            if (arguments[i] != null && !ObjectInspectorUtils.isConstantObjectInspector(arguments[i])) {
+                return returnOI;
+            }
+            values[i] = new DeferredJavaObject(arguments[i] == null ? null
+                    : ((ConstantObjectInspector) arguments[i]).getWritableConstantValue());
+        }
+
+        // 常量折叠的这次计算不计入 metrics
+        UDFMetrics saved = metrics;
+        metrics = UDFMetrics.DISABLED;
+        Object result;
+        try {
+            result = evaluateRow(values);
+        } catch (HiveException e) {
+            throw new UDFArgumentException(e);
+        } finally {
+            metrics = saved;
+        }
+        ObjectInspector writableOI = ObjectInspectorUtils.getStandardObjectInspector(
+                returnOI, ObjectInspectorUtils.ObjectInspectorCopyOption.WRITABLE);
+        ConstantObjectInspector constantOI = ObjectInspectorUtils.getConstantObjectInspector(writableOI,
+                ObjectInspectorUtils.copyToStandardObject(result, returnOI,
+                        ObjectInspectorUtils.ObjectInspectorCopyOption.WRITABLE));
+        constantResult = constantOI.getWritableConstantValue();
+        folded = true;
+        return constantOI;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (metrics != null) {
+            metrics.close();
+        }
+    }
+
+    /**
+     * @return the function name of the @Description, the class name if there is none
+     */
+    protected String getMetricsName() {
+        Description description = getClass().getAnnotation(Description.class);
+        return description != null ? description.name() : getClass().getSimpleName();
+    }
+}
@@ -0,0 +1,162 @@
+package com.gou.hiveudf;
+
+/**
+ * @version 1.0
+ * @auther GouMi
+ */
+
+import org.apache.hadoop.hive.serde2.objectinspector.ObjectInspector;
+import org.apache.hadoop.hive.serde2.objectinspector.PrimitiveObjectInspector;
+import org.apache.hadoop.hive.serde2.objectinspector.primitive.ByteObjectInspector;
+import org.apache.hadoop.hive.serde2.objectinspector.primitive.DoubleObjectInspector;
+import org.apache.hadoop.hive.serde2.objectinspector.primitive.FloatObjectInspector;
+import org.apache.hadoop.hive.serde2.objectinspector.primitive.IntObjectInspector;
+import org.apache.hadoop.hive.serde2.objectinspector.primitive.LongObjectInspector;
+import org.apache.hadoop.hive.serde2.objectinspector.primitive.ShortObjectInspector;
+
+/**
+ * Reads tinyint, smallint, int, bigint, float and double arguments as unboxed long or double.
+ * <p>
+ * The primitive category is resolved once in initialize by {@link #of}, so a row costs one call of
+ * the typed get of the argument's ObjectInspector, which reads a Java, writable or lazy value
+ * without boxing. Values must not be null, callers check that first. Integral values are widened
+ * to long, floating point values are truncated by {@link #getLong}.
+ */
+public abstract class NumberAccessor {
+
+    /**
+     * @return the accessor for the argument, null if it is not one of the numeric types above
+     */
+    public static NumberAccessor of(ObjectInspector argument) {
+        if (argument.getCategory() != ObjectInspector.Category.PRIMITIVE) {
+            return null;
+        }
+        switch (((PrimitiveObjectInspector) argument).getPrimitiveCategory()) {
+            case BYTE:
+                return new ByteAccessor((ByteObjectInspector) argument);
+            case SHORT:
+                return new ShortAccessor((ShortObjectInspector) argument);
+            case INT:
+                return new IntAccessor((IntObjectInspector) argument);
+            case LONG:
+                return new LongAccessor((LongObjectInspector) argument);
+            case FLOAT:
+                return new FloatAccessor((FloatObjectInspector) argument);
+            case DOUBLE:
+                return new DoubleAccessor((DoubleObjectInspector) argument);
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * @return whether {@link #getLong} is exact, i.e. the type is integral
+     */
+    public abstract boolean isIntegral();
+
+    public abstract long getLong(Object o);
+
+    public abstract double getDouble(Object o);
+
+    private abstract static class IntegralAccessor extends NumberAccessor {
+        @Override
+        public boolean isIntegral() {
+            return true;
+        }
+
+        @Override
+        public double getDouble(Object o) {
+            return getLong(o);
+        }
+    }
+
+    private abstract static class FloatingAccessor extends NumberAccessor {
+        @Override
+        public boolean isIntegral() {
+            return false;
+        }
+
+        @Override
+        public long getLong(Object o) {
+            return (long) getDouble(o);
+        }
+    }
+
+    private static final class ByteAccessor extends IntegralAccessor {
+        private final ByteObjectInspector oi;
+
+        ByteAccessor(ByteObjectInspector oi) {
+            this.oi = oi;
+        }
+
+        @Override
+        public long getLong(Object o) {
+            return oi.get(o);
+        }
+    }
+
+    private static final class ShortAccessor extends IntegralAccessor {
+        private final ShortObjectInspector oi;
+
+        ShortAccessor(ShortObjectInspector oi) {
+            this.oi = oi;
+        }
+
+        @Override
+        public long getLong(Object o) {
+            return oi.get(o);
+        }
+    }
+
+    private static final class IntAccessor extends IntegralAccessor {
+        private final IntObjectInspector oi;
+
+        IntAccessor(IntObjectInspector oi) {
+            this.oi = oi;
+        }
+
+        @Override
+        public long getLong(Object o) {
+            return oi.get(o);
+        }
+    }
+
+    private static final class LongAccessor extends IntegralAccessor {
+        private final LongObjectInspector oi;
+
+        LongAccessor(LongObjectInspector oi) {
+            this.oi = oi;
+        }
+
+        @Override
+        public long getLong(Object o) {
+            return oi.get(o);
+        }
+    }
+
+    private static final class FloatAccessor extends FloatingAccessor {
+        private final FloatObjectInspector oi;
+
+        FloatAccessor(FloatObjectInspector oi) {
+            this.oi = oi;
+        }
+
+        @Override
+        public double getDouble(Object o) {
+            return oi.get(o);
+        }
+    }
+
+    private static final class DoubleAccessor extends FloatingAccessor {
+        private final DoubleObjectInspector oi;
+
+        DoubleAccessor(DoubleObjectInspector oi) {
+            this.oi = oi;
+        }
+
+        @Override
+        public double getDouble(Object o) {
+            return oi.get(o);
+        }
+    }
+}
@@ -0,0 +1,258 @@
+package com.gou.hiveudf;
+
+/**
+ * @version 1.0
+ * @auther GouMi
+ */
+
+import org.apache.hadoop.hive.common.type.HiveChar;
+import org.apache.hadoop.hive.common.type.HiveVarchar;
+import org.apache.hadoop.hive.serde2.io.HiveCharWritable;
+import org.apache.hadoop.hive.serde2.io.HiveVarcharWritable;
+import org.apache.hadoop.hive.serde2.objectinspector.ObjectInspector;
+import org.apache.hadoop.hive.serde2.objectinspector.primitive.AbstractPrimitiveJavaObjectInspector;
+import org.apache.hadoop.hive.serde2.objectinspector.primitive.HiveCharObjectInspector;
+import org.apache.hadoop.hive.serde2.objectinspector.primitive.HiveVarcharObjectInspector;
+import org.apache.hadoop.hive.serde2.objectinspector.primitive.StringObjectInspector;
+import org.apache.hadoop.io.Text;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Reads string, char and varchar arguments as UTF-8 byte ranges, the form the tokenizers and
+ * parsers of this package work on.
+ * <p>
+ * The way to read is chosen once in initialize by {@link #of}: writable and lazy values are read
+ * in place from their Text without copying, Java Strings are encoded into a reused buffer without
+ * allocating. Char values are read without their padding spaces. After {@link #read} returned
+ * true, {@link #bytes}, {@link #start} and {@link #length} describe the value until the next read.
+ * An instance belongs to one argument of one UDF instance and is not thread safe.
+ */
+public abstract class StringAccessor {
+    protected byte[] bytes;
+    protected int start;
+    protected int length;
+
+    /**
+     * @return whether the argument is a string, char or varchar that {@link #of} can read
+     */
+    public static boolean isString(ObjectInspector argument) {
+        return argument instanceof StringObjectInspector
+                || argument instanceof HiveVarcharObjectInspector
+                || argument instanceof HiveCharObjectInspector;
+    }
+
+    /**
+     * @return the accessor for the argument, null if it is not a string, char or varchar
+     */
+    public static StringAccessor of(ObjectInspector argument) {
+        boolean java = argument instanceof AbstractPrimitiveJavaObjectInspector;
+        if (argument instanceof StringObjectInspector) {
+            StringObjectInspector oi = (StringObjectInspector) argument;
+            return java ? new JavaStringAccessor(oi) : new TextAccessor(oi);
+        }
+        if (argument instanceof HiveVarcharObjectInspector) {
+            HiveVarcharObjectInspector oi = (HiveVarcharObjectInspector) argument;
+            return java ? new JavaVarcharAccessor(oi) : new VarcharAccessor(oi);
+        }
+        if (argument instanceof HiveCharObjectInspector) {
+            HiveCharObjectInspector oi = (HiveCharObjectInspector) argument;
+            return java ? new JavaCharAccessor(oi) : new CharAccessor(oi);
+        }
+        return null;
+    }
+
+    /**
+     * Read the value of a row.
+     *
+     * @param o the argument's value, may be null
+     * @return false if the value is null
+     */
+    public abstract boolean read(Object o);
+
+    public byte[] bytes() {
+        return bytes;
+    }
+
+    public int start() {
+        return start;
+    }
+
+    public int length() {
+        return length;
+    }
+
+    /**
+     * @return the value read as a String, decoded unless it was a Java String
+     */
+    public String string() {
+        return new String(bytes, start, length, StandardCharsets.UTF_8);
+    }
+
+    protected final boolean set(Text text) {
+        if (text == null) {
+            return false;
+        }
+        bytes = text.getBytes();
+        start = 0;
+        length = text.getLength();
+        return true;
+    }
+
+    private static final class TextAccessor extends StringAccessor {
+        private final StringObjectInspector oi;
+
+        TextAccessor(StringObjectInspector oi) {
+            this.oi = oi;
+        }
+
+        @Override
+        public boolean read(Object o) {
+            // writable 与 lazy 的 getPrimitiveWritableObject 都返回其内部的 Text, 不复制
+            return o != null && set(oi.getPrimitiveWritableObject(o));
+        }
+    }
+
+    private static final class VarcharAccessor extends StringAccessor {
+        private final HiveVarcharObjectInspector oi;
+
+        VarcharAccessor(HiveVarcharObjectInspector oi) {
+            this.oi = oi;
+        }
+
+        @Override
+        public boolean read(Object o) {
+            if (o == null) {
+                return false;
+            }
+            HiveVarcharWritable writable = oi.getPrimitiveWritableObject(o);
+            return writable != null && set(writable.getTextValue());
+        }
+    }
+
+    private static final class CharAccessor extends StringAccessor {
+        private final HiveCharObjectInspector oi;
+
+        CharAccessor(HiveCharObjectInspector oi) {
+            this.oi = oi;
+        }
+
+        @Override
+        public boolean read(Object o) {
+            if (o == null) {
+                return false;
+            }
+            HiveCharWritable writable = oi.getPrimitiveWritableObject(o);
+            if (writable == null || !set(writable.getTextValue())) {
+                return false;
+            }
+            // 与 Hive 的字符串函数一致, char 的补齐空格不算内容
+            while (length > 0 && bytes[length - 1] == ' ') {
+                length--;
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Encodes Java Strings into a reused buffer, keeping the String for {@link #string}.
+     */
+    private abstract static class EncodingAccessor extends StringAccessor {
+        private String value;
+
+        EncodingAccessor() {
+            bytes = new byte[64];
+        }
+
+        protected final boolean encode(String s) {
+            if (s == null) {
+                return false;
+            }
+            value = s;
+            start = 0;
+            length = 0;
+            // 每个 char 最多编码为 3 个字节, 代理对的 2 个 char 编码为 4 个字节
+            if (bytes.length < s.length() * 3) {
+                bytes = new byte[Math.max(s.length() * 3, bytes.length * 2)];
+            }
+            int n = 0;
+            for (int i = 0; i < s.length(); i++) {
+                char c = s.charAt(i);
+                if (c < 0x80) {
+                    bytes[n++] = (byte) c;
+                } else if (c < 0x800) {
+                    bytes[n++] = (byte) (0xC0 | c >> 6);
+                    bytes[n++] = (byte) (0x80 | c & 0x3F);
+                } else if (Character.isHighSurrogate(c) && i + 1 < s.length()
+                        && Character.isLowSurrogate(s.charAt(i + 1))) {
+                    int cp = Character.toCodePoint(c, s.charAt(++i));
+                    bytes[n++] = (byte) (0xF0 | cp >> 18);
+                    bytes[n++] = (byte) (0x80 | cp >> 12 & 0x3F);
+                    bytes[n++] = (byte) (0x80 | cp >> 6 & 0x3F);
+                    bytes[n++] = (byte) (0x80 | cp & 0x3F);
+                } else if (Character.isSurrogate(c)) {
+                    // 不成对的代理编码为 '?', 与 String.getBytes 相同
+                    bytes[n++] = '?';
+                } else {
+                    bytes[n++] = (byte) (0xE0 | c >> 12);
+                    bytes[n++] = (byte) (0x80 | c >> 6 & 0x3F);
+                    bytes[n++] = (byte) (0x80 | c & 0x3F);
+                }
+            }
+            length = n;
+            return true;
+        }
+
+        @Override
+        public String string() {
+            return value;
+        }
+    }
+
+    private static final class JavaStringAccessor extends EncodingAccessor {
+        private final StringObjectInspector oi;
+
+        JavaStringAccessor(StringObjectInspector oi) {
+            this.oi = oi;
+        }
+
+        @Override
+        public boolean read(Object o) {
+            return o != null && encode(oi.getPrimitiveJavaObject(o));
+        }
+    }
+
+    private static final class JavaVarcharAccessor extends EncodingAccessor {
+        private final HiveVarcharObjectInspector oi;
+
+        JavaVarcharAccessor(HiveVarcharObjectInspector oi) {
+            this.oi = oi;
+        }
+
+        @Override
+        public boolean read(Object o) {
+            if (o == null) {
+                return false;
+            }
+            HiveVarchar varchar = oi.getPrimitiveJavaObject(o);
+            return varchar != null && encode(varchar.getValue());
+        }
+    }
+
+    private static final class JavaCharAccessor extends EncodingAccessor {
+        private final HiveCharObjectInspector oi;
+
+        JavaCharAccessor(HiveCharObjectInspector oi) {
+            this.oi = oi;
+        }
+
+        @Override
+        public boolean read(Object o) {
+            if (o == null) {
+                return false;
+            }
+            HiveChar value = oi.getPrimitiveJavaObject(o);
+            return value != null && encode(value.getStrippedValue());
+        }
+    }
+}
@@ -0,0 +1,181 @@
+package com.gou.hiveudf;
+
+import org.apache.hadoop.hive.ql.exec.UDF;
+import org.apache.hadoop.io.IntWritable;
+import org.apache.hadoop.io.Text;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 将数组格式的字符串 转成 整型数组
+ * 单次扫描、支持 bigint/double 且把空白和 null 元素转成 null 的版本见 {@link GenericUDFStringToArray}
+ * @author tzq
+ */
+public final class StringToArray extends UDF {
+
+    private static final String NULL_STRING = "null";
+
+    // 返回的 list 与其中的 IntWritable 每行复用
+    private final ArrayList<IntWritable> elements = new ArrayList<>();
+    private final ArrayList<IntWritable> result = new ArrayList<>();
+    private byte[] field = new byte[16];
+    // GenericUDFBridge 不调用 configure, 第一次 evaluate 时创建
+    private UDFMetrics metrics;
+
+    /**
+     * 如果想最后hive的数据格式是struct<>, 返回值是Integer[]的。
+     * 参数为 Text 时 GenericUDFBridge 直接传入 writable; ASCII 的输入在字节上解析, 结果与
+     * replace("[","").replace("]","").split(",") 再 Integer.parseInt 相同, 非法元素同样抛出 NumberFormatException.
+     * @param sourceText     :源字符串
+     * @return
+     */
+    public List<IntWritable> evaluate(Text sourceText) {
+        if (metrics == null) {
+            metrics = BridgedUDFMetrics.create("StringToArray");
+        }
+        long start = metrics.start();
+        List<IntWritable> list;
+        if (sourceText == null) {
+            metrics.nullInput();
+            list = null;
+        } else {
+            metrics.inputSize(sourceText.getLength());
+            list = toArray(sourceText);
+        }
+        metrics.end(start, list);
+        return list;
+    }
+
+    private List<IntWritable> toArray(Text sourceText) {
+        byte[] bytes = sourceText.getBytes();
+        int length = sourceText.getLength();
+        boolean blank = true;
+        for (int i = 0; i < length; i++) {
+            if (bytes[i] < 0) {
+                // 非 ASCII 的空白和数字由 Character 判断, 按原来的方式处理
+                return parse(sourceText.toString());
+            }
+            blank &= Character.isWhitespace(bytes[i]);
+        }
+        if (blank || isNullString(bytes, length)) {
+            return null;
+        }
+
+        result.clear();
+        int fieldLength = 0;
+        // 尚未确定是否在末尾的空元素个数, split 会丢弃末尾的空元素
+        int emptyFields = 0;
+        boolean split = false;
+        for (int i = 0; i <= length; i++) {
+            byte b = i < length ? bytes[i] : (byte) ',';
+            if (b == '[' || b == ']') {
+                continue;
+            }
+            if (b != ',') {
+                if (fieldLength == field.length) {
+                    byte[] grown = new byte[field.length * 2];
+                    System.arraycopy(field, 0, grown, 0, fieldLength);
+                    field = grown;
+                }
+                field[fieldLength++] = b;
+                continue;
+            }
+            split |= i < length;
+            if (fieldLength == 0) {
+                emptyFields++;
+                continue;
+            }
+            if (emptyFields > 0) {
+                // 非末尾的空元素, Integer.parseInt("") 的异常
+                throw new NumberFormatException("For input string: \"\"");
+            }
+            add(parseInt(field, fieldLength));
+            fieldLength = 0;
+        }
+        // 没有 ',' 时 split 返回原字符串, 去掉括号后为空时 parseInt 失败
+        if (!split && result.isEmpty()) {
+            throw new NumberFormatException("For input string: \"\"");
+        }
+        return result;
+    }
+
+    private List<IntWritable> parse(String sourceText) {
+        if (isBlank(sourceText)) {
+            return null;
+        }
+        if (NULL_STRING.equalsIgnoreCase(sourceText)) {
+            return null;
+        }
+
+        String[] arr1 = sourceText.replace("[","").replace("]","").split(",");
+        result.clear();
+
+        for(int i = 0; i < arr1.length; i++) {
+            add(Integer.parseInt(arr1[i]));
+        }
+
+        return result;
+    }
+
+    private void add(int value) {
+        int i = result.size();
+        while (elements.size() <= i) {
+            elements.add(new IntWritable());
+        }
+        IntWritable w = elements.get(i);
+        w.set(value);
+        result.add(w);
+    }
+
+    private static boolean isNullString(byte[] bytes, int length) {
+        if (length != NULL_STRING.length()) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if ((bytes[i] | 0x20) != NULL_STRING.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Integer.parseInt on ASCII bytes; anything but an optional sign and up to 9 digits is left to
+     * Integer.parseInt itself, which gives the same value or exception.
+     */
+    private static int parseInt(byte[] bytes, int length) {
+        int i = bytes[0] == '-' || bytes[0] == '+' ? 1 : 0;
+        if (length > i && length - i <= 9) {
+            int value = 0;
+            for (; i < length; i++) {
+                int digit = bytes[i] - '0';
+                if (digit < 0 || digit > 9) {
+                    break;
+                }
+                value = value * 10 + digit;
+            }
+            if (i == length) {
+                return bytes[0] == '-' ? -value : value;
+            }
+        }
+        return Integer.parseInt(new String(bytes, 0, length, StandardCharsets.US_ASCII));
+    }
+
+    public static boolean isBlank(String str) {
+        int strLen;
+        if (str != null && (strLen = str.length()) != 0) {
+            for(int i = 0; i < strLen; ++i) {
+                if (!Character.isWhitespace(str.charAt(i))) {
+                    return false;
+                }
+            }
+
+            return true;
+        } else {
+            return true;
+        }
+    }
+
+}
@@ -0,0 +1,77 @@
+package com.gou.hiveudf;
+
+/**
+ * @version 1.0
+ * @auther GouMi
+ */
+import org.apache.hadoop.hive.ql.exec.UDFArgumentException;
+import org.apache.hadoop.hive.ql.exec.UDFArgumentTypeException;
+import org.apache.hadoop.hive.serde2.objectinspector.ConstantObjectInspector;
+import org.apache.hadoop.hive.serde2.objectinspector.ObjectInspector;
+import org.apache.hadoop.hive.serde2.objectinspector.ObjectInspectorUtils;
+import org.apache.hadoop.hive.serde2.objectinspector.PrimitiveObjectInspector;
+import org.apache.hadoop.hive.serde2.objectinspector.primitive.PrimitiveObjectInspectorUtils;
+
+/**
+ * Checks for constant arguments that configure a UDF in initialize, e.g. sizes of reused arrays.
+ */
+public final class UDFArgumentUtils {
+    private UDFArgumentUtils() {
+    }
+
+    /**
+     * Read a positive constant integer argument.
+     *
+     * @param argument the argument's ObjectInspector
+     * @param position position of the argument, for the error message
+     * @param function function name, for the error message
+     * @param name argument name, for the error message
+     */
+    public static int getConstantInt(ObjectInspector argument, int position, String function, String name)
+            throws UDFArgumentException {
+        if (!ObjectInspectorUtils.isConstantObjectInspector(argument)
+                || argument.getCategory() != ObjectInspector.Category.PRIMITIVE) {
+            throw new UDFArgumentTypeException(position,
+                    name + " of function " + function + " must be a constant integer.");
+        }
+        Object value = ((ConstantObjectInspector) argument).getWritableConstantValue();
+        int n = value == null ? 0 : PrimitiveObjectInspectorUtils.getInt(value, (PrimitiveObjectInspector) argument);
+        if (n <= 0) {
+            throw new UDFArgumentException(name + " of function " + function + " must be positive, but "
+                    + n + " was given.");
+        }
+        return n;
+    }
+
+    /**
+     * Read a constant numeric argument as a double.
+     *
+     * @return the value, 0 for a constant null
+     */
+    public static double getConstantDouble(ObjectInspector argument, int position, String function, String name)
+            throws UDFArgumentException {
+        if (!ObjectInspectorUtils.isConstantObjectInspector(argument)
+                || argument.getCategory() != ObjectInspector.Category.PRIMITIVE) {
+            throw new UDFArgumentTypeException(position,
+                    name + " of function " + function + " must be a constant number.");
+        }
+        Object value = ((ConstantObjectInspector) argument).getWritableConstantValue();
+        return value == null ? 0 : PrimitiveObjectInspectorUtils.getDouble(value, (PrimitiveObjectInspector) argument);
+    }
+
+    /**
+     * Read a constant string, char or varchar argument; a char is read without its padding spaces.
+     *
+     * @return the value, null for a constant null
+     */
+    public static String getConstantString(ObjectInspector argument, int position, String function, String name)
+            throws UDFArgumentException {
+        if (!StringAccessor.isString(argument) || !ObjectInspectorUtils.isConstantObjectInspector(argument)) {
+            throw new UDFArgumentTypeException(position,
+                    name + " of function " + function + " must be a constant string, but "
+                            + argument.getTypeName() + " was given.");
+        }
+        StringAccessor accessor = StringAccessor.of(argument);
+        return accessor.read(((ConstantObjectInspector) argument).getWritableConstantValue()) ? accessor.string() : null;
+    }
+}
@@ -0,0 +1,127 @@
+package com.gou.hiveudf;
+
+/**
+ * @version 1.0
+ * @auther GouMi
+ */
+
+
+import com.gou.hiveudf.core.WordMatcher;
+import com.gou.hiveudf.core.WordTokenizer;
+
+import org.apache.hadoop.hive.ql.exec.Description;
+import org.apache.hadoop.hive.ql.exec.UDF;
+import org.apache.hadoop.hive.ql.exec.vector.VectorizedExpressions;
+import org.apache.hadoop.io.IntWritable;
+import org.apache.hadoop.io.Text;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+@Description(name = "matchNWords",
+        value = "FUNC(str1, str2[, delimiters]) - Return the count of the matched words between str1 and str2",
+        extended = "Each char of delimiters separates English words in addition to spaces and \\t.")
+// 注册为永久函数(CREATE FUNCTION ... USING JAR)时, 向量化执行会选择以下表达式; 临时函数仍由 VectorUDFAdaptor 逐行调用
+@VectorizedExpressions({VectorUDFMatchNWordsColCol.class,
+        VectorUDFMatchNWordsColScalar.class, VectorUDFMatchNWordsScalarCol.class})
+public class UDFMatchNWords extends UDF {
+    private final WordMatcher matcher = new WordMatcher();
+    private final IntWritable result = new IntWritable();
+    // 按分隔符编译好的 matcher, 分隔符通常是常量, 只在其变化时重新编译
+    private final Text lastDelimiters = new Text();
+    private WordMatcher delimitedMatcher;
+    // GenericUDFBridge 不调用 configure, 第一次 evaluate 时创建
+    private UDFMetrics metrics;
+
+    /**
+     * return the count of match words between str1 and str2
+     *
+     * @param str1
+     * @param str2
+     * @return match words count
+     */
+    public IntWritable evaluate(Text str1, Text str2) {
+        return match(matcher, str1, str2);
+    }
+
+    /**
+     * return the count of match words between str1 and str2, also splitting English words at delimiters
+     *
+     * @param str1
+     * @param str2
+     * @param delimiters each char separates English words in addition to spaces and \t
+     * @return match words count
+     */
+    public IntWritable evaluate(Text str1, Text str2, Text delimiters) {
+        if (delimiters == null) {
+            return match(matcher, str1, str2);
+        }
+
+        if (delimitedMatcher == null || !delimiters.equals(lastDelimiters)) {
+            delimitedMatcher = new WordMatcher(delimiters.toString().toCharArray());
+            lastDelimiters.set(delimiters);
+        }
+        return match(delimitedMatcher, str1, str2);
+    }
+
+    private IntWritable match(WordMatcher wordMatcher, Text str1, Text str2) {
+        if (metrics == null) {
+            metrics = BridgedUDFMetrics.create("matchNWords");
+        }
+        long start = metrics.start();
+        IntWritable count = null;
+        if (str1 == null || str2 == null) {
+            metrics.nullInput();
+        } else {
+            metrics.inputSize(str1.getLength() + str2.getLength());
+            // 参数为 Text 时 GenericUDFBridge 直接传入 writable, 在 UTF-8 字节上分词, 不解码成 String
+            result.set(wordMatcher.match(str1.getBytes(), 0, str1.getLength(), str2.getBytes(), 0, str2.getLength()));
+            count = result;
+        }
+        metrics.end(start, count);
+        return count;
+    }
+
+    /**
+     * Convert List To Map. The Key is word, and the value is the count of word.
+     *
+     * @param list
+     * @return Map<String, Integer>
+     */
+    public static Map<String, Integer> convertListToMap(List<String> list) {
+        return list.stream().collect(Collectors.toMap(
+                String::toString, v -> 1, (v1, v2) -> (v1 + v2)
+        ));
+    }
+
+    /**
+     * Split String to Words. 英文以一个单词作为word, 中文以单个字作为word.
+     * 只用于需要得到单词本身的场景, evaluate 直接在 {@link WordTokenizer} 的区间上计算, 不会生成 String.
+     *
+     * @param src
+     * @return ArrayList<String>
+     */
+    public static ArrayList<String> splitWords(String src) {
+        return splitWords(src, null);
+    }
+
+    /**
+     * Split String to Words, chars in delimiters also separate English words.
+     *
+     * @param src
+     * @param delimiters 英文单词的分隔符, 空格以及\t 总是分隔符
+     * @return ArrayList<String>
+     */
+    public static ArrayList<String> splitWords(String src, char[] delimiters) {
+        WordTokenizer tokenizer = new WordTokenizer(delimiters);
+        int n = tokenizer.tokenize(src);
+
+        ArrayList<String> result = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            result.add(src.substring(tokenizer.start(i), tokenizer.end(i)));
+        }
+        return result;
+    }
+}
@@ -0,0 +1,168 @@
+package com.gou.hiveudf;
+
+/**
+ * @version 1.0
+ * @auther GouMi
+ */
+import com.gou.hiveudf.core.WordMatcher;
+
+import org.apache.hadoop.hive.ql.exec.Description;
+import org.apache.hadoop.hive.ql.exec.UDFArgumentException;
+import org.apache.hadoop.hive.ql.exec.UDFArgumentLengthException;
+import org.apache.hadoop.hive.ql.exec.UDFArgumentTypeException;
+import org.apache.hadoop.hive.ql.exec.vector.VectorizedExpressions;
+import org.apache.hadoop.hive.ql.metadata.HiveException;
+import org.apache.hadoop.hive.serde2.objectinspector.ConstantObjectInspector;
+import org.apache.hadoop.hive.serde2.objectinspector.ObjectInspector;
+import org.apache.hadoop.hive.serde2.objectinspector.ObjectInspectorUtils;
+import org.apache.hadoop.hive.serde2.objectinspector.primitive.PrimitiveObjectInspectorFactory;
+import org.apache.hadoop.io.IntWritable;
+
+@Description(name = "matchNWords2",
+        value = "FUNC(str1, str2[, delimiters][, n[, mode]]) - Return the count of the matched words between str1 and str2",
+        extended = "delimiters is a constant string, char or varchar, each of its chars separates English words in addition to "
+                + "spaces and \\t.\n"
+                + "n is a constant integer, with n > 1 n-grams of n consecutive words are matched instead of words. "
+                + "mode is 'word' (default) for grams over all words, or 'char' for grams of n consecutive chars "
+                + "within each run of Chinese chars, English words then stay single grams. "
+                + "Text shorter than n words is one gram.\n"
+                + "Example:\n  > SELECT FUNC('usb-c/lightning cable', 'usb-c cable', '-/');\n  3\n"
+                + "  > SELECT FUNC('new york city', 'york new city', 2);\n  0\n"
+                + "  > SELECT FUNC('北京市朝阳区', '朝阳区北京市', 2, 'char');\n  4")
+// 注册为永久函数(CREATE FUNCTION ... USING JAR)时, 向量化执行会选择以下表达式; 临时函数仍由 VectorUDFAdaptor 逐行调用
+@VectorizedExpressions({VectorUDFMatchNWordsColCol.class,
+        VectorUDFMatchNWordsColScalar.class, VectorUDFMatchNWordsScalarCol.class})
+public class UDFMatchNWords2 extends InstrumentedGenericUDF {
+    private transient StringAccessor[] accessors;
+    private transient WordMatcher matcher;
+    private transient IntWritable result;
+    // 常量参数的下标, -1 表示没有常量参数
+    private transient int constantIndex;
+    private transient boolean constantIsNull;
+
+    @Override
+    public ObjectInspector initialize(ObjectInspector[] arguments) throws UDFArgumentException {
+        if (arguments.length < 2 || arguments.length > 5) {
+            throw new UDFArgumentLengthException("matchNWords2 UDF requires two to five arguments.");
+        }
+
+        accessors = new StringAccessor[2];
+        for (int i = 0; i < accessors.length; i++) {
+            accessors[i] = StringAccessor.of(arguments[i]);
+            if (accessors[i] == null) {
+                throw new UDFArgumentTypeException(i, "The arguments of function matchNWords2 must be strings, but "
+                        + arguments[i].getTypeName() + " was given.");
+            }
+        }
+        // 可选参数按类型区分: 字符串(包括 char 和 varchar)为 delimiters, 整数为 n, n 之后的字符串为 mode
+        int next = 2;
+        char[] delimiters = null;
+        if (next < arguments.length && StringAccessor.isString(arguments[next])) {
+            delimiters = getDelimiters(arguments[next++]);
+        }
+        int n = 1;
+        boolean shingles = false;
+        if (next < arguments.length) {
+            n = UDFArgumentUtils.getConstantInt(arguments[next], next, "matchNWords2", "n");
+            next++;
+            if (next < arguments.length) {
+                shingles = isCharMode(arguments[next], next);
+                next++;
+            }
+        }
+        if (next < arguments.length) {
+            throw new UDFArgumentLengthException("matchNWords2 UDF takes at most str1, str2, delimiters, n and mode.");
+        }
+        matcher = new WordMatcher(delimiters, n, shingles);
+        result = new IntWritable();
+
+        // 如果有一个参数是常量, 只在这里分词计数一次, evaluate 中只处理另一个参数
+        constantIndex = -1;
+        for (int i = 0; i < accessors.length; i++) {
+            if (ObjectInspectorUtils.isConstantObjectInspector(arguments[i])) {
+                Object value = ((ConstantObjectInspector) arguments[i]).getWritableConstantValue();
+                StringAccessor constant = accessors[i];
+                constantIndex = i;
+                constantIsNull = !constant.read(value);
+                if (!constantIsNull) {
+                    matcher.prepare(constant.bytes(), constant.start(), constant.length());
+                }
+                break;
+            }
+        }
+
+        return foldConstants(arguments, PrimitiveObjectInspectorFactory.writableIntObjectInspector);
+    }
+
+    /**
+     * The delimiters are compiled into the tokenizer's class table once, so they must be constant.
+     */
+    private static char[] getDelimiters(ObjectInspector argument) throws UDFArgumentException {
+        String delimiters = UDFArgumentUtils.getConstantString(argument, 2, "matchNWords2", "delimiters");
+        return delimiters == null ? null : delimiters.toCharArray();
+    }
+
+    private static boolean isCharMode(ObjectInspector argument, int position) throws UDFArgumentException {
+        String mode = UDFArgumentUtils.getConstantString(argument, position, "matchNWords2", "mode");
+        if (mode == null || mode.equalsIgnoreCase("word")) {
+            return false;
+        }
+        if (mode.equalsIgnoreCase("char")) {
+            return true;
+        }
+        throw new UDFArgumentException("mode of function matchNWords2 must be 'word' or 'char', but '"
+                + mode + "' was given.");
+    }
+
+    /**
+     * return the count of match words between str1 and str2
+     *
+     * @return match words count
+     */
+    @Override
+    protected Object evaluateRow(DeferredObject[] arguments) throws HiveException {
+        if (constantIndex >= 0) {
+            return evaluateWithConstant(arguments[1 - constantIndex].get());
+        }
+
+        Object o1 = arguments[0].get();
+        Object o2 = arguments[1].get();
+        if (o1 == null || o2 == null) {
+            metrics.nullInput();
+            return null;
+        }
+
+        // 直接在 UTF-8 字节上分词, 对 writable/lazy 的输入不会解码成 String
+        StringAccessor str1 = accessors[0];
+        StringAccessor str2 = accessors[1];
+        if (!str1.read(o1) || !str2.read(o2)) {
+            metrics.nullInput();
+            return null;
+        }
+        metrics.inputSize(str1.length() + str2.length());
+
+        result.set(matcher.match(str1.bytes(), str1.start(), str1.length(), str2.bytes(), str2.start(), str2.length()));
+        return result;
+    }
+
+    private Object evaluateWithConstant(Object o) {
+        if (constantIsNull || o == null) {
+            metrics.nullInput();
+            return null;
+        }
+        StringAccessor str = accessors[1 - constantIndex];
+        if (!str.read(o)) {
+            metrics.nullInput();
+            return null;
+        }
+        metrics.inputSize(str.length());
+
+        result.set(matcher.matchPrepared(str.bytes(), str.start(), str.length()));
+        return result;
+    }
+
+    @Override
+    public String getDisplayString(String[] children) {
+        return getStandardDisplayString("matchNWords2", children);
+    }
+}
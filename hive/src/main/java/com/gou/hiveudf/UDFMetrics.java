@@ -0,0 +1,207 @@
+package com.gou.hiveudf;
+
+/**
+ * @version 1.0
+ * @auther GouMi
+ */
+
+import org.apache.hadoop.hive.ql.exec.MapredContext;
+import org.apache.hadoop.mapred.JobConf;
+import org.apache.hadoop.mapred.Reporter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Runtime statistics of one UDF instance, opt-in with {@code SET hiveudf.metrics.enabled=true}.
+ * <p>
+ * Counted are the rows, null inputs and null results, the input sizes (string bytes or array
+ * lengths, whatever the UDF reports) and cache hits and misses. The time of every
+ * {@code hiveudf.metrics.sample.interval}-th row (default 64) is measured with System.nanoTime,
+ * which keeps the overhead to a counter increment and a branch for the other rows; the total
+ * time is extrapolated from the samples. Sizes and sampled times go into power of two histograms.
+ * <p>
+ * On close the totals are added to the task counters of group {@value #COUNTER_GROUP}, named
+ * "&lt;function&gt;.rows" etc., and a one-line summary is logged. Without a reporter, e.g. in a
+ * local fetch task, only the summary is logged. When disabled every method returns right away.
+ * An instance belongs to one UDF instance and is not thread safe.
+ */
+public final class UDFMetrics {
+    public static final String ENABLED = "hiveudf.metrics.enabled";
+    public static final String SAMPLE_INTERVAL = "hiveudf.metrics.sample.interval";
+    public static final String COUNTER_GROUP = "HiveUDF";
+
+    static final UDFMetrics DISABLED = new UDFMetrics(null, null, false, 1);
+
+    private static final Logger LOG = LoggerFactory.getLogger(UDFMetrics.class);
+
+    private final String name;
+    private final Reporter reporter;
+    private final boolean enabled;
+    private final long sampleMask;
+
+    private long rows;
+    private long nullInputs;
+    private long nullResults;
+    private long sampledRows;
+    private long sampledNanos;
+    private long maxNanos;
+    private long inputs;
+    private long inputTotal;
+    private long maxInput;
+    private long cacheHits;
+    private long cacheMisses;
+    // 下标 i 统计 [2^(i-1), 2^i) 的值, 下标 0 统计 0
+    private final long[] latencyHistogram = new long[65];
+    private final long[] sizeHistogram = new long[65];
+    private boolean timing;
+
+    private UDFMetrics(String name, Reporter reporter, boolean enabled, int sampleInterval) {
+        this.name = name;
+        this.reporter = reporter;
+        this.enabled = enabled;
+        this.sampleMask = Integer.highestOneBit(Math.max(sampleInterval, 1)) - 1;
+    }
+
+    /**
+     * @return the metrics of the named function as configured in the job, DISABLED if they are off
+     */
+    public static UDFMetrics create(String name, MapredContext context) {
+        JobConf conf = context.getJobConf();
+        if (conf == null || !conf.getBoolean(ENABLED, false)) {
+            return DISABLED;
+        }
+        return new UDFMetrics(name, context.getReporter(), true, conf.getInt(SAMPLE_INTERVAL, 64));
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Count a row and start timing it if it is sampled.
+     *
+     * @return the start time to pass to {@link #end}
+     */
+    long start() {
+        if (!enabled) {
+            return 0;
+        }
+        timing = (rows++ & sampleMask) == 0;
+        return timing ? System.nanoTime() : 0;
+    }
+
+    void end(long start, Object result) {
+        if (!enabled) {
+            return;
+        }
+        if (timing) {
+            long nanos = System.nanoTime() - start;
+            sampledRows++;
+            sampledNanos += nanos;
+            maxNanos = Math.max(maxNanos, nanos);
+            latencyHistogram[bucket(nanos)]++;
+            timing = false;
+        }
+        if (result == null) {
+            nullResults++;
+        }
+    }
+
+    public void nullInput() {
+        if (enabled) {
+            nullInputs++;
+        }
+    }
+
+    /**
+     * @param size string bytes or array length of the input of the current row
+     */
+    public void inputSize(long size) {
+        if (enabled) {
+            inputs++;
+            inputTotal += size;
+            maxInput = Math.max(maxInput, size);
+            sizeHistogram[bucket(size)]++;
+        }
+    }
+
+    public void cacheHit() {
+        if (enabled) {
+            cacheHits++;
+        }
+    }
+
+    public void cacheMiss() {
+        if (enabled) {
+            cacheMisses++;
+        }
+    }
+
+    /**
+     * Publish the counters and log the summary, once per instance.
+     */
+    void close() {
+        if (!enabled || rows == 0) {
+            return;
+        }
+        long nanos = sampledRows == 0 ? 0 : (long) ((double) sampledNanos / sampledRows * rows);
+        if (reporter != null) {
+            reporter.incrCounter(COUNTER_GROUP, name + ".rows", rows);
+            reporter.incrCounter(COUNTER_GROUP, name + ".null_inputs", nullInputs);
+            reporter.incrCounter(COUNTER_GROUP, name + ".null_results", nullResults);
+            reporter.incrCounter(COUNTER_GROUP, name + ".nanos", nanos);
+            reporter.incrCounter(COUNTER_GROUP, name + ".input_size", inputTotal);
+            // 没有缓存的 UDF 不发布缓存计数器, 以免占用计数器的数量限制
+            if (cacheHits + cacheMisses > 0) {
+                reporter.incrCounter(COUNTER_GROUP, name + ".cache_hits", cacheHits);
+                reporter.incrCounter(COUNTER_GROUP, name + ".cache_misses", cacheMisses);
+            }
+        }
+        LOG.info(summary(nanos));
+        rows = 0;
+    }
+
+    String summary(long nanos) {
+        StringBuilder sb = new StringBuilder(name).append(": ").append(rows).append(" rows, ")
+                .append(nullInputs).append(" null inputs, ").append(nullResults).append(" null results, ")
+                .append(String.format("~%.1f ms, ", nanos / 1e6));
+        if (sampledRows > 0) {
+            sb.append(String.format("%.0f ns/row (%d sampled, p50 < %d ns, p99 < %d ns, max %d ns)",
+                    (double) sampledNanos / sampledRows, sampledRows, percentile(latencyHistogram, 50),
+                    percentile(latencyHistogram, 99), maxNanos));
+        }
+        if (inputs > 0) {
+            sb.append(String.format(", input size avg %.1f (p50 < %d, p99 < %d, max %d)",
+                    (double) inputTotal / inputs, percentile(sizeHistogram, 50),
+                    percentile(sizeHistogram, 99), maxInput));
+        }
+        if (cacheHits + cacheMisses > 0) {
+            sb.append(String.format(", cache hit rate %.1f%% (%d hits, %d misses)",
+                    100.0 * cacheHits / (cacheHits + cacheMisses), cacheHits, cacheMisses));
+        }
+        return sb.toString();
+    }
+
+    private static int bucket(long value) {
+        return value <= 0 ? 0 : 64 - Long.numberOfLeadingZeros(value);
+    }
+
+    /**
+     * @return the exclusive upper bound of the bucket holding percentile p
+     */
+    private static long percentile(long[] histogram, double p) {
+        long total = 0;
+        for (long count : histogram) {
+            total += count;
+        }
+        long rank = Math.max(1, (long) Math.ceil(total * p / 100));
+        long seen = 0;
+        for (int i = 0; i < histogram.length; i++) {
+            seen += histogram[i];
+            if (seen >= rank) {
+                return i >= 63 ? Long.MAX_VALUE : 1L << i;
+            }
+        }
+        return Long.MAX_VALUE;
+    }
+}
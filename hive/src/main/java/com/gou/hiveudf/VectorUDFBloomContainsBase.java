@@ -0,0 +1,119 @@
+package com.gou.hiveudf;
+
+/**
+ * @version 1.0
+ * @auther GouMi
+ */
+
+import com.gou.hiveudf.core.BloomFilter;
+
+import org.apache.hadoop.hive.ql.exec.vector.ColumnVector;
+import org.apache.hadoop.hive.ql.exec.vector.LongColumnVector;
+import org.apache.hadoop.hive.ql.exec.vector.VectorExpressionDescriptor;
+import org.apache.hadoop.hive.ql.exec.vector.VectorizedRowBatch;
+import org.apache.hadoop.hive.ql.exec.vector.expressions.VectorExpression;
+import org.apache.hadoop.hive.ql.metadata.HiveException;
+
+/**
+ * Common part of the vectorized bloom_contains(filter, col) with a constant filter. The filter is
+ * kept serialized in the plan and deserialized on the first batch; subclasses only hash the keys
+ * of their column type.
+ */
+public abstract class VectorUDFBloomContainsBase extends VectorExpression {
+    private static final long serialVersionUID = 1L;
+
+    private final byte[] value;
+    protected final int colNum;
+    private transient BloomFilter filter;
+
+    protected VectorUDFBloomContainsBase(byte[] value, int colNum, int outputColumnNum) {
+        super(outputColumnNum);
+        this.value = value;
+        this.colNum = colNum;
+    }
+
+    protected VectorUDFBloomContainsBase() {
+        super();
+
+        // Dummy final assignments.
+        value = null;
+        colNum = -1;
+    }
+
+    @Override
+    public void evaluate(VectorizedRowBatch batch) throws HiveException {
+        if (childExpressions != null) {
+            super.evaluateChildren(batch);
+        }
+
+        ColumnVector input = batch.cols[colNum];
+        LongColumnVector output = (LongColumnVector) batch.cols[outputColumnNum];
+        int n = batch.size;
+        if (n == 0) {
+            return;
+        }
+        if (value == null) {
+            output.isRepeating = true;
+            output.isNull[0] = true;
+            output.noNulls = false;
+            return;
+        }
+        if (filter == null) {
+            try {
+                filter = BloomFilter.deserialize(value, 0, value.length);
+            } catch (IllegalArgumentException e) {
+                throw new HiveException(e.getMessage(), e);
+            }
+        }
+        BloomFilter f = filter;
+        long[] outputVector = output.vector;
+        boolean[] outputIsNull = output.isNull;
+
+        if (input.isRepeating) {
+            output.isRepeating = true;
+            if (input.noNulls || !input.isNull[0]) {
+                outputIsNull[0] = false;
+                outputVector[0] = f.mightContain(hash(input, 0)) ? 1 : 0;
+            } else {
+                outputIsNull[0] = true;
+                output.noNulls = false;
+            }
+            return;
+        }
+
+        output.isRepeating = false;
+        int[] sel = batch.selected;
+        for (int j = 0; j < n; j++) {
+            int i = batch.selectedInUse ? sel[j] : j;
+            if (input.noNulls || !input.isNull[i]) {
+                outputIsNull[i] = false;
+                outputVector[i] = f.mightContain(hash(input, i)) ? 1 : 0;
+            } else {
+                outputIsNull[i] = true;
+                output.noNulls = false;
+            }
+        }
+    }
+
+    /**
+     * @return the {@link BloomFilter} hash of the key in row i of input, not null
+     */
+    protected abstract long hash(ColumnVector input, int i);
+
+    @Override
+    public String vectorExpressionParameters() {
+        return "filter " + (value == null ? "null" : value.length + " bytes") + ", " + getColumnParamString(1, colNum);
+    }
+
+    protected VectorExpressionDescriptor.Descriptor descriptor(VectorExpressionDescriptor.ArgumentType keyType) {
+        return (new VectorExpressionDescriptor.Builder())
+                .setMode(VectorExpressionDescriptor.Mode.PROJECTION)
+                .setNumArguments(2)
+                .setArgumentTypes(
+                        VectorExpressionDescriptor.ArgumentType.BINARY,
+                        keyType)
+                .setInputExpressionTypes(
+                        VectorExpressionDescriptor.InputExpressionType.SCALAR,
+                        VectorExpressionDescriptor.InputExpressionType.COLUMN).build();
+    }
+}
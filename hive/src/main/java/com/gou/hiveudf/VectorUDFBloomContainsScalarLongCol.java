@@ -0,0 +1,37 @@
+package com.gou.hiveudf;
+
+/**
+ * @version 1.0
+ * @auther GouMi
+ */
+
+import com.gou.hiveudf.core.BloomFilter;
+
+import org.apache.hadoop.hive.ql.exec.vector.ColumnVector;
+import org.apache.hadoop.hive.ql.exec.vector.LongColumnVector;
+import org.apache.hadoop.hive.ql.exec.vector.VectorExpressionDescriptor;
+
+/**
+ * Vectorized bloom_contains(constant filter, integer col).
+ */
+public class VectorUDFBloomContainsScalarLongCol extends VectorUDFBloomContainsBase {
+    private static final long serialVersionUID = 1L;
+
+    public VectorUDFBloomContainsScalarLongCol(byte[] value, int colNum, int outputColumnNum) {
+        super(value, colNum, outputColumnNum);
+    }
+
+    public VectorUDFBloomContainsScalarLongCol() {
+        super();
+    }
+
+    @Override
+    protected long hash(ColumnVector input, int i) {
+        return BloomFilter.hash(((LongColumnVector) input).vector[i]);
+    }
+
+    @Override
+    public VectorExpressionDescriptor.Descriptor getDescriptor() {
+        return descriptor(VectorExpressionDescriptor.ArgumentType.INT_FAMILY);
+    }
+}
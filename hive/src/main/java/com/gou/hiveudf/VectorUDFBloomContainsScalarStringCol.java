@@ -0,0 +1,39 @@
+package com.gou.hiveudf;
+
+/**
+ * @version 1.0
+ * @auther GouMi
+ */
+
+import com.gou.hiveudf.core.BloomFilter;
+
+import org.apache.hadoop.hive.ql.exec.vector.BytesColumnVector;
+import org.apache.hadoop.hive.ql.exec.vector.ColumnVector;
+import org.apache.hadoop.hive.ql.exec.vector.VectorExpressionDescriptor;
+
+/**
+ * Vectorized bloom_contains(constant filter, string col), hashing the UTF-8 bytes in place.
+ */
+public class VectorUDFBloomContainsScalarStringCol extends VectorUDFBloomContainsBase {
+    private static final long serialVersionUID = 1L;
+
+    public VectorUDFBloomContainsScalarStringCol(byte[] value, int colNum, int outputColumnNum) {
+        super(value, colNum, outputColumnNum);
+    }
+
+    public VectorUDFBloomContainsScalarStringCol() {
+        super();
+    }
+
+    @Override
+    protected long hash(ColumnVector input, int i) {
+        BytesColumnVector bytes = (BytesColumnVector) input;
+        int start = bytes.start[i];
+        return BloomFilter.hash(bytes.vector[i], start, start + bytes.length[i]);
+    }
+
+    @Override
+    public VectorExpressionDescriptor.Descriptor getDescriptor() {
+        return descriptor(VectorExpressionDescriptor.ArgumentType.STRING_FAMILY);
+    }
+}
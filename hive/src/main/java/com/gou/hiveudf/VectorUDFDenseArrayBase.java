@@ -0,0 +1,135 @@
+package com.gou.hiveudf;
+
+/**
+ * @version 1.0
+ * @auther GouMi
+ */
+
+import org.apache.hadoop.hive.ql.exec.vector.ColumnVector;
+import org.apache.hadoop.hive.ql.exec.vector.ListColumnVector;
+import org.apache.hadoop.hive.ql.exec.vector.VectorExpressionDescriptor;
+import org.apache.hadoop.hive.ql.exec.vector.VectorizedRowBatch;
+import org.apache.hadoop.hive.ql.exec.vector.expressions.VectorExpression;
+import org.apache.hadoop.hive.ql.metadata.HiveException;
+
+import java.util.Arrays;
+
+/**
+ * Common part of the vectorized dense_array expressions: for every row the non-null values of
+ * the input columns are appended to the child of the output ListColumnVector.
+ * <p>
+ * The child is rewritten from the start for each batch and grows geometrically. The row never
+ * becomes null, a row of nulls only is the empty array.
+ * <p>
+ * dense_array converts its arguments to their common type and Hive adds no casts for it, so the
+ * descriptors only accept columns whose values are copied unchanged into the array: all integer
+ * columns ({@link VectorUDFDenseArrayCol} and co.), all floating point columns
+ * ({@link VectorUDFDenseArrayDoubleCol} and co.) or all string columns
+ * ({@link VectorUDFDenseArrayStringCol} and co.). Everything else, e.g. integers mixed with
+ * floating point numbers, decimals, dates, timestamps, chars and varchars, or strings mixed with
+ * numbers, is left to VectorUDFAdaptor, which calls evaluate with the converters of the row mode.
+ */
+public abstract class VectorUDFDenseArrayBase extends VectorExpression {
+    private static final long serialVersionUID = 1L;
+
+    protected final int[] inputColumns;
+
+    protected VectorUDFDenseArrayBase(int[] inputColumns, int outputColumnNum) {
+        super(outputColumnNum);
+        this.inputColumns = inputColumns;
+    }
+
+    protected VectorUDFDenseArrayBase() {
+        super();
+
+        // Dummy final assignments.
+        inputColumns = null;
+    }
+
+    @Override
+    public void evaluate(VectorizedRowBatch batch) throws HiveException {
+        if (childExpressions != null) {
+            super.evaluateChildren(batch);
+        }
+
+        ListColumnVector output = (ListColumnVector) batch.cols[outputColumnNum];
+        int n = batch.size;
+        if (n == 0) {
+            return;
+        }
+
+        boolean repeating = true;
+        for (int c : inputColumns) {
+            repeating &= batch.cols[c].isRepeating;
+        }
+        output.child.reset();
+        output.childCount = 0;
+
+        if (repeating) {
+            output.isRepeating = true;
+            append(batch, 0, output);
+            return;
+        }
+
+        output.isRepeating = false;
+        int[] sel = batch.selected;
+        for (int j = 0; j < n; j++) {
+            append(batch, batch.selectedInUse ? sel[j] : j, output);
+        }
+    }
+
+    private void append(VectorizedRowBatch batch, int i, ListColumnVector output) throws HiveException {
+        ColumnVector child = output.child;
+        int offset = output.childCount;
+        if (offset + inputColumns.length > child.isNull.length) {
+            // 按倍数扩容, 保留本 batch 已经写入的元素
+            child.ensureSize(Math.max(offset + inputColumns.length, child.isNull.length << 1), true);
+        }
+
+        int e = offset;
+        for (int c : inputColumns) {
+            ColumnVector input = batch.cols[c];
+            int k = input.isRepeating ? 0 : i;
+            if (!input.noNulls && input.isNull[k]) {
+                continue;
+            }
+            if (input.getClass() != child.getClass()) {
+                // 描述符只接受与数组元素同一种向量的列, 不会到这里
+                throw new HiveException("dense_array cannot put a " + input.getClass().getSimpleName()
+                        + " value into a " + child.getClass().getSimpleName());
+            }
+            child.setElement(e++, k, input);
+        }
+        output.isNull[i] = false;
+        output.offsets[i] = offset;
+        output.lengths[i] = e - offset;
+        output.childCount = e;
+    }
+
+    /**
+     * @return the descriptor of n columns of the type
+     */
+    protected static VectorExpressionDescriptor.Descriptor descriptor(int n, VectorExpressionDescriptor.ArgumentType type) {
+        VectorExpressionDescriptor.ArgumentType[] types = new VectorExpressionDescriptor.ArgumentType[n];
+        Arrays.fill(types, type);
+        VectorExpressionDescriptor.InputExpressionType[] inputs = new VectorExpressionDescriptor.InputExpressionType[n];
+        Arrays.fill(inputs, VectorExpressionDescriptor.InputExpressionType.COLUMN);
+        return (new VectorExpressionDescriptor.Builder())
+                .setMode(VectorExpressionDescriptor.Mode.PROJECTION)
+                .setNumArguments(n)
+                .setArgumentTypes(types)
+                .setInputExpressionTypes(inputs).build();
+    }
+
+    @Override
+    public String vectorExpressionParameters() {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < inputColumns.length; i++) {
+            if (i > 0) {
+                sb.append(", ");
+            }
+            sb.append(getColumnParamString(i, inputColumns[i]));
+        }
+        return sb.toString();
+    }
+}
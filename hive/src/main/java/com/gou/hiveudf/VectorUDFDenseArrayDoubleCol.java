@@ -0,0 +1,28 @@
+package com.gou.hiveudf;
+
+/**
+ * @version 1.0
+ * @auther GouMi
+ */
+
+import org.apache.hadoop.hive.ql.exec.vector.VectorExpressionDescriptor;
+
+/**
+ * Vectorized dense_array(col) over floating point columns.
+ */
+public class VectorUDFDenseArrayDoubleCol extends VectorUDFDenseArrayBase {
+    private static final long serialVersionUID = 1L;
+
+    public VectorUDFDenseArrayDoubleCol(int colNum, int outputColumnNum) {
+        super(new int[]{colNum}, outputColumnNum);
+    }
+
+    public VectorUDFDenseArrayDoubleCol() {
+        super();
+    }
+
+    @Override
+    public VectorExpressionDescriptor.Descriptor getDescriptor() {
+        return descriptor(1, VectorExpressionDescriptor.ArgumentType.FLOAT_FAMILY);
+    }
+}
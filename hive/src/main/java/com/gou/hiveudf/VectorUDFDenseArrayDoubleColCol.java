@@ -0,0 +1,28 @@
+package com.gou.hiveudf;
+
+/**
+ * @version 1.0
+ * @auther GouMi
+ */
+
+import org.apache.hadoop.hive.ql.exec.vector.VectorExpressionDescriptor;
+
+/**
+ * Vectorized dense_array(col1, col2) over floating point columns.
+ */
+public class VectorUDFDenseArrayDoubleColCol extends VectorUDFDenseArrayBase {
+    private static final long serialVersionUID = 1L;
+
+    public VectorUDFDenseArrayDoubleColCol(int colNum1, int colNum2, int outputColumnNum) {
+        super(new int[]{colNum1, colNum2}, outputColumnNum);
+    }
+
+    public VectorUDFDenseArrayDoubleColCol() {
+        super();
+    }
+
+    @Override
+    public VectorExpressionDescriptor.Descriptor getDescriptor() {
+        return descriptor(2, VectorExpressionDescriptor.ArgumentType.FLOAT_FAMILY);
+    }
+}
@@ -0,0 +1,28 @@
+package com.gou.hiveudf;
+
+/**
+ * @version 1.0
+ * @auther GouMi
+ */
+
+import org.apache.hadoop.hive.ql.exec.vector.VectorExpressionDescriptor;
+
+/**
+ * Vectorized dense_array(col1, col2, col3) over floating point columns.
+ */
+public class VectorUDFDenseArrayDoubleColColCol extends VectorUDFDenseArrayBase {
+    private static final long serialVersionUID = 1L;
+
+    public VectorUDFDenseArrayDoubleColColCol(int colNum1, int colNum2, int colNum3, int outputColumnNum) {
+        super(new int[]{colNum1, colNum2, colNum3}, outputColumnNum);
+    }
+
+    public VectorUDFDenseArrayDoubleColColCol() {
+        super();
+    }
+
+    @Override
+    public VectorExpressionDescriptor.Descriptor getDescriptor() {
+        return descriptor(3, VectorExpressionDescriptor.ArgumentType.FLOAT_FAMILY);
+    }
+}
@@ -0,0 +1,82 @@
+package com.gou.hiveudf;
+
+/**
+ * @version 1.0
+ * @auther GouMi
+ */
+
+import com.gou.hiveudf.core.WordMatcher;
+
+import org.apache.hadoop.hive.ql.exec.vector.BytesColumnVector;
+import org.apache.hadoop.hive.ql.exec.vector.LongColumnVector;
+import org.apache.hadoop.hive.ql.exec.vector.VectorizedRowBatch;
+import org.apache.hadoop.hive.ql.exec.vector.expressions.VectorExpression;
+
+/**
+ * Common part of the vectorized matchNWords expressions. One {@link WordMatcher} is the
+ * tokenizer scratch space for every row of every batch.
+ */
+public abstract class VectorUDFMatchNWordsBase extends VectorExpression {
+    private static final long serialVersionUID = 1L;
+
+    private transient WordMatcher matcher;
+
+    protected VectorUDFMatchNWordsBase(int outputColumnNum) {
+        super(outputColumnNum);
+    }
+
+    protected VectorUDFMatchNWordsBase() {
+        super();
+    }
+
+    protected WordMatcher getMatcher() {
+        if (matcher == null) {
+            matcher = new WordMatcher();
+        }
+        return matcher;
+    }
+
+    /**
+     * Match every selected row of input against the side prepared in the matcher.
+     */
+    protected void evaluatePrepared(VectorizedRowBatch batch, BytesColumnVector input, LongColumnVector output) {
+        WordMatcher m = getMatcher();
+        int n = batch.size;
+        int[] sel = batch.selected;
+        long[] outputVector = output.vector;
+        boolean[] outputIsNull = output.isNull;
+
+        if (input.isRepeating) {
+            output.isRepeating = true;
+            if (input.noNulls || !input.isNull[0]) {
+                outputIsNull[0] = false;
+                outputVector[0] = m.matchPrepared(input.vector[0], input.start[0], input.length[0]);
+            } else {
+                outputIsNull[0] = true;
+                output.noNulls = false;
+            }
+            return;
+        }
+
+        output.isRepeating = false;
+        for (int j = 0; j < n; j++) {
+            int i = batch.selectedInUse ? sel[j] : j;
+            if (input.noNulls || !input.isNull[i]) {
+                outputIsNull[i] = false;
+                outputVector[i] = m.matchPrepared(input.vector[i], input.start[i], input.length[i]);
+            } else {
+                outputIsNull[i] = true;
+                output.noNulls = false;
+            }
+        }
+    }
+
+    /**
+     * Mark the whole batch as null, e.g. when the repeating or scalar side is null.
+     */
+    protected static void setAllNull(LongColumnVector output) {
+        output.isRepeating = true;
+        output.isNull[0] = true;
+        output.noNulls = false;
+    }
+}
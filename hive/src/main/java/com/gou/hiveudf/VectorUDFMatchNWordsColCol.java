@@ -0,0 +1,109 @@
+package com.gou.hiveudf;
+
+/**
+ * @version 1.0
+ * @auther GouMi
+ */
+
+import com.gou.hiveudf.core.WordMatcher;
+
+import org.apache.hadoop.hive.ql.exec.vector.BytesColumnVector;
+import org.apache.hadoop.hive.ql.exec.vector.LongColumnVector;
+import org.apache.hadoop.hive.ql.exec.vector.VectorExpressionDescriptor;
+import org.apache.hadoop.hive.ql.exec.vector.VectorizedRowBatch;
+import org.apache.hadoop.hive.ql.metadata.HiveException;
+
+/**
+ * Vectorized matchNWords(col1, col2). When one column is repeating, e.g. it was produced from
+ * a constant, its words are counted once for the batch and only the other column is tokenized.
+ */
+public class VectorUDFMatchNWordsColCol extends VectorUDFMatchNWordsBase {
+    private static final long serialVersionUID = 1L;
+
+    private final int colNum1;
+    private final int colNum2;
+
+    public VectorUDFMatchNWordsColCol(int colNum1, int colNum2, int outputColumnNum) {
+        super(outputColumnNum);
+        this.colNum1 = colNum1;
+        this.colNum2 = colNum2;
+    }
+
+    public VectorUDFMatchNWordsColCol() {
+        super();
+
+        // Dummy final assignments.
+        colNum1 = -1;
+        colNum2 = -1;
+    }
+
+    @Override
+    public void evaluate(VectorizedRowBatch batch) throws HiveException {
+        if (childExpressions != null) {
+            super.evaluateChildren(batch);
+        }
+
+        BytesColumnVector input1 = (BytesColumnVector) batch.cols[colNum1];
+        BytesColumnVector input2 = (BytesColumnVector) batch.cols[colNum2];
+        LongColumnVector output = (LongColumnVector) batch.cols[outputColumnNum];
+        int n = batch.size;
+        if (n == 0) {
+            return;
+        }
+
+        // 一侧是重复值时(通常来自常量), 每个 batch 只对它分词一次
+        if (input1.isRepeating) {
+            if (!input1.noNulls && input1.isNull[0]) {
+                setAllNull(output);
+                return;
+            }
+            getMatcher().prepare(input1.vector[0], input1.start[0], input1.length[0]);
+            evaluatePrepared(batch, input2, output);
+            return;
+        }
+        if (input2.isRepeating) {
+            if (!input2.noNulls && input2.isNull[0]) {
+                setAllNull(output);
+                return;
+            }
+            getMatcher().prepare(input2.vector[0], input2.start[0], input2.length[0]);
+            evaluatePrepared(batch, input1, output);
+            return;
+        }
+
+        WordMatcher matcher = getMatcher();
+        int[] sel = batch.selected;
+        long[] outputVector = output.vector;
+        boolean[] outputIsNull = output.isNull;
+        output.isRepeating = false;
+        for (int j = 0; j < n; j++) {
+            int i = batch.selectedInUse ? sel[j] : j;
+            if ((input1.noNulls || !input1.isNull[i]) && (input2.noNulls || !input2.isNull[i])) {
+                outputIsNull[i] = false;
+                outputVector[i] = matcher.match(input1.vector[i], input1.start[i], input1.length[i],
+                        input2.vector[i], input2.start[i], input2.length[i]);
+            } else {
+                outputIsNull[i] = true;
+                output.noNulls = false;
+            }
+        }
+    }
+
+    @Override
+    public String vectorExpressionParameters() {
+        return getColumnParamString(0, colNum1) + ", " + getColumnParamString(1, colNum2);
+    }
+
+    @Override
+    public VectorExpressionDescriptor.Descriptor getDescriptor() {
+        return (new VectorExpressionDescriptor.Builder())
+                .setMode(VectorExpressionDescriptor.Mode.PROJECTION)
+                .setNumArguments(2)
+                .setArgumentTypes(
+                        VectorExpressionDescriptor.ArgumentType.STRING_FAMILY,
+                        VectorExpressionDescriptor.ArgumentType.STRING_FAMILY)
+                .setInputExpressionTypes(
+                        VectorExpressionDescriptor.InputExpressionType.COLUMN,
+                        VectorExpressionDescriptor.InputExpressionType.COLUMN).build();
+    }
+}
@@ -0,0 +1,75 @@
+package com.gou.hiveudf;
+
+/**
+ * @version 1.0
+ * @auther GouMi
+ */
+
+import org.apache.hadoop.hive.ql.exec.vector.BytesColumnVector;
+import org.apache.hadoop.hive.ql.exec.vector.LongColumnVector;
+import org.apache.hadoop.hive.ql.exec.vector.VectorExpressionDescriptor;
+import org.apache.hadoop.hive.ql.exec.vector.VectorizedRowBatch;
+import org.apache.hadoop.hive.ql.metadata.HiveException;
+
+/**
+ * Vectorized matchNWords(col, 'constant'). The constant is tokenized once for the whole query.
+ */
+public class VectorUDFMatchNWordsColScalar extends VectorUDFMatchNWordsBase {
+    private static final long serialVersionUID = 1L;
+
+    private final int colNum;
+    private final byte[] value;
+
+    public VectorUDFMatchNWordsColScalar(int colNum, byte[] value, int outputColumnNum) {
+        super(outputColumnNum);
+        this.colNum = colNum;
+        this.value = value;
+    }
+
+    public VectorUDFMatchNWordsColScalar() {
+        super();
+
+        // Dummy final assignments.
+        colNum = -1;
+        value = null;
+    }
+
+    @Override
+    public void evaluate(VectorizedRowBatch batch) throws HiveException {
+        if (childExpressions != null) {
+            super.evaluateChildren(batch);
+        }
+
+        BytesColumnVector input = (BytesColumnVector) batch.cols[colNum];
+        LongColumnVector output = (LongColumnVector) batch.cols[outputColumnNum];
+        if (batch.size == 0) {
+            return;
+        }
+        if (value == null) {
+            setAllNull(output);
+            return;
+        }
+
+        // 同样的字节再次 prepare 不会重新分词
+        getMatcher().prepare(value, 0, value.length);
+        evaluatePrepared(batch, input, output);
+    }
+
+    @Override
+    public String vectorExpressionParameters() {
+        return getColumnParamString(0, colNum) + ", val " + displayUtf8Bytes(value);
+    }
+
+    @Override
+    public VectorExpressionDescriptor.Descriptor getDescriptor() {
+        return (new VectorExpressionDescriptor.Builder())
+                .setMode(VectorExpressionDescriptor.Mode.PROJECTION)
+                .setNumArguments(2)
+                .setArgumentTypes(
+                        VectorExpressionDescriptor.ArgumentType.STRING_FAMILY,
+                        VectorExpressionDescriptor.ArgumentType.STRING_FAMILY)
+                .setInputExpressionTypes(
+                        VectorExpressionDescriptor.InputExpressionType.COLUMN,
+                        VectorExpressionDescriptor.InputExpressionType.SCALAR).build();
+    }
+}
@@ -0,0 +1,105 @@
+package com.gou.hiveudf;
+
+/**
+ * @version 1.0
+ * @auther GouMi
+ */
+
+import com.gou.hiveudf.core.PercentFormatter;
+
+import org.apache.hadoop.hive.ql.exec.vector.BytesColumnVector;
+import org.apache.hadoop.hive.ql.exec.vector.LongColumnVector;
+import org.apache.hadoop.hive.ql.exec.vector.VectorExpressionDescriptor;
+import org.apache.hadoop.hive.ql.exec.vector.VectorizedRowBatch;
+import org.apache.hadoop.hive.ql.exec.vector.expressions.VectorExpression;
+import org.apache.hadoop.hive.ql.metadata.HiveException;
+
+/**
+ * Vectorized percentage(col1, col2) from two LongColumnVectors into a BytesColumnVector. Each
+ * percent string is formatted into the formatter's buffer and copied into the output buffer.
+ */
+public class VectorUDFPercentageColCol extends VectorExpression {
+    private static final long serialVersionUID = 1L;
+
+    private final int colNum1;
+    private final int colNum2;
+    private transient PercentFormatter formatter;
+
+    public VectorUDFPercentageColCol(int colNum1, int colNum2, int outputColumnNum) {
+        super(outputColumnNum);
+        this.colNum1 = colNum1;
+        this.colNum2 = colNum2;
+    }
+
+    public VectorUDFPercentageColCol() {
+        super();
+
+        // Dummy final assignments.
+        colNum1 = -1;
+        colNum2 = -1;
+    }
+
+    @Override
+    public void evaluate(VectorizedRowBatch batch) throws HiveException {
+        if (childExpressions != null) {
+            super.evaluateChildren(batch);
+        }
+
+        LongColumnVector input1 = (LongColumnVector) batch.cols[colNum1];
+        LongColumnVector input2 = (LongColumnVector) batch.cols[colNum2];
+        BytesColumnVector output = (BytesColumnVector) batch.cols[outputColumnNum];
+        int n = batch.size;
+        if (n == 0) {
+            return;
+        }
+        if (formatter == null) {
+            formatter = new PercentFormatter();
+        }
+        output.initBuffer();
+
+        if (input1.isRepeating && input2.isRepeating) {
+            output.isRepeating = true;
+            format(input1, 0, input2, 0, output, 0);
+            return;
+        }
+
+        output.isRepeating = false;
+        int[] sel = batch.selected;
+        for (int j = 0; j < n; j++) {
+            int i = batch.selectedInUse ? sel[j] : j;
+            format(input1, input1.isRepeating ? 0 : i, input2, input2.isRepeating ? 0 : i, output, i);
+        }
+    }
+
+    private void format(LongColumnVector input1, int i1, LongColumnVector input2, int i2,
+                        BytesColumnVector output, int i) {
+        int length = (input1.noNulls || !input1.isNull[i1]) && (input2.noNulls || !input2.isNull[i2])
+                ? formatter.percent(input1.vector[i1], input2.vector[i2])
+                : -1;
+        if (length < 0) {
+            output.isNull[i] = true;
+            output.noNulls = false;
+            return;
+        }
+        output.isNull[i] = false;
+        output.setVal(i, formatter.bytes(), 0, length);
+    }
+
+    @Override
+    public String vectorExpressionParameters() {
+        return getColumnParamString(0, colNum1) + ", " + getColumnParamString(1, colNum2);
+    }
+
+    @Override
+    public VectorExpressionDescriptor.Descriptor getDescriptor() {
+        return (new VectorExpressionDescriptor.Builder())
+                .setMode(VectorExpressionDescriptor.Mode.PROJECTION)
+                .setNumArguments(2)
+                .setArgumentTypes(
+                        VectorExpressionDescriptor.ArgumentType.INT_FAMILY,
+                        VectorExpressionDescriptor.ArgumentType.INT_FAMILY)
+                .setInputExpressionTypes(
+                        VectorExpressionDescriptor.InputExpressionType.COLUMN,
+                        VectorExpressionDescriptor.InputExpressionType.COLUMN).build();
+    }
+}
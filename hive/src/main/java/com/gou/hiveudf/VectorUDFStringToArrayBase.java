@@ -0,0 +1,125 @@
+package com.gou.hiveudf;
+
+/**
+ * @version 1.0
+ * @auther GouMi
+ */
+
+import com.gou.hiveudf.core.NumberArrayParser;
+
+import org.apache.hadoop.hive.ql.exec.vector.BytesColumnVector;
+import org.apache.hadoop.hive.ql.exec.vector.ColumnVector;
+import org.apache.hadoop.hive.ql.exec.vector.DoubleColumnVector;
+import org.apache.hadoop.hive.ql.exec.vector.ListColumnVector;
+import org.apache.hadoop.hive.ql.exec.vector.LongColumnVector;
+import org.apache.hadoop.hive.ql.exec.vector.VectorizedRowBatch;
+import org.apache.hadoop.hive.ql.exec.vector.expressions.VectorExpression;
+import org.apache.hadoop.hive.ql.metadata.HiveException;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Common part of the vectorized string_to_array expressions. Every row of the batch is parsed
+ * straight into the child of the output ListColumnVector, a LongColumnVector for int/bigint and
+ * a DoubleColumnVector for double. The child grows geometrically, so a batch of long arrays
+ * resizes it a few times at most instead of once per row.
+ */
+public abstract class VectorUDFStringToArrayBase extends VectorExpression {
+    private static final long serialVersionUID = 1L;
+
+    protected final int colNum;
+    private final NumberArrayParser.ElementType type;
+    private transient NumberArrayParser parser;
+
+    protected VectorUDFStringToArrayBase(int colNum, NumberArrayParser.ElementType type, int outputColumnNum) {
+        super(outputColumnNum);
+        this.colNum = colNum;
+        this.type = type;
+    }
+
+    protected VectorUDFStringToArrayBase() {
+        super();
+
+        // Dummy final assignments.
+        colNum = -1;
+        type = null;
+    }
+
+    /**
+     * @return the element type of the type name, INT for null or an unknown name as in initialize
+     */
+    protected static NumberArrayParser.ElementType typeOf(byte[] name) {
+        NumberArrayParser.ElementType t = name == null
+                ? null : NumberArrayParser.ElementType.of(new String(name, StandardCharsets.UTF_8));
+        return t == null ? NumberArrayParser.ElementType.INT : t;
+    }
+
+    @Override
+    public void evaluate(VectorizedRowBatch batch) throws HiveException {
+        if (childExpressions != null) {
+            super.evaluateChildren(batch);
+        }
+
+        BytesColumnVector input = (BytesColumnVector) batch.cols[colNum];
+        ListColumnVector output = (ListColumnVector) batch.cols[outputColumnNum];
+        int n = batch.size;
+        if (n == 0) {
+            return;
+        }
+        if (parser == null) {
+            parser = new NumberArrayParser(type);
+        }
+
+        // 每个 batch 从头写 child, 行的 offsets/lengths 都由这里重新设置
+        output.childCount = 0;
+        output.child.isRepeating = false;
+
+        if (input.isRepeating) {
+            output.isRepeating = true;
+            convert(input, 0, output);
+            return;
+        }
+
+        output.isRepeating = false;
+        int[] sel = batch.selected;
+        for (int j = 0; j < n; j++) {
+            convert(input, batch.selectedInUse ? sel[j] : j, output);
+        }
+    }
+
+    private void convert(BytesColumnVector input, int i, ListColumnVector output) {
+        int size = input.noNulls || !input.isNull[i]
+                ? parser.parse(input.vector[i], input.start[i], input.length[i])
+                : -1;
+        if (size < 0) {
+            output.isNull[i] = true;
+            output.noNulls = false;
+            return;
+        }
+        output.isNull[i] = false;
+
+        int offset = output.childCount;
+        ColumnVector child = output.child;
+        if (offset + size > child.isNull.length) {
+            // 按倍数扩容, 保留本 batch 已经写入的元素
+            child.ensureSize(Math.max(offset + size, child.isNull.length << 1), true);
+        }
+        for (int k = 0; k < size; k++) {
+            int e = offset + k;
+            if (parser.isNull(k)) {
+                child.isNull[e] = true;
+                child.noNulls = false;
+                continue;
+            }
+            child.isNull[e] = false;
+            if (type == NumberArrayParser.ElementType.DOUBLE) {
+                ((DoubleColumnVector) child).vector[e] = parser.getDouble(k);
+            } else {
+                ((LongColumnVector) child).vector[e] = parser.getLong(k);
+            }
+        }
+        output.offsets[i] = offset;
+        output.lengths[i] = size;
+        output.childCount = offset + size;
+    }
+}
@@ -0,0 +1,41 @@
+package com.gou.hiveudf;
+
+/**
+ * @version 1.0
+ * @auther GouMi
+ */
+
+import com.gou.hiveudf.core.NumberArrayParser;
+
+import org.apache.hadoop.hive.ql.exec.vector.VectorExpressionDescriptor;
+
+/**
+ * Vectorized string_to_array(col), an array&lt;int&gt; per row.
+ */
+public class VectorUDFStringToArrayCol extends VectorUDFStringToArrayBase {
+    private static final long serialVersionUID = 1L;
+
+    public VectorUDFStringToArrayCol(int colNum, int outputColumnNum) {
+        super(colNum, NumberArrayParser.ElementType.INT, outputColumnNum);
+    }
+
+    public VectorUDFStringToArrayCol() {
+        super();
+    }
+
+    @Override
+    public String vectorExpressionParameters() {
+        return getColumnParamString(0, colNum);
+    }
+
+    @Override
+    public VectorExpressionDescriptor.Descriptor getDescriptor() {
+        return (new VectorExpressionDescriptor.Builder())
+                .setMode(VectorExpressionDescriptor.Mode.PROJECTION)
+                .setNumArguments(1)
+                .setArgumentTypes(
+                        VectorExpressionDescriptor.ArgumentType.STRING_FAMILY)
+                .setInputExpressionTypes(
+                        VectorExpressionDescriptor.InputExpressionType.COLUMN).build();
+    }
+}
@@ -0,0 +1,47 @@
+package com.gou.hiveudf;
+
+/**
+ * @version 1.0
+ * @auther GouMi
+ */
+
+import org.apache.hadoop.hive.ql.exec.vector.VectorExpressionDescriptor;
+
+/**
+ * Vectorized string_to_array(col, 'type'), the element type is fixed for the whole query.
+ */
+public class VectorUDFStringToArrayColScalar extends VectorUDFStringToArrayBase {
+    private static final long serialVersionUID = 1L;
+
+    private final byte[] value;
+
+    public VectorUDFStringToArrayColScalar(int colNum, byte[] value, int outputColumnNum) {
+        super(colNum, typeOf(value), outputColumnNum);
+        this.value = value;
+    }
+
+    public VectorUDFStringToArrayColScalar() {
+        super();
+
+        // Dummy final assignments.
+        value = null;
+    }
+
+    @Override
+    public String vectorExpressionParameters() {
+        return getColumnParamString(0, colNum) + ", val " + displayUtf8Bytes(value);
+    }
+
+    @Override
+    public VectorExpressionDescriptor.Descriptor getDescriptor() {
+        return (new VectorExpressionDescriptor.Builder())
+                .setMode(VectorExpressionDescriptor.Mode.PROJECTION)
+                .setNumArguments(2)
+                .setArgumentTypes(
+                        VectorExpressionDescriptor.ArgumentType.STRING_FAMILY,
+                        VectorExpressionDescriptor.ArgumentType.STRING_FAMILY)
+                .setInputExpressionTypes(
+                        VectorExpressionDescriptor.InputExpressionType.COLUMN,
+                        VectorExpressionDescriptor.InputExpressionType.SCALAR).build();
+    }
+}
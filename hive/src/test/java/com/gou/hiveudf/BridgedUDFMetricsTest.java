@@ -0,0 +1,123 @@
+package com.gou.hiveudf;
+
+/**
+ * @version 1.0
+ * @auther GouMi
+ */
+import org.apache.hadoop.hive.ql.exec.MapredContext;
+import org.apache.hadoop.io.Text;
+import org.apache.hadoop.mapred.Counters;
+import org.apache.hadoop.mapred.InputSplit;
+import org.apache.hadoop.mapred.JobConf;
+import org.apache.hadoop.mapred.Reporter;
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * The legacy UDFs create their metrics from the MapredContext of the task on the first evaluate,
+ * and the counters are published when the context is closed at the end of the task.
+ */
+public class BridgedUDFMetricsTest {
+    private final Map<String, Long> counters = new HashMap<>();
+
+    @After
+    public void closeContext() {
+        MapredContext.close();
+    }
+
+    @Test
+    public void matchNWordsPublishesCountersOnClose() {
+        startTask(true);
+        UDFMatchNWords udf = new UDFMatchNWords();
+        assertEquals(2, udf.evaluate(new Text("red apple pie"), new Text("apple pie")).get());
+        udf.evaluate(null, new Text("a"));
+        assertEquals(1, udf.evaluate(new Text("a,b"), new Text("b"), new Text(",")).get());
+        udf.evaluate(new Text("a"), new Text("a"), null);
+        assertTrue(counters.isEmpty());
+
+        MapredContext.close();
+        assertEquals(Long.valueOf(4), counters.get("matchNWords.rows"));
+        assertEquals(Long.valueOf(1), counters.get("matchNWords.null_inputs"));
+        assertEquals(Long.valueOf(1), counters.get("matchNWords.null_results"));
+        assertEquals(Long.valueOf(13 + 9 + 3 + 1 + 1 + 1), counters.get("matchNWords.input_size"));
+    }
+
+    @Test
+    public void stringToArrayPublishesCountersOnClose() {
+        startTask(true);
+        StringToArray udf = new StringToArray();
+        udf.evaluate(new Text("[1,2]"));
+        udf.evaluate(null);
+        udf.evaluate(new Text("null"));
+
+        MapredContext.close();
+        assertEquals(Long.valueOf(3), counters.get("StringToArray.rows"));
+        assertEquals(Long.valueOf(1), counters.get("StringToArray.null_inputs"));
+        assertEquals(Long.valueOf(2), counters.get("StringToArray.null_results"));
+        assertEquals(Long.valueOf(5 + 4), counters.get("StringToArray.input_size"));
+    }
+
+    @Test
+    public void disabledOrOutsideATask() {
+        startTask(false);
+        new StringToArray().evaluate(new Text("[1]"));
+        MapredContext.close();
+        assertTrue(counters.isEmpty());
+
+        // 没有 MapredContext, 例如本地的 fetch task
+        new StringToArray().evaluate(new Text("[1]"));
+        assertTrue(counters.isEmpty());
+    }
+
+    private void startTask(boolean enabled) {
+        JobConf conf = new JobConf(false);
+        conf.setBoolean(UDFMetrics.ENABLED, enabled);
+        MapredContext.init(true, conf).setReporter(new CountingReporter());
+    }
+
+    private final class CountingReporter implements Reporter {
+        @Override
+        public void incrCounter(String group, String counter, long amount) {
+            assertEquals(UDFMetrics.COUNTER_GROUP, group);
+            counters.merge(counter, amount, Long::sum);
+        }
+
+        @Override
+        public void incrCounter(Enum<?> key, long amount) {
+        }
+
+        @Override
+        public Counters.Counter getCounter(Enum<?> name) {
+            return null;
+        }
+
+        @Override
+        public Counters.Counter getCounter(String group, String name) {
+            return null;
+        }
+
+        @Override
+        public void setStatus(String status) {
+        }
+
+        @Override
+        public InputSplit getInputSplit() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public float getProgress() {
+            return 0;
+        }
+
+        @Override
+        public void progress() {
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.gou.hiveudf;
+
+/**
+ * @version 1.0
+ * @auther GouMi
+ */
+import org.apache.hadoop.hive.ql.udf.generic.GenericUDF;
+import org.apache.hadoop.hive.serde2.objectinspector.ObjectInspector;
+import org.apache.hadoop.hive.serde2.objectinspector.ObjectInspectorUtils;
+import org.apache.hadoop.io.Text;
+import org.junit.After;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static com.gou.hiveudf.ReuseContract.constantIntOI;
+import static com.gou.hiveudf.ReuseContract.constantStringOI;
+import static com.gou.hiveudf.ReuseContract.stringOI;
+import static org.junit.Assert.assertEquals;
+
+/**
+ * The catalog cache of best_match: a catalog is read from the absolute path of its local file and
+ * read again once the file is replaced.
+ */
+public class GenericUDFBestMatchTest {
+    private static final String CATALOG = "best_match_replace_test.txt";
+
+    @After
+    public void deleteCatalog() throws IOException {
+        Files.deleteIfExists(new File(CATALOG).toPath());
+    }
+
+    @Test
+    public void localFileIsAbsolute() {
+        assertEquals(new File(CATALOG).getAbsoluteFile(), GenericUDFBestMatch.localFile("hdfs:///dim/" + CATALOG));
+        assertEquals(new File(CATALOG).getAbsoluteFile(), GenericUDFBestMatch.localFile(CATALOG));
+    }
+
+    @Test
+    public void replacedCatalogIsReadAgain() throws Exception {
+        File file = new File(CATALOG);
+        Files.write(file.toPath(), Arrays.asList("p1\tred apple"), StandardCharsets.UTF_8);
+        file.setLastModified(1_000_000L);
+        assertEquals(Collections.singletonList(Arrays.asList("p1", 1)), bestMatch("apple"));
+        assertEquals(Collections.singletonList(Arrays.asList("p1", 1)), bestMatch("apple"));
+
+        // 相同大小的新文件, 只有修改时间不同
+        Files.write(file.toPath(), Arrays.asList("p2\tred apple"), StandardCharsets.UTF_8);
+        file.setLastModified(2_000_000L);
+        assertEquals(Collections.singletonList(Arrays.asList("p2", 1)), bestMatch("apple"));
+
+        Files.write(file.toPath(), Arrays.asList("p3\tgreen apple"), StandardCharsets.UTF_8);
+        file.setLastModified(2_000_000L);
+        assertEquals(Collections.singletonList(Arrays.asList("p3", 1)), bestMatch("apple"));
+    }
+
+    private static Object bestMatch(String text) throws Exception {
+        GenericUDFBestMatch udf = new GenericUDFBestMatch();
+        ObjectInspector returnOI = udf.initialize(
+                new ObjectInspector[]{stringOI(), constantIntOI(1), constantStringOI(CATALOG)});
+        return ObjectInspectorUtils.copyToStandardJavaObject(udf.evaluate(
+                new GenericUDF.DeferredObject[]{new GenericUDF.DeferredJavaObject(new Text(text))}), returnOI);
+    }
+}
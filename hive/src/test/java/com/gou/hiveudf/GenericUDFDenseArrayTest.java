@@ -0,0 +1,237 @@
+package com.gou.hiveudf;
+
+/**
+ * @version 1.0
+ * @auther GouMi
+ */
+import org.apache.hadoop.hive.ql.exec.vector.BytesColumnVector;
+import org.apache.hadoop.hive.ql.exec.vector.ColumnVector;
+import org.apache.hadoop.hive.ql.exec.vector.DoubleColumnVector;
+import org.apache.hadoop.hive.ql.exec.vector.ListColumnVector;
+import org.apache.hadoop.hive.ql.exec.vector.LongColumnVector;
+import org.apache.hadoop.hive.ql.exec.vector.VectorExpressionDescriptor;
+import org.apache.hadoop.hive.ql.exec.vector.VectorizedExpressions;
+import org.apache.hadoop.hive.ql.exec.vector.VectorizedRowBatch;
+import org.apache.hadoop.hive.ql.exec.vector.expressions.VectorExpression;
+import org.apache.hadoop.hive.ql.udf.generic.GenericUDF;
+import org.apache.hadoop.hive.serde2.objectinspector.ObjectInspector;
+import org.apache.hadoop.hive.serde2.objectinspector.ObjectInspectorUtils;
+import org.apache.hadoop.hive.serde2.objectinspector.primitive.PrimitiveObjectInspectorFactory;
+import org.apache.hadoop.hive.serde2.typeinfo.ListTypeInfo;
+import org.apache.hadoop.hive.serde2.typeinfo.PrimitiveTypeInfo;
+import org.apache.hadoop.hive.serde2.typeinfo.TypeInfoFactory;
+import org.apache.hadoop.hive.serde2.typeinfo.TypeInfoUtils;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+/**
+ * Vectorized dense_array against the row mode: every type pair the descriptors accept gives the
+ * same arrays in both modes, and every other pair is not matched by any descriptor, so Hive runs
+ * it through VectorUDFAdaptor with the converters of the row mode.
+ */
+public class GenericUDFDenseArrayTest {
+    @Test
+    public void intAndBigint() throws Exception {
+        assertSameAsRowMode(new String[]{"int", "bigint"}, new Object[][]{
+                {1, 2L}, {null, Long.MIN_VALUE}, {Integer.MAX_VALUE, null}, {null, null}});
+    }
+
+    @Test
+    public void twoFloats() throws Exception {
+        assertSameAsRowMode(new String[]{"float", "float"}, new Object[][]{
+                {1.1f, 0.3f}, {null, Float.MAX_VALUE}, {-0.0f, null}});
+    }
+
+    @Test
+    public void floatAndDouble() throws Exception {
+        assertSameAsRowMode(new String[]{"float", "double"}, new Object[][]{
+                {1.1f, 1.1}, {null, 2.0}, {0.1f, null}});
+    }
+
+    @Test
+    public void tinyintAndSmallint() throws Exception {
+        assertSameAsRowMode(new String[]{"tinyint", "smallint"}, new Object[][]{
+                {(byte) -1, (short) 300}, {null, Short.MIN_VALUE}, {Byte.MAX_VALUE, null}});
+    }
+
+    @Test
+    public void threeStrings() throws Exception {
+        assertSameAsRowMode(new String[]{"string", "string", "string"}, new Object[][]{
+                {"a", null, "北京"}, {null, null, null}, {"", "b", "c"}});
+    }
+
+    @Test
+    public void singleColumn() throws Exception {
+        assertSameAsRowMode(new String[]{"bigint"}, new Object[][]{{1L}, {null}, {Long.MAX_VALUE}});
+        assertSameAsRowMode(new String[]{"double"}, new Object[][]{{1.5}, {null}, {Double.NaN}});
+        assertSameAsRowMode(new String[]{"string"}, new Object[][]{{"x"}, {null}});
+    }
+
+    @Test
+    public void otherTypesAreLeftToTheRowMode() {
+        // 整数与浮点数混合时整数要转换成 float 或 double, 交给行模式
+        assertNotVectorized("int", "double");
+        assertNotVectorized("int", "float");
+        assertNotVectorized("bigint", "float", "double");
+        assertNotVectorized("int", "decimal(10,2)");
+        assertNotVectorized("string", "double");
+        assertNotVectorized("timestamp", "string");
+        assertNotVectorized("date", "string");
+        assertNotVectorized("float", "string");
+        assertNotVectorized("varchar(10)", "string");
+        assertNotVectorized("bigint", "char(3)", "int");
+        assertNotVectorized("decimal(10,2)");
+        assertNotVectorized("timestamp");
+    }
+
+    private static void assertNotVectorized(String... types) {
+        assertNull(Arrays.toString(types), vectorExpressionClass(types));
+    }
+
+    private static Class<? extends VectorExpression> vectorExpressionClass(String... types) {
+        // 与 VectorizationContext 相同, 把 Hive 类型名转换成 ArgumentType
+        VectorExpressionDescriptor.ArgumentType[] argumentTypes = new VectorExpressionDescriptor.ArgumentType[types.length];
+        for (int i = 0; i < types.length; i++) {
+            argumentTypes[i] = VectorExpressionDescriptor.ArgumentType.fromHiveTypeName(types[i]);
+        }
+        VectorExpressionDescriptor.InputExpressionType[] inputs = new VectorExpressionDescriptor.InputExpressionType[types.length];
+        Arrays.fill(inputs, VectorExpressionDescriptor.InputExpressionType.COLUMN);
+        VectorExpressionDescriptor.Descriptor descriptor = (new VectorExpressionDescriptor.Builder())
+                .setMode(VectorExpressionDescriptor.Mode.PROJECTION)
+                .setNumArguments(types.length)
+                .setArgumentTypes(argumentTypes)
+                .setInputExpressionTypes(inputs).build();
+        // 与 Hive 一样, 取注解中第一个匹配的类
+        for (Class<? extends VectorExpression> c
+                : GenericUDFDenseArray.class.getAnnotation(VectorizedExpressions.class).value()) {
+            try {
+                if (c.newInstance().getDescriptor().matches(descriptor)) {
+                    return c;
+                }
+            } catch (ReflectiveOperationException e) {
+                throw new AssertionError(e);
+            }
+        }
+        return null;
+    }
+
+    private static void assertSameAsRowMode(String[] types, Object[][] rows) throws Exception {
+        int n = types.length;
+        PrimitiveTypeInfo[] typeInfos = new PrimitiveTypeInfo[n];
+        ObjectInspector[] arguments = new ObjectInspector[n];
+        for (int i = 0; i < n; i++) {
+            typeInfos[i] = TypeInfoFactory.getPrimitiveTypeInfo(types[i]);
+            arguments[i] = PrimitiveObjectInspectorFactory.getPrimitiveJavaObjectInspector(typeInfos[i]);
+        }
+        GenericUDFDenseArray udf = new GenericUDFDenseArray();
+        ObjectInspector returnOI = udf.initialize(arguments);
+        ListTypeInfo listType = (ListTypeInfo) TypeInfoUtils.getTypeInfoFromObjectInspector(returnOI);
+        PrimitiveTypeInfo elementType = (PrimitiveTypeInfo) listType.getListElementTypeInfo();
+
+        VectorizedRowBatch batch = new VectorizedRowBatch(n + 1, rows.length);
+        for (int i = 0; i < n; i++) {
+            batch.cols[i] = column(typeInfos[i], rows, i);
+        }
+        ListColumnVector output = new ListColumnVector(rows.length, newVector(elementType, 1));
+        batch.cols[n] = output;
+        batch.size = rows.length;
+
+        Class<? extends VectorExpression> c = vectorExpressionClass(types);
+        assertNotNull(Arrays.toString(types) + " is not vectorized", c);
+        Class<?>[] parameters = new Class<?>[n + 1];
+        Arrays.fill(parameters, int.class);
+        Object[] columns = new Object[n + 1];
+        for (int i = 0; i <= n; i++) {
+            columns[i] = i;
+        }
+        VectorExpression expression = c.getConstructor(parameters).newInstance(columns);
+        expression.setOutputTypeInfo(listType);
+        expression.evaluate(batch);
+
+        for (int r = 0; r < rows.length; r++) {
+            GenericUDF.DeferredObject[] row = new GenericUDF.DeferredObject[n];
+            for (int i = 0; i < n; i++) {
+                row[i] = new GenericUDF.DeferredJavaObject(rows[r][i]);
+            }
+            Object expected = ObjectInspectorUtils.copyToStandardJavaObject(udf.evaluate(row), returnOI);
+            assertEquals(Arrays.toString(types) + " " + Arrays.toString(rows[r]),
+                    expected, elements(output, output.isRepeating ? 0 : r, elementType));
+        }
+    }
+
+    private static ColumnVector column(PrimitiveTypeInfo type, Object[][] rows, int i) {
+        ColumnVector column = newVector(type, rows.length);
+        for (int r = 0; r < rows.length; r++) {
+            Object value = rows[r][i];
+            if (value == null) {
+                column.noNulls = false;
+                column.isNull[r] = true;
+            } else if (column instanceof LongColumnVector) {
+                ((LongColumnVector) column).vector[r] = ((Number) value).longValue();
+            } else if (column instanceof DoubleColumnVector) {
+                // float 列中保存的是 float 值转换成的 double
+                ((DoubleColumnVector) column).vector[r] = ((Number) value).doubleValue();
+            } else {
+                ((BytesColumnVector) column).setVal(r, ((String) value).getBytes(StandardCharsets.UTF_8));
+            }
+        }
+        return column;
+    }
+
+    private static ColumnVector newVector(PrimitiveTypeInfo type, int size) {
+        switch (type.getPrimitiveCategory()) {
+            case BYTE:
+            case SHORT:
+            case INT:
+            case LONG:
+                return new LongColumnVector(size);
+            case FLOAT:
+            case DOUBLE:
+                return new DoubleColumnVector(size);
+            case STRING:
+                BytesColumnVector bytes = new BytesColumnVector(size);
+                bytes.initBuffer();
+                return bytes;
+            default:
+                throw new IllegalArgumentException(type.getTypeName());
+        }
+    }
+
+    private static List<Object> elements(ListColumnVector output, int r, PrimitiveTypeInfo type) {
+        List<Object> elements = new ArrayList<>();
+        for (int e = (int) output.offsets[r]; e < output.offsets[r] + output.lengths[r]; e++) {
+            switch (type.getPrimitiveCategory()) {
+                case BYTE:
+                    elements.add((byte) ((LongColumnVector) output.child).vector[e]);
+                    break;
+                case SHORT:
+                    elements.add((short) ((LongColumnVector) output.child).vector[e]);
+                    break;
+                case INT:
+                    elements.add((int) ((LongColumnVector) output.child).vector[e]);
+                    break;
+                case LONG:
+                    elements.add(((LongColumnVector) output.child).vector[e]);
+                    break;
+                case FLOAT:
+                    elements.add((float) ((DoubleColumnVector) output.child).vector[e]);
+                    break;
+                case DOUBLE:
+                    elements.add(((DoubleColumnVector) output.child).vector[e]);
+                    break;
+                default:
+                    BytesColumnVector child = (BytesColumnVector) output.child;
+                    elements.add(new String(child.vector[e], child.start[e], child.length[e], StandardCharsets.UTF_8));
+            }
+        }
+        return elements;
+    }
+}
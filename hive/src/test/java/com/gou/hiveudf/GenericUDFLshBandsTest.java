@@ -0,0 +1,43 @@
+package com.gou.hiveudf;
+
+/**
+ * @version 1.0
+ * @auther GouMi
+ */
+import org.apache.hadoop.hive.ql.udf.generic.GenericUDF;
+import org.apache.hadoop.hive.serde2.objectinspector.ObjectInspector;
+import org.apache.hadoop.hive.serde2.objectinspector.ObjectInspectorFactory;
+import org.apache.hadoop.hive.serde2.objectinspector.primitive.PrimitiveObjectInspectorFactory;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static com.gou.hiveudf.ReuseContract.constantIntOI;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+/**
+ * Signatures of lsh_bands too short for b bands of r values give null, like other unusable input,
+ * instead of failing the query.
+ */
+public class GenericUDFLshBandsTest {
+    @Test
+    public void shortSignatureIsNull() throws Exception {
+        GenericUDFLshBands udf = new GenericUDFLshBands();
+        udf.initialize(new ObjectInspector[]{
+                ObjectInspectorFactory.getStandardListObjectInspector(
+                        PrimitiveObjectInspectorFactory.javaLongObjectInspector),
+                constantIntOI(2), constantIntOI(2)});
+        assertNull(evaluate(udf, Arrays.asList(1L, 2L, 3L)));
+        assertEquals(2, ((List<?>) evaluate(udf, Arrays.asList(1L, 2L, 3L, 4L))).size());
+        assertEquals(Collections.emptyList(), evaluate(udf, Collections.<Long>emptyList()));
+        assertNull(evaluate(udf, null));
+    }
+
+    private static Object evaluate(GenericUDF udf, List<Long> signature) throws Exception {
+        return udf.evaluate(new GenericUDF.DeferredObject[]{new GenericUDF.DeferredJavaObject(signature),
+                new GenericUDF.DeferredJavaObject(null), new GenericUDF.DeferredJavaObject(null)});
+    }
+}
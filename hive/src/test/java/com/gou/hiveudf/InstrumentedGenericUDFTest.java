@@ -0,0 +1,35 @@
+package com.gou.hiveudf;
+
+/**
+ * @version 1.0
+ * @auther GouMi
+ */
+import org.apache.hadoop.hive.ql.udf.generic.GenericUDF;
+import org.apache.hadoop.hive.serde2.objectinspector.ObjectInspector;
+import org.junit.Test;
+
+import java.util.Arrays;
+
+import static com.gou.hiveudf.ReuseContract.intOI;
+import static org.junit.Assert.assertEquals;
+
+/**
+ * An instance deserialized from the plan skips the field initializers, so metrics is null until
+ * initialize even without configure.
+ */
+public class InstrumentedGenericUDFTest {
+    @Test
+    public void unconfiguredInstanceWithoutFieldInitializers() throws Exception {
+        GenericUDFDenseArray udf = new GenericUDFDenseArray();
+        udf.metrics = null;
+        udf.initialize(new ObjectInspector[]{intOI(), intOI()});
+        assertEquals(UDFMetrics.DISABLED, udf.metrics);
+        assertEquals(Arrays.asList(1), udf.evaluate(new GenericUDF.DeferredObject[]{
+                new GenericUDF.DeferredJavaObject(1), new GenericUDF.DeferredJavaObject(null)}));
+        udf.close();
+
+        udf = new GenericUDFDenseArray();
+        udf.metrics = null;
+        udf.close();
+    }
+}
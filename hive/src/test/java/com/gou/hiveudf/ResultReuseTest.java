@@ -0,0 +1,190 @@
+package com.gou.hiveudf;
+
+/**
+ * @version 1.0
+ * @auther GouMi
+ */
+import org.apache.hadoop.hive.ql.udf.generic.GenericUDAFEvaluator;
+import org.apache.hadoop.hive.serde2.objectinspector.ObjectInspector;
+import org.apache.hadoop.hive.serde2.objectinspector.ObjectInspectorFactory;
+import org.apache.hadoop.hive.serde2.objectinspector.ObjectInspectorUtils;
+import org.apache.hadoop.hive.serde2.objectinspector.primitive.PrimitiveObjectInspectorFactory;
+import org.apache.hadoop.io.Text;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static com.gou.hiveudf.ReuseContract.constantIntOI;
+import static com.gou.hiveudf.ReuseContract.constantStringOI;
+import static com.gou.hiveudf.ReuseContract.intOI;
+import static com.gou.hiveudf.ReuseContract.stringOI;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
+
+/**
+ * The result reuse contract of the UDFs reusing their result objects: results held across rows
+ * are only valid until the next evaluate, copies taken right after evaluate stay valid, and the
+ * reused argument objects of the following rows do not change them.
+ */
+public class ResultReuseTest {
+    // best_match 打开 catalog 的本地文件名, 即工作目录中的文件
+    private static final String CATALOG = "best_match_reuse_test.txt";
+
+    @BeforeClass
+    public static void writeCatalog() throws IOException {
+        Files.write(new File(CATALOG).toPath(), Arrays.asList("p1\tred apple", "p2\tgreen apple pie", "p3\tbanana"),
+                StandardCharsets.UTF_8);
+    }
+
+    @AfterClass
+    public static void deleteCatalog() throws IOException {
+        Files.deleteIfExists(new File(CATALOG).toPath());
+    }
+
+    @Test
+    public void arrayUnion() throws Exception {
+        ObjectInspector arrayOI = ObjectInspectorFactory.getStandardListObjectInspector(stringOI());
+        ReuseContract.Run run = ReuseContract.run(GenericUDFArrayUnion::new, new ObjectInspector[]{arrayOI, arrayOI},
+                new Object[][]{
+                        {Arrays.asList("a", "b"), Arrays.asList("c")},
+                        {Arrays.asList("d"), null},
+                        {Collections.emptyList(), Arrays.asList("e", "a")}});
+        assertEquals(Arrays.asList(
+                Arrays.asList("a", "b", "c"), Arrays.asList("d"), Arrays.asList("e", "a")), run.copies);
+        assertReused(run.results);
+    }
+
+    @Test
+    public void arrayDistinct() throws Exception {
+        ObjectInspector arrayOI = ObjectInspectorFactory.getStandardListObjectInspector(stringOI());
+        ReuseContract.Run run = ReuseContract.run(GenericUDFArrayDistinct::new, new ObjectInspector[]{arrayOI},
+                new Object[][]{
+                        {Arrays.asList("a", "b", "a", null, null)},
+                        {Arrays.asList("b", "b")},
+                        {null},
+                        {Arrays.asList("c")}});
+        assertEquals(Arrays.asList(
+                Arrays.asList("a", "b", null), Arrays.asList("b"), null, Arrays.asList("c")), run.copies);
+        assertReused(run.results);
+    }
+
+    @Test
+    public void denseArray() throws Exception {
+        ReuseContract.Run run = ReuseContract.run(GenericUDFDenseArray::new,
+                new ObjectInspector[]{intOI(), intOI(), intOI()},
+                new Object[][]{{1, null, 3}, {null, null, null}, {4, 5, 6}});
+        assertEquals(Arrays.asList(Arrays.asList(1, 3), Collections.emptyList(), Arrays.asList(4, 5, 6)), run.copies);
+        assertReused(run.results);
+    }
+
+    @Test
+    public void extractAddresses() throws Exception {
+        ObjectInspector arrayOI = ObjectInspectorFactory.getStandardListObjectInspector(stringOI());
+        ReuseContract.Run run = ReuseContract.run(GenericUDFExtractAddresses::new, new ObjectInspector[]{arrayOI},
+                new Object[][]{
+                        {Arrays.asList("北京市朝阳区建国路88号", "火星基地", "北京市朝阳区建国路88号", null)},
+                        {Arrays.asList("广东省深圳市南山区科技园")},
+                        {null}});
+        assertEquals(Arrays.asList(
+                Arrays.asList("110105", null, "110105", null), Arrays.asList("440305"), null), run.copies);
+        assertReused(run.results);
+    }
+
+    @Test
+    public void bestMatch() throws Exception {
+        ReuseContract.Run run = ReuseContract.run(GenericUDFBestMatch::new,
+                new ObjectInspector[]{stringOI(), constantIntOI(2), constantStringOI(CATALOG)},
+                new Object[][]{{"apple pie", null, null}, {"banana split", null, null}, {null, null, null},
+                        {"kiwi", null, null}});
+        assertEquals(Arrays.asList(
+                Arrays.asList(Arrays.asList("p2", 2), Arrays.asList("p1", 1)),
+                Collections.singletonList(Arrays.asList("p3", 1)),
+                null,
+                Collections.emptyList()), run.copies);
+        assertReused(run.results);
+    }
+
+    @Test
+    public void topTokens() throws Exception {
+        Object[] group1 = {"a b a", "b a c", null, "a"};
+        Object[] group2 = {"x y", "y"};
+        List<?> expected1 = Arrays.asList(Arrays.asList("a", 4L, 0L), Arrays.asList("b", 2L, 0L));
+        List<?> expected2 = Arrays.asList(Arrays.asList("y", 2L, 0L), Arrays.asList("x", 1L, 0L));
+
+        // COMPLETE: 第二组的结果复用第一组的对象, 第一组的副本不变
+        GenericUDAFEvaluator complete = new GenericUDAFTopTokens.TopTokensEvaluator();
+        ObjectInspector outputOI = complete.init(GenericUDAFEvaluator.Mode.COMPLETE,
+                new ObjectInspector[]{stringOI(), constantIntOI(2)});
+        GenericUDAFEvaluator.AggregationBuffer buffer = complete.getNewAggregationBuffer();
+        iterate(complete, buffer, group1);
+        Object result1 = complete.terminate(buffer);
+        Object copy1 = ObjectInspectorUtils.copyToStandardJavaObject(result1, outputOI);
+        complete.reset(buffer);
+        iterate(complete, buffer, group2);
+        Object result2 = complete.terminate(buffer);
+        Object copy2 = ObjectInspectorUtils.copyToStandardJavaObject(result2, outputOI);
+        assertEquals(expected1, copy1);
+        assertEquals(expected2, copy2);
+        assertSame(result1, result2);
+
+        // PARTIAL1 的部分结果也复用, 复制后在 FINAL 中合并
+        GenericUDAFEvaluator partial = new GenericUDAFTopTokens.TopTokensEvaluator();
+        ObjectInspector partialOI = partial.init(GenericUDAFEvaluator.Mode.PARTIAL1,
+                new ObjectInspector[]{stringOI(), constantIntOI(2)});
+        buffer = partial.getNewAggregationBuffer();
+        iterate(partial, buffer, Arrays.copyOfRange(group1, 0, 2));
+        Object partial1 = partial.terminatePartial(buffer);
+        Object partialCopy1 = ObjectInspectorUtils.copyToStandardObject(partial1, partialOI);
+        partial.reset(buffer);
+        iterate(partial, buffer, Arrays.copyOfRange(group1, 2, 4));
+        Object partial2 = partial.terminatePartial(buffer);
+        Object partialCopy2 = ObjectInspectorUtils.copyToStandardObject(partial2, partialOI);
+        assertSame(partial1, partial2);
+
+        GenericUDAFEvaluator merge = new GenericUDAFTopTokens.TopTokensEvaluator();
+        ObjectInspector finalOI = merge.init(GenericUDAFEvaluator.Mode.FINAL,
+                new ObjectInspector[]{PrimitiveObjectInspectorFactory.writableBinaryObjectInspector});
+        buffer = merge.getNewAggregationBuffer();
+        merge.merge(buffer, partialCopy1);
+        merge.merge(buffer, partialCopy2);
+        assertEquals(expected1, ObjectInspectorUtils.copyToStandardJavaObject(merge.terminate(buffer), finalOI));
+    }
+
+    /**
+     * Iterates the texts with one Text changed in place, as a deserializer passes a column.
+     */
+    private static void iterate(GenericUDAFEvaluator evaluator, GenericUDAFEvaluator.AggregationBuffer buffer,
+                                Object[] texts) throws Exception {
+        Text text = new Text();
+        for (Object t : texts) {
+            evaluator.iterate(buffer, new Object[]{t == null ? null : ReuseContract.reuse(text, t), null});
+        }
+    }
+
+    /**
+     * The UDFs reuse one result object for all rows, so a result held without copying is only
+     * valid until the next evaluate.
+     */
+    private static void assertReused(List<Object> results) {
+        Object first = null;
+        for (Object result : results) {
+            if (result == null) {
+                continue;
+            }
+            if (first == null) {
+                first = result;
+            }
+            assertSame(first, result);
+        }
+        assertNotNull("no result", first);
+    }
+}
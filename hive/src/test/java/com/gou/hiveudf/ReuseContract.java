@@ -0,0 +1,144 @@
+package com.gou.hiveudf;
+
+/**
+ * @version 1.0
+ * @auther GouMi
+ */
+import org.apache.hadoop.hive.ql.metadata.HiveException;
+import org.apache.hadoop.hive.ql.udf.generic.GenericUDF;
+import org.apache.hadoop.hive.serde2.objectinspector.ObjectInspector;
+import org.apache.hadoop.hive.serde2.objectinspector.ObjectInspectorUtils;
+import org.apache.hadoop.hive.serde2.objectinspector.primitive.PrimitiveObjectInspectorFactory;
+import org.apache.hadoop.hive.serde2.typeinfo.TypeInfoFactory;
+import org.apache.hadoop.io.IntWritable;
+import org.apache.hadoop.io.LongWritable;
+import org.apache.hadoop.io.Text;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Runs rows through a GenericUDF the way Hive's operators do, to check the result reuse contract
+ * of {@link InstrumentedGenericUDF}: the argument objects are reused and changed in place from
+ * row to row, as Hive's deserializers do, and the results are held across all rows, each with a
+ * copy taken right after its evaluate. Once all rows ran, every copy must still equal the result
+ * of a fresh instance evaluating only that row, so neither a later row nor the reused arguments
+ * may change what a copy holds.
+ * <p>
+ * Rows are given as Java values (String, Integer, Long, List and null) and passed as Text,
+ * IntWritable, LongWritable and ArrayList, so the arguments are read with writable or standard
+ * list ObjectInspectors.
+ */
+final class ReuseContract {
+    /**
+     * The objects returned by evaluate, held across the rows, and their copies.
+     */
+    static final class Run {
+        final List<Object> results = new ArrayList<>();
+        final List<Object> copies = new ArrayList<>();
+    }
+
+    private ReuseContract() {
+    }
+
+    static Run run(Supplier<GenericUDF> factory, ObjectInspector[] arguments, Object[][] rows) throws HiveException {
+        GenericUDF udf = factory.get();
+        ObjectInspector returnOI = udf.initialize(arguments);
+        Object[] holders = new Object[arguments.length];
+        Run run = new Run();
+        for (Object[] row : rows) {
+            Object result = udf.evaluate(deferred(holders, row));
+            run.results.add(result);
+            run.copies.add(ObjectInspectorUtils.copyToStandardJavaObject(result, returnOI));
+        }
+
+        for (int r = 0; r < rows.length; r++) {
+            GenericUDF fresh = factory.get();
+            ObjectInspector freshOI = fresh.initialize(arguments);
+            Object expected = ObjectInspectorUtils.copyToStandardJavaObject(
+                    fresh.evaluate(deferred(new Object[arguments.length], rows[r])), freshOI);
+            assertEquals("row " + r + " " + Arrays.deepToString(rows[r]), expected, run.copies.get(r));
+        }
+        return run;
+    }
+
+    static ObjectInspector stringOI() {
+        return PrimitiveObjectInspectorFactory.writableStringObjectInspector;
+    }
+
+    static ObjectInspector intOI() {
+        return PrimitiveObjectInspectorFactory.writableIntObjectInspector;
+    }
+
+    static ObjectInspector constantIntOI(int value) {
+        return PrimitiveObjectInspectorFactory.getPrimitiveWritableConstantObjectInspector(
+                TypeInfoFactory.intTypeInfo, new IntWritable(value));
+    }
+
+    static ObjectInspector constantStringOI(String value) {
+        return PrimitiveObjectInspectorFactory.getPrimitiveWritableConstantObjectInspector(
+                TypeInfoFactory.stringTypeInfo, new Text(value));
+    }
+
+    /**
+     * @return the arguments of the row, written into the holders of the previous row where possible
+     */
+    private static GenericUDF.DeferredObject[] deferred(Object[] holders, Object[] row) {
+        GenericUDF.DeferredObject[] deferred = new GenericUDF.DeferredObject[row.length];
+        for (int i = 0; i < row.length; i++) {
+            if (row[i] != null) {
+                holders[i] = reuse(holders[i], row[i]);
+            }
+            deferred[i] = new GenericUDF.DeferredJavaObject(row[i] == null ? null : holders[i]);
+        }
+        return deferred;
+    }
+
+    /**
+     * @param holder the object of the same argument in the previous row, or null
+     * @return holder set to value, or a new object if holder cannot hold it
+     */
+    static Object reuse(Object holder, Object value) {
+        if (value == null) {
+            return null;
+        }
+        if (value instanceof String) {
+            Text text = holder instanceof Text ? (Text) holder : new Text();
+            text.set((String) value);
+            return text;
+        }
+        if (value instanceof Integer) {
+            IntWritable writable = holder instanceof IntWritable ? (IntWritable) holder : new IntWritable();
+            writable.set((Integer) value);
+            return writable;
+        }
+        if (value instanceof Long) {
+            LongWritable writable = holder instanceof LongWritable ? (LongWritable) holder : new LongWritable();
+            writable.set((Long) value);
+            return writable;
+        }
+        if (value instanceof List) {
+            @SuppressWarnings("unchecked")
+            ArrayList<Object> list = holder instanceof ArrayList ? (ArrayList<Object>) holder : new ArrayList<>();
+            List<?> values = (List<?>) value;
+            // 元素对象按位置复用, 与 Hive 的 lazy 和 binary 反序列化相同
+            for (int j = 0; j < values.size(); j++) {
+                if (j < list.size()) {
+                    Object element = reuse(list.get(j), values.get(j));
+                    list.set(j, element);
+                } else {
+                    list.add(reuse(null, values.get(j)));
+                }
+            }
+            while (list.size() > values.size()) {
+                list.remove(list.size() - 1);
+            }
+            return list;
+        }
+        throw new IllegalArgumentException("Unsupported value " + value);
+    }
+}
@@ -0,0 +1,65 @@
+package com.gou.hiveudf;
+
+/**
+ * @version 1.0
+ * @auther GouMi
+ */
+import org.apache.hadoop.hive.common.type.HiveChar;
+import org.apache.hadoop.hive.common.type.HiveVarchar;
+import org.apache.hadoop.hive.ql.udf.generic.GenericUDF;
+import org.apache.hadoop.hive.serde2.io.HiveCharWritable;
+import org.apache.hadoop.hive.serde2.io.HiveVarcharWritable;
+import org.apache.hadoop.hive.serde2.objectinspector.ObjectInspector;
+import org.apache.hadoop.hive.serde2.objectinspector.primitive.PrimitiveObjectInspectorFactory;
+import org.apache.hadoop.hive.serde2.typeinfo.TypeInfoFactory;
+import org.apache.hadoop.io.IntWritable;
+import org.apache.hadoop.io.Text;
+import org.junit.Test;
+
+import static com.gou.hiveudf.ReuseContract.constantIntOI;
+import static com.gou.hiveudf.ReuseContract.constantStringOI;
+import static com.gou.hiveudf.ReuseContract.stringOI;
+import static org.junit.Assert.assertEquals;
+
+/**
+ * The optional arguments of matchNWords2 are told apart by type: a string, char or varchar
+ * constant is the delimiters, an integer is n.
+ */
+public class UDFMatchNWords2Test {
+    private static final String STR1 = "usb-c/lightning cable";
+    private static final String STR2 = "usb-c cable";
+
+    @Test
+    public void delimitersOfEveryStringType() throws Exception {
+        assertEquals(3, match(constantStringOI("-/")));
+        assertEquals(3, match(PrimitiveObjectInspectorFactory.getPrimitiveWritableConstantObjectInspector(
+                TypeInfoFactory.getVarcharTypeInfo(5), new HiveVarcharWritable(new HiveVarchar("-/", 5)))));
+        assertEquals(3, match(PrimitiveObjectInspectorFactory.getPrimitiveWritableConstantObjectInspector(
+                TypeInfoFactory.getCharTypeInfo(2), new HiveCharWritable(new HiveChar("-/", 2)))));
+        assertEquals(3, match(PrimitiveObjectInspectorFactory.getPrimitiveWritableConstantObjectInspector(
+                TypeInfoFactory.getVarcharTypeInfo(5), new HiveVarcharWritable(new HiveVarchar("-/", 5))),
+                constantIntOI(1)));
+    }
+
+    @Test
+    public void withoutDelimiters() throws Exception {
+        assertEquals(1, match());
+        assertEquals(1, match(constantIntOI(1)));
+    }
+
+    private static int match(ObjectInspector... optional) throws Exception {
+        ObjectInspector[] arguments = new ObjectInspector[2 + optional.length];
+        arguments[0] = stringOI();
+        arguments[1] = stringOI();
+        System.arraycopy(optional, 0, arguments, 2, optional.length);
+        UDFMatchNWords2 udf = new UDFMatchNWords2();
+        udf.initialize(arguments);
+        GenericUDF.DeferredObject[] row = new GenericUDF.DeferredObject[arguments.length];
+        row[0] = new GenericUDF.DeferredJavaObject(new Text(STR1));
+        row[1] = new GenericUDF.DeferredJavaObject(new Text(STR2));
+        for (int i = 2; i < row.length; i++) {
+            row[i] = new GenericUDF.DeferredJavaObject(null);
+        }
+        return ((IntWritable) udf.evaluate(row)).get();
+    }
+}